@@ -0,0 +1,116 @@
+package com.eaglebank.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline and fails when any benchmark regressed
+ * by more than the threshold. Throughput regresses when it drops; every time-based mode regresses when
+ * it grows. A change counts only if it also exceeds the two runs' combined score error (99.9% confidence);
+ * a change past the threshold but within that error is reported as noise, since a rerun could reverse it.
+ * Benchmarks missing from either side are listed but never fail the comparison.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar "HotPathBenchmark" -rf json -rff benchmarks/target/results.json
+ * java -cp benchmarks/target/benchmarks.jar com.eaglebank.benchmark.BaselineComparator \
+ *     benchmarks/baseline.json benchmarks/target/results.json 10
+ * </pre>
+ *
+ * The optional third argument is the allowed slowdown in percent (default 10).
+ * Exits with status 1 on regression, 2 on bad arguments. To move the baseline, copy the new result file over it.
+ */
+public final class BaselineComparator {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private BaselineComparator() {
+    }
+
+    /**
+     * @param error half-width of the score's confidence interval; 0 when JMH could not compute one
+     */
+    record Score(String mode, double value, double error, String unit) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <results.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+        int regressions = compare(baseline, current, threshold);
+
+        System.out.printf("%n%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    static int compare(Map<String, Score> baseline, Map<String, Score> current, double thresholdPercent) {
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s  %s%n", "benchmark", "baseline", "current", "change", "");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  new%n", entry.getKey(), "-", now.value(), "");
+                continue;
+            }
+            double change = (now.value() - before.value()) / before.value() * 100.0;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean significant = Math.abs(now.value() - before.value()) > before.error() + now.error();
+            String verdict = "";
+            if (Math.abs(worse) > thresholdPercent) {
+                verdict = !significant ? "noise" : worse > 0 ? "REGRESSION" : "improved";
+            }
+            if (verdict.equals("REGRESSION")) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%n", entry.getKey(), before.value(), now.value(), change,
+                    verdict);
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-90s %14.3f %14s %9s  not run%n", missing, baseline.get(missing).value(), "-", "");
+            }
+        }
+        return regressions;
+    }
+
+    // Keyed by benchmark, mode and parameters, e.g. "ServiceHotPathBenchmark.getAccountById avgt backend=h2".
+    static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String benchmark = run.get("benchmark").asText();
+            String mode = run.get("mode").asText();
+            Map<String, String> params = new LinkedHashMap<>();
+            JsonNode paramsNode = run.get("params");
+            if (paramsNode != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = paramsNode.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    params.put(param.getKey(), param.getValue().asText());
+                }
+            }
+            StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1))
+                    .append(' ').append(mode);
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(mode, metric.get("score").asDouble(),
+                    Double.isFinite(error) ? error : 0, metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,59 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.model.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput against H2 with ledger group commit off ({@code batchSize=1}: one database transaction
+ * per call) and on. All writers hit one account, so every call funnels through a single lane; the writer
+ * count sets how many calls can be queued behind each commit.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar GroupCommitBenchmark -t 1
+ * java -jar benchmarks/target/benchmarks.jar GroupCommitBenchmark -t 16
+ * java -jar benchmarks/target/benchmarks.jar GroupCommitBenchmark -t 256
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final TransactionRequest DEPOSIT = new TransactionRequest(1.0, TransactionType.DEPOSIT);
+
+    @Param({"1", "64"})
+    public int batchSize;
+
+    HotPathFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = HotPathFixture.create("h2", "--eaglebank.ledger.batch-size=" + batchSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        @Setup(Level.Trial)
+        public void authenticate(GroupCommitBenchmark benchmark) {
+            benchmark.fixture.authenticateCurrentThread();
+        }
+    }
+
+    @Benchmark
+    public TransactionResponse deposit(Writer writer) {
+        return fixture.transactionService.createTransaction(fixture.accountId, DEPOSIT);
+    }
+}
@@ -0,0 +1,206 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.EagleBankApplication;
+import com.eaglebank.config.ConflictRetryProperties;
+import com.eaglebank.config.IdempotencyProperties;
+import com.eaglebank.config.JournalProperties;
+import com.eaglebank.config.LedgerProperties;
+import com.eaglebank.config.PrincipalCacheProperties;
+import com.eaglebank.idempotency.IdempotencyStore;
+import com.eaglebank.ledger.ConflictRetry;
+import com.eaglebank.ledger.LedgerEngine;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.User;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.repository.BalanceStripeRepository;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.IdempotencyRecordRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.security.JwtAuthFilter;
+import com.eaglebank.security.JwtService;
+import com.eaglebank.security.PrincipalCache;
+import com.eaglebank.service.BankAccountService;
+import com.eaglebank.service.LedgerSnapshotService;
+import com.eaglebank.service.StripedBalanceService;
+import com.eaglebank.service.TransactionService;
+import com.eaglebank.util.SecurityUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The service graph the hot-path suites run against, in one of two backends:
+ * <ul>
+ *     <li>{@code h2}: the real application context over in-memory H2, so persistence and Spring proxies are included</li>
+ *     <li>{@code mock}: the same service classes wired by hand over stub-only Mockito repositories, so only
+ *     the service code and its framework helpers are measured</li>
+ * </ul>
+ * The difference between the two is the persistence overhead of a path.
+ */
+final class HotPathFixture implements AutoCloseable {
+
+    static final String EMAIL = "bench@example.com";
+
+    final TransactionService transactionService;
+    final BankAccountService bankAccountService;
+    final JwtService jwtService;
+    final JwtAuthFilter jwtAuthFilter;
+    final ObjectMapper objectMapper;
+    final AuthenticatedUser principal;
+    final Long accountId;
+
+    private final ConfigurableApplicationContext context;
+    private final LedgerEngine mockLedger;
+
+    private HotPathFixture(ConfigurableApplicationContext context, LedgerEngine mockLedger,
+                           TransactionService transactionService, BankAccountService bankAccountService,
+                           JwtService jwtService, JwtAuthFilter jwtAuthFilter, ObjectMapper objectMapper,
+                           AuthenticatedUser principal, Long accountId) {
+        this.context = context;
+        this.mockLedger = mockLedger;
+        this.transactionService = transactionService;
+        this.bankAccountService = bankAccountService;
+        this.jwtService = jwtService;
+        this.jwtAuthFilter = jwtAuthFilter;
+        this.objectMapper = objectMapper;
+        this.principal = principal;
+        this.accountId = accountId;
+    }
+
+    /**
+     * @param appArgs extra application arguments for the {@code h2} backend, e.g. {@code --eaglebank.ledger.batch-size=1}
+     */
+    static HotPathFixture create(String backend, String... appArgs) {
+        return switch (backend) {
+            case "h2" -> h2(appArgs);
+            case "mock" -> mocked();
+            default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+        };
+    }
+
+    private static HotPathFixture h2(String... appArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:hotpath;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        args.addAll(List.of(appArgs));
+        ConfigurableApplicationContext context = SpringApplication.run(EagleBankApplication.class,
+                args.toArray(String[]::new));
+
+        User user = context.getBean(UserRepository.class).save(new User(null, "Bench", "unused", EMAIL));
+        BankAccount account = context.getBean(BankAccountRepository.class)
+                .save(new BankAccount(null, "CURRENT", 0.0, user));
+        // Saved behind the service's back, so hand it to the read model as account creation would.
+        context.getBeanProvider(AccountReadModel.class)
+                .ifAvailable(readModel -> readModel.record(account, 0L));
+
+        return new HotPathFixture(context, null,
+                context.getBean(TransactionService.class),
+                context.getBean(BankAccountService.class),
+                context.getBean(JwtService.class),
+                context.getBean(JwtAuthFilter.class),
+                context.getBean(ObjectMapper.class),
+                new AuthenticatedUser(user.getId(), EMAIL),
+                account.getId());
+    }
+
+    private static HotPathFixture mocked() {
+        User user = new User(1L, "Bench", "unused", EMAIL);
+        BankAccount account = new BankAccount(1L, "CURRENT", 0.0, user);
+        AtomicLong transactionIds = new AtomicLong();
+
+        BankAccountRepository accounts = mock(BankAccountRepository.class, withSettings().stubOnly());
+        when(accounts.findById(anyLong())).thenReturn(Optional.of(account));
+        when(accounts.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionRepository transactions = mock(TransactionRepository.class, withSettings().stubOnly());
+        when(transactions.save(any())).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setId(transactionIds.incrementAndGet());
+            return transaction;
+        });
+        UserRepository users = mock(UserRepository.class, withSettings().stubOnly());
+
+        SecurityUtils securityUtils = new SecurityUtils(users,
+                new PrincipalCache(new PrincipalCacheProperties(10_000, Duration.ofMinutes(5))));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LedgerProperties ledgerProperties = new LedgerProperties(0, 4096, 100, 64, Duration.ZERO);
+        LedgerEngine ledger = new LedgerEngine(ledgerProperties, TransactionOperations.withoutTransaction(), meterRegistry);
+        ConflictRetry conflictRetry = new ConflictRetry(new ConflictRetryProperties(4, Duration.ofMillis(5),
+                Duration.ofMillis(100), Duration.ofMillis(250), 1024), meterRegistry);
+        // Never striped: nothing is loaded into it, so every transaction runs on the account's own lane.
+        StripedBalanceService stripedBalances = new StripedBalanceService(ledger, conflictRetry, accounts,
+                mock(BalanceStripeRepository.class, withSettings().stubOnly()),
+                new JournalProperties(false, "data/journal", DataSize.ofMegabytes(64), 256, Duration.ofNanos(200_000),
+                        500, 65536),
+                null, meterRegistry);
+        IdempotencyRecordRepository idempotencyRecords = mock(IdempotencyRecordRepository.class, withSettings().stubOnly());
+        when(idempotencyRecords.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        IdempotencyStore idempotency = new IdempotencyStore(new IdempotencyProperties(true, Duration.ofHours(24),
+                100_000, 1_000_000, 0.01, Duration.ofMinutes(10)), idempotencyRecords, meterRegistry);
+        LedgerSnapshotService ledgerSnapshots = new LedgerSnapshotService(
+                mock(AccountSnapshotRepository.class, withSettings().stubOnly()), transactions, accounts, ledger,
+                stripedBalances, event -> { }, ledgerProperties);
+        JwtService jwtService = new JwtService();
+
+        return new HotPathFixture(null, ledger,
+                new TransactionService(transactions, accounts, securityUtils, ledger, conflictRetry,
+                        ledgerSnapshots, stripedBalances, null, null, idempotency, meterRegistry),
+                new BankAccountService(accounts, users, securityUtils, ledgerSnapshots, null),
+                jwtService,
+                new JwtAuthFilter(jwtService, meterRegistry),
+                Jackson2ObjectMapperBuilder.json().build(),
+                new AuthenticatedUser(user.getId(), EMAIL),
+                account.getId());
+    }
+
+    /**
+     * Authenticates the calling thread. Call from a {@code Scope.Thread} setup: the context is thread-local.
+     */
+    void authenticateCurrentThread() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, null));
+    }
+
+    /**
+     * A bean of the {@code h2} backend's application context.
+     */
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+        if (mockLedger != null) {
+            mockLedger.shutdown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.model.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What an {@code Idempotency-Key} costs a transaction POST that is not a retry, the common case: every call
+ * sends a key never seen before, so the Bloom filter answers it without a lookup and only the key's row is
+ * added to the write. {@code key=none} is the same call without the header.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar IdempotencyKeyBenchmark
+ * java -jar benchmarks/target/benchmarks.jar IdempotencyKeyBenchmark -p backend=mock
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdempotencyKeyBenchmark {
+
+    private static final TransactionRequest DEPOSIT = new TransactionRequest(1.0, TransactionType.DEPOSIT);
+
+    @Param({"h2", "mock"})
+    public String backend;
+
+    @Param({"none", "fresh"})
+    public String key;
+
+    HotPathFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = HotPathFixture.create(backend);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        // Keys look like a gateway's: a per-client UUID prefix and a counter.
+        private final String prefix = UUID.randomUUID() + "-";
+        private long next;
+
+        @Setup(Level.Trial)
+        public void authenticate(IdempotencyKeyBenchmark benchmark) {
+            benchmark.fixture.authenticateCurrentThread();
+        }
+
+        String nextKey() {
+            return prefix + next++;
+        }
+    }
+
+    @Benchmark
+    public TransactionResponse createTransaction(Caller caller) {
+        return fixture.transactionService.createTransaction(fixture.accountId, DEPOSIT,
+                key.equals("fresh") ? caller.nextKey() : null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.BankAccountResponse;
+import com.eaglebank.dto.BatchItemStatus;
+import com.eaglebank.dto.BatchTransactionResponse;
+import com.eaglebank.dto.BatchTransactionResult;
+import com.eaglebank.dto.TransactionPageResponse;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.dto.UserResponse;
+import com.eaglebank.json.PrecompiledJsonHttpMessageConverter;
+import com.eaglebank.model.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies written through each JSON converter into a discarding response stream, the way Spring MVC calls
+ * them: {@code jackson} is Boot's default converter with its ObjectMapper, {@code precompiled} the hand-written
+ * writers. Run with {@code -prof gc} for bytes allocated per body ({@code gc.alloc.rate.norm}).
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar JsonConverterBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonConverterBenchmark {
+
+    @Param({"jackson", "precompiled"})
+    public String codec;
+
+    private HttpMessageConverter<Object> converter;
+    private final Sink sink = new Sink();
+
+    private BankAccountResponse account;
+    private TransactionResponse transaction;
+    private UserResponse user;
+    private TransactionPageResponse page;
+    private BatchTransactionResponse batch;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        converter = codec.equals("jackson")
+                ? (HttpMessageConverter<Object>) (HttpMessageConverter<?>)
+                        new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build())
+                : new PrecompiledJsonHttpMessageConverter();
+
+        account = new BankAccountResponse(7L, "SAVINGS", 1_000.25);
+        transaction = new TransactionResponse(42L, TransactionType.DEPOSIT, 125.5, 1_000.25);
+        user = new UserResponse(3L, "Jane Doe", "jane.doe@example.com");
+        List<TransactionResponse> rows = new ArrayList<>(50);
+        List<BatchTransactionResult> results = new ArrayList<>(50);
+        for (long id = 50; id > 0; id--) {
+            rows.add(new TransactionResponse(id, TransactionType.WITHDRAWAL, 10.0, 500.0 + id));
+            results.add(new BatchTransactionResult((int) id, BatchItemStatus.APPLIED, id, TransactionType.DEPOSIT,
+                    10.0, 500.0 + id, null));
+        }
+        page = new TransactionPageResponse(rows, "djE6MQ");
+        batch = new BatchTransactionResponse(7L, 50, 0, 550.0, results);
+    }
+
+    @Benchmark
+    public long account() throws Exception {
+        return write(account);
+    }
+
+    @Benchmark
+    public long transaction() throws Exception {
+        return write(transaction);
+    }
+
+    @Benchmark
+    public long user() throws Exception {
+        return write(user);
+    }
+
+    @Benchmark
+    public long transactionPage() throws Exception {
+        return write(page);
+    }
+
+    @Benchmark
+    public long batch() throws Exception {
+        return write(batch);
+    }
+
+    private long write(Object body) throws Exception {
+        sink.headers.clear();
+        converter.write(body, MediaType.APPLICATION_JSON, sink);
+        return sink.written;
+    }
+
+    // A response whose body is counted and discarded, standing in for the servlet output stream.
+    private static final class Sink extends OutputStream implements HttpOutputMessage {
+        final HttpHeaders headers = new HttpHeaders();
+        long written;
+
+        @Override
+        public void write(int b) {
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written += len;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return this;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
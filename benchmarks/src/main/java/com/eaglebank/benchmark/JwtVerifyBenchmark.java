@@ -0,0 +1,71 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.security.JwtService;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold versus cached JWT verification with many concurrent users, each presenting their own token.
+ * <ul>
+ *     <li>{@code coldNewParser}: the original behaviour, a parser built per call plus full HMAC verify and decode</li>
+ *     <li>{@code coldSharedParser}: full verify and decode through one reused parser</li>
+ *     <li>{@code cachedVerify}: {@link JwtService#verify(String)} with a warm verified-token cache</li>
+ * </ul>
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar JwtVerifyBenchmark -t 16
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    @Param({"10000"})
+    public int users;
+
+    private JwtService jwtService;
+    private JwtParser sharedParser;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService();
+        sharedParser = Jwts.parserBuilder().setSigningKey(jwtService.getKey()).build();
+        tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = jwtService.generateToken("user" + i + "@example.com");
+            jwtService.verify(tokens[i]);
+        }
+    }
+
+    private String anyToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    @Benchmark
+    public String coldNewParser() {
+        return Jwts.parserBuilder().setSigningKey(jwtService.getKey()).build()
+                .parseClaimsJws(anyToken())
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String coldSharedParser() {
+        return sharedParser.parseClaimsJws(anyToken()).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return jwtService.verify(anyToken()).subject();
+    }
+}
@@ -0,0 +1,53 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.config.RateLimitProperties;
+import com.eaglebank.config.RateLimitProperties.Limit;
+import com.eaglebank.security.RateLimiter;
+import com.eaglebank.security.RateLimiter.RouteGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the rate limiter adds to each request, with many threads taking tokens at once. Limits are set high
+ * enough that nothing is refused, so every call takes the full path: a bucket lookup and one compare-and-set.
+ * <ul>
+ *     <li>{@code users=1}: every thread hits the same bucket, the worst case for contention</li>
+ *     <li>{@code users=10000}: threads spread over many buckets, as with real traffic</li>
+ *     <li>{@code users=1000000}: more callers than {@code max-buckets}, so lookups also miss and evict</li>
+ * </ul>
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar RateLimiterBenchmark
+ * java -jar benchmarks/target/benchmarks.jar RateLimiterBenchmark -t 256
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000", "1000000"})
+    public int users;
+
+    private RateLimiter limiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Limit unreachable = new Limit(Integer.MAX_VALUE, 1e9);
+        limiter = new RateLimiter(new RateLimitProperties(true, false, 100_000, unreachable, unreachable, unreachable),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        long user = users == 1 ? 1 : ThreadLocalRandom.current().nextLong(users);
+        return limiter.tryAcquire(RouteGroup.WRITES, user, -1);
+    }
+}
@@ -0,0 +1,98 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.EagleBankApplication;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.User;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of requests the API turns away, over real HTTP against an in-process server, so the whole
+ * error path is included: security filter chain, dispatcher, exception handler, error body and logging.
+ * <ul>
+ *     <li>{@code insufficientFunds}: a withdrawal from an empty account, 422 via a ledger lane</li>
+ *     <li>{@code notFound}: an account id that does not exist, 404</li>
+ *     <li>{@code forbidden}: another user's account, 403</li>
+ * </ul>
+ * Application logs go to {@code target/rejected-request-benchmark.log} rather than the console,
+ * so their cost is measured without flooding the JMH output.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar RejectedRequestBenchmark -t 4
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectedRequestBenchmark {
+
+    @Param({"insufficientFunds", "notFound", "forbidden"})
+    public String rejection;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(EagleBankApplication.class,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:rejected;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.threshold.console=OFF",
+                "--logging.file.name=target/rejected-request-benchmark.log",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                // Every request comes from one client; measure the rejection path, not the rate limiter's 429s.
+                "--eaglebank.security.rate-limit.enabled=false");
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        UserRepository users = context.getBean(UserRepository.class);
+        BankAccountRepository accounts = context.getBean(BankAccountRepository.class);
+        User owner = users.save(new User(null, "Bench", "unused", "bench@example.com"));
+        User other = users.save(new User(null, "Other", "unused", "other@example.com"));
+        BankAccount empty = accounts.save(new BankAccount(null, "CURRENT", 0.0, owner));
+        BankAccount foreign = accounts.save(new BankAccount(null, "CURRENT", 100.0, other));
+        String bearer = "Bearer " + context.getBean(JwtService.class).generateToken(owner.getId(), owner.getEmail());
+
+        HttpRequest.Builder builder = switch (rejection) {
+            case "insufficientFunds" -> HttpRequest.newBuilder(URI.create(baseUrl + "/v1/accounts/" + empty.getId() + "/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":100.0,\"type\":\"WITHDRAWAL\"}"));
+            case "notFound" -> HttpRequest.newBuilder(URI.create(baseUrl + "/v1/accounts/" + Long.MAX_VALUE));
+            case "forbidden" -> HttpRequest.newBuilder(URI.create(baseUrl + "/v1/accounts/" + foreign.getId()));
+            default -> throw new IllegalArgumentException("Unknown rejection: " + rejection);
+        };
+        request = builder.header("Authorization", bearer).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int reject() throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() < 400 || response.statusCode() >= 500) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,62 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.BankAccountResponse;
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.model.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the two busiest service calls, against H2 and against stubbed repositories.
+ * See {@link HotPathFixture} for what each backend includes.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ServiceHotPathBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Three forks, so the score error covers fork-to-fork variance; BaselineComparator ignores changes within it.
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class ServiceHotPathBenchmark {
+
+    private static final TransactionRequest DEPOSIT = new TransactionRequest(1.0, TransactionType.DEPOSIT);
+
+    @Param({"h2", "mock"})
+    public String backend;
+
+    HotPathFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = HotPathFixture.create(backend);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        @Setup(Level.Trial)
+        public void authenticate(ServiceHotPathBenchmark benchmark) {
+            benchmark.fixture.authenticateCurrentThread();
+        }
+    }
+
+    @Benchmark
+    public TransactionResponse createTransaction(Caller caller) {
+        return fixture.transactionService.createTransaction(fixture.accountId, DEPOSIT);
+    }
+
+    @Benchmark
+    public BankAccountResponse getAccountById(Caller caller) {
+        return fixture.bankAccountService.getAccountById(fixture.accountId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.service.StripedBalanceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput against H2 into one hot account as its deposits are spread over more balance stripes.
+ * {@code stripes=1} is the unstriped account, where every deposit funnels through the account's lane; with
+ * more stripes, deposits run on that many lanes in parallel. Group commit already amortises a single hot lane
+ * (one commit per mailbox batch), and a striped deposit costs an extra fold query, so stripes only pay off once
+ * that lane is CPU-bound: run on at least as many cores as stripes to see the lanes scale. On one core,
+ * {@code stripes=1} wins.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar StripedDepositBenchmark
+ * java -jar benchmarks/target/benchmarks.jar StripedDepositBenchmark -p stripes=1,8 -t 64
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StripedDepositBenchmark {
+
+    private static final TransactionRequest DEPOSIT = new TransactionRequest(1.0, TransactionType.DEPOSIT);
+
+    @Param({"1", "2", "4", "8"})
+    public int stripes;
+
+    HotPathFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = HotPathFixture.create("h2", "--eaglebank.ledger.lanes=8");
+        fixture.bean(StripedBalanceService.class).restripe(fixture.accountId, stripes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Depositor {
+        @Setup(Level.Trial)
+        public void authenticate(StripedDepositBenchmark benchmark) {
+            benchmark.fixture.authenticateCurrentThread();
+        }
+    }
+
+    @Benchmark
+    public TransactionResponse deposit(Depositor depositor) {
+        return fixture.transactionService.createTransaction(fixture.accountId, DEPOSIT);
+    }
+}
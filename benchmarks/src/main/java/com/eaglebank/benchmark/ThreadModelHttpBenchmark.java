@@ -0,0 +1,141 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.EagleBankApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform versus virtual request threads, measured over real HTTP against an in-process server.
+ * <p>
+ * Tomcat is capped at {@code maxThreads} platform threads while {@code @Threads} clients call concurrently,
+ * so the platform mode has to queue requests that the virtual mode can park instead. Every endpoint
+ * blocks somewhere: login on the hashing pool, the account read on JDBC, the deposit on its ledger lane.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ThreadModelHttpBenchmark
+ * java -jar benchmarks/target/benchmarks.jar ThreadModelHttpBenchmark -p mode=virtual -t 256
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(64)
+@Fork(1)
+public class ThreadModelHttpBenchmark {
+
+    private static final String PASSWORD = "benchmark-secret";
+    private static final int ACCOUNTS = 16;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"16"})
+    public int maxThreads;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private ConfigurableApplicationContext app;
+    private HttpClient client;
+    private String baseUrl;
+    private String email;
+    private String token;
+    private List<Long> accountIds;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--server.tomcat.threads.max=" + maxThreads,
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                // The load comes from one user; this measures the thread model, not the per-user rate limit.
+                "--eaglebank.security.rate-limit.enabled=false"));
+        if ("virtual".equals(mode)) {
+            args.add("--spring.profiles.active=virtual");
+        }
+        app = SpringApplication.run(EagleBankApplication.class, args.toArray(String[]::new));
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        email = "bench-" + mode + "@example.com";
+        send(post("/v1/users", "{\"fullName\":\"Bench\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", null), 201);
+        token = json.readTree(send(post("/v1/auth/login", loginBody(), null), 200)).get("token").asText();
+
+        accountIds = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            JsonNode account = json.readTree(send(post("/v1/accounts", "{\"accountType\":\"CURRENT\",\"balance\":0.0}", token), 201));
+            accountIds.add(account.get("id").asLong());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        app.close();
+    }
+
+    private String loginBody() {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private long anyAccount() {
+        return accountIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+
+    private HttpRequest post(String path, String body, String bearer) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return request.build();
+    }
+
+    private String send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    @Benchmark
+    public String login() throws Exception {
+        return send(post("/v1/auth/login", loginBody(), null), 200);
+    }
+
+    @Benchmark
+    public String readAccount() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/accounts/" + anyAccount()))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return send(request, 200);
+    }
+
+    @Benchmark
+    public String deposit() throws Exception {
+        return send(post("/v1/accounts/" + anyAccount() + "/transactions",
+                "{\"amount\":1.0,\"type\":\"DEPOSIT\"}", token), 200);
+    }
+}
@@ -0,0 +1,98 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.BankAccountResponse;
+import com.eaglebank.dto.TransactionPageResponse;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.model.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work done around the services: token issue and parse, the JWT filter, and JSON writing of
+ * the response records. With {@code h2} the beans come from the application context (its configured
+ * ObjectMapper included); with {@code mock} they are constructed directly.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar WebHotPathBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+// Three forks, so the score error covers fork-to-fork variance; BaselineComparator ignores changes within it.
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class WebHotPathBenchmark {
+
+    @Param({"h2", "mock"})
+    public String backend;
+
+    private HotPathFixture fixture;
+    private String token;
+    private String bearer;
+    private TransactionResponse transaction;
+    private BankAccountResponse account;
+    private TransactionPageResponse page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = HotPathFixture.create(backend);
+        token = fixture.jwtService.generateToken(fixture.principal.id(), HotPathFixture.EMAIL);
+        bearer = "Bearer " + token;
+
+        transaction = new TransactionResponse(42L, TransactionType.DEPOSIT, 125.5, 1_000.25);
+        account = new BankAccountResponse(7L, "SAVINGS", 1_000.25);
+        List<TransactionResponse> rows = new ArrayList<>(50);
+        for (long id = 50; id > 0; id--) {
+            rows.add(new TransactionResponse(id, TransactionType.WITHDRAWAL, 10.0, 500.0 + id));
+        }
+        page = new TransactionPageResponse(rows, "djE6MQ");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return fixture.jwtService.generateToken(fixture.principal.id(), HotPathFixture.EMAIL);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return fixture.jwtService.extractEmail(token);
+    }
+
+    @Benchmark
+    public int jwtAuthFilter() throws Exception {
+        // A fresh request each time: OncePerRequestFilter marks the request as already filtered.
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/accounts/7");
+        request.addHeader("Authorization", bearer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fixture.jwtAuthFilter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public byte[] serializeTransaction() throws Exception {
+        return fixture.objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public byte[] serializeAccount() throws Exception {
+        return fixture.objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionPage() throws Exception {
+        return fixture.objectMapper.writeValueAsBytes(page);
+    }
+}
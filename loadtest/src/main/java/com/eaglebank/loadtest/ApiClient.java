@@ -0,0 +1,103 @@
+package com.eaglebank.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds API requests and performs the blocking calls used for seeding.
+ */
+public class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final double INITIAL_BALANCE = 1_000_000.0;
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper json = new ObjectMapper();
+
+    public ApiClient(HttpClient http, String baseUrl) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+    }
+
+    public HttpClient http() {
+        return http;
+    }
+
+    public SeedData seed(int users, int hotAccounts) throws IOException, InterruptedException {
+        List<SeedData.SeededUser> seeded = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String email = "load-" + i + "@example.com";
+            String password = "load-secret-" + i;
+            send(post("/v1/users", "{\"fullName\":\"Load " + i + "\",\"email\":\"" + email
+                    + "\",\"password\":\"" + password + "\"}", null), 201);
+
+            SeedData.SeededUser credentials = new SeedData.SeededUser(email, password, null, 0);
+            String token = json.readTree(send(login(credentials), 200)).get("token").asText();
+            long accountId = json.readTree(send(post("/v1/accounts",
+                    "{\"accountType\":\"CURRENT\",\"balance\":" + INITIAL_BALANCE + "}", token), 201)).get("id").asLong();
+            seeded.add(new SeedData.SeededUser(email, password, token, accountId));
+        }
+        return new SeedData(List.copyOf(seeded), hotAccounts);
+    }
+
+    public HttpRequest login(SeedData.SeededUser user) {
+        return post("/v1/auth/login",
+                "{\"email\":\"" + user.email() + "\",\"password\":\"" + user.password() + "\"}", null);
+    }
+
+    public HttpRequest deposit(SeedData.SeededUser user, double amount) {
+        return post("/v1/accounts/" + user.accountId() + "/transactions",
+                "{\"amount\":" + amount + ",\"type\":\"DEPOSIT\"}", user.token());
+    }
+
+    public HttpRequest getAccount(SeedData.SeededUser user) {
+        return get("/v1/accounts/" + user.accountId(), user.token());
+    }
+
+    public HttpRequest listTransactions(SeedData.SeededUser user, int limit) {
+        return get("/v1/accounts/" + user.accountId() + "/transactions?limit=" + limit, user.token());
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private String send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        // With the rate limiter on, seeding outruns the login limit; wait as told and try again.
+        while (response.statusCode() == 429) {
+            long seconds = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(Duration.ofSeconds(Math.max(1, seconds)));
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Seeding failed: " + request.method() + " " + request.uri()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
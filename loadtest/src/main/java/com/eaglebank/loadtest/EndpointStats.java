@@ -0,0 +1,61 @@
+package com.eaglebank.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes for one endpoint. Latency runs from the request's scheduled send time, not
+ * the actual one, so a server that falls behind shows up in the percentiles instead of being hidden
+ * by a generator that slowed down with it.
+ */
+public class EndpointStats {
+
+    // Up to one minute, in microseconds, with three significant digits.
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder unexpected = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public void recordResponse(long latencyNanos, int status, boolean expected) {
+        recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, latencyNanos / 1_000)));
+        statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (!expected) {
+            unexpected.increment();
+        }
+    }
+
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    public Histogram histogram() {
+        return recorder.getIntervalHistogram();
+    }
+
+    public Map<Integer, LongAdder> statusCounts() {
+        return statusCounts;
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public long unexpected() {
+        return unexpected.sum();
+    }
+}
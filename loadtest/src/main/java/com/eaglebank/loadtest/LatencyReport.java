@@ -0,0 +1,56 @@
+package com.eaglebank.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prints one table per scenario: completed throughput and HdrHistogram percentiles per endpoint.
+ */
+public final class LatencyReport {
+
+    private LatencyReport() {
+    }
+
+    public static void print(OpenLoopRunner.ScenarioResult result, PrintStream out) {
+        double seconds = result.elapsed().toNanos() / 1e9;
+        out.printf("%n=== %s: offered %d req/s, %d scheduled, %d dropped, %.1fs ===%n",
+                result.scenario().displayName(), result.rate(), result.scheduled(), result.dropped(), seconds);
+        out.printf("%-40s %8s %9s %9s %9s %9s %9s %8s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors", "statuses");
+
+        for (EndpointStats endpoint : result.endpoints().values()) {
+            Histogram histogram = endpoint.histogram();
+            long count = histogram.getTotalCount();
+            long errors = endpoint.unexpected() + endpoint.failures();
+            out.printf("%-40s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %8d  %s%n",
+                    endpoint.endpoint(),
+                    count,
+                    count / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    errors,
+                    statuses(endpoint.statusCounts(), endpoint.failures()));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static String statuses(Map<Integer, LongAdder> counts, long failures) {
+        Map<Integer, Long> sorted = new TreeMap<>();
+        counts.forEach((status, count) -> sorted.put(status, count.sum()));
+        StringBuilder text = new StringBuilder();
+        sorted.forEach((status, count) -> text.append(status).append('=').append(count).append(' '));
+        if (failures > 0) {
+            text.append("io-failures=").append(failures);
+        }
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,69 @@
+package com.eaglebank.loadtest;
+
+import com.eaglebank.EagleBankApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the API on a random port, seeds it through its own endpoints, then runs each requested scenario:
+ * a warm-up at the target rate, followed by a measured run.
+ *
+ * <pre>
+ * java -jar loadtest/target/loadtest.jar scenario=hot-deposit rate=500 duration=60s hot-accounts=2
+ * java -jar loadtest/target/loadtest.jar scenario=login-storm rate=50 --spring.profiles.active=virtual
+ * java -jar loadtest/target/loadtest.jar scenario=all --eaglebank.security.rate-limit.enabled=true
+ * </pre>
+ */
+public final class LoadTestMain {
+
+    private static final String RATE_LIMIT_OPTION = "--eaglebank.security.rate-limit.enabled";
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        // Seeding and the scenarios send every login from one address, far above the login limit. The option is
+        // only added when not given, since Spring joins repeated options into one value rather than taking the last.
+        if (options.appArgs().stream().noneMatch(arg -> arg.startsWith(RATE_LIMIT_OPTION + "="))) {
+            appArgs.add(RATE_LIMIT_OPTION + "=false");
+        }
+        appArgs.addAll(options.appArgs());
+
+        try (ConfigurableApplicationContext app = SpringApplication.run(EagleBankApplication.class, appArgs.toArray(String[]::new));
+             ExecutorService callbacks = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(callbacks)
+                    .build();
+            ApiClient api = new ApiClient(http, "http://localhost:" + port);
+
+            System.out.printf("Seeding %d users on port %d...%n", options.users(), port);
+            SeedData seed = api.seed(options.users(), options.hotAccounts());
+            OpenLoopRunner runner = new OpenLoopRunner(api, seed, options.maxInFlight());
+
+            for (Scenario scenario : options.scenarios()) {
+                if (!options.warmup().isZero()) {
+                    runner.run(scenario, options.rate(), options.warmup());
+                }
+                LatencyReport.print(runner.run(scenario, options.rate(), options.duration()), System.out);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.eaglebank.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options, given as {@code key=value} pairs. Anything else is passed to the application
+ * unchanged, so {@code --spring.profiles.active=virtual} works as usual.
+ *
+ * @param scenarios   scenarios to run in order; {@code scenario=all} runs every one
+ * @param rate        requests per second the generator schedules, whatever the server manages to answer
+ * @param duration    measured run time per scenario
+ * @param warmup      unmeasured run time before each scenario
+ * @param users       users seeded through the API, each with one funded account
+ * @param hotAccounts accounts that the hot-deposit scenario concentrates on
+ * @param maxInFlight outstanding requests beyond which the generator counts a send as dropped
+ * @param appArgs     arguments passed through to the application
+ */
+public record LoadTestOptions(
+        List<Scenario> scenarios,
+        int rate,
+        Duration duration,
+        Duration warmup,
+        int users,
+        int hotAccounts,
+        int maxInFlight,
+        List<String> appArgs
+) {
+
+    private static final Set<String> KEYS =
+            Set.of("scenario", "rate", "duration", "warmup", "users", "hot-accounts", "max-in-flight");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new java.util.ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0 && KEYS.contains(arg.substring(0, eq))) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+
+        String scenario = options.getOrDefault("scenario", "all");
+        return new LoadTestOptions(
+                "all".equals(scenario) ? List.of(Scenario.values()) : List.of(Scenario.fromName(scenario)),
+                Integer.parseInt(options.getOrDefault("rate", "200")),
+                parseDuration(options.getOrDefault("duration", "30s")),
+                parseDuration(options.getOrDefault("warmup", "5s")),
+                Integer.parseInt(options.getOrDefault("users", "20")),
+                Integer.parseInt(options.getOrDefault("hot-accounts", "1")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "2000")),
+                List.copyOf(appArgs));
+    }
+
+    // Accepts 30s, 2m or a plain ISO-8601 duration.
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
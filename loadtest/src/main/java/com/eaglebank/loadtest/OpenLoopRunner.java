@@ -0,0 +1,88 @@
+package com.eaglebank.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests on a fixed schedule, whether or not earlier ones have completed (an open-loop model).
+ * <p>
+ * A closed-loop client waits for each response before sending the next, so when the server slows down
+ * the offered load drops with it and the latency numbers look better than users would see. Here request
+ * {@code i} is due at {@code start + i / rate} and its latency is measured from that instant. A request
+ * that cannot be sent because {@code maxInFlight} are already outstanding is counted as dropped.
+ */
+public class OpenLoopRunner {
+
+    private final ApiClient api;
+    private final SeedData seed;
+    private final int maxInFlight;
+
+    public OpenLoopRunner(ApiClient api, SeedData seed, int maxInFlight) {
+        this.api = api;
+        this.seed = seed;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public ScenarioResult run(Scenario scenario, int rate, Duration duration) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (Scenario.Operation operation : scenario.operations()) {
+            stats.computeIfAbsent(operation.endpoint(), EndpointStats::new);
+        }
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        LongAdder dropped = new LongAdder();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long scheduled = 0;
+
+        for (long due = start; due < end; due += intervalNanos) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            scheduled++;
+
+            Scenario.Operation operation = scenario.next();
+            EndpointStats endpoint = stats.get(operation.endpoint());
+            if (!inFlight.tryAcquire()) {
+                dropped.increment();
+                continue;
+            }
+
+            long intendedStart = due;
+            HttpRequest request = operation.factory().create(api, seed);
+            api.http().sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (error != null) {
+                            endpoint.recordFailure();
+                        } else {
+                            endpoint.recordResponse(System.nanoTime() - intendedStart, response.statusCode(),
+                                    response.statusCode() == operation.expectedStatus());
+                        }
+                    });
+        }
+
+        // Let outstanding requests land so they are counted, but not forever.
+        inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        return new ScenarioResult(scenario, rate, scheduled, dropped.sum(), Duration.ofNanos(elapsed), stats);
+    }
+
+    /**
+     * @param scheduled requests that came due during the run
+     * @param dropped   due requests not sent because too many were outstanding
+     * @param elapsed   run time including the drain of outstanding requests
+     */
+    public record ScenarioResult(Scenario scenario, int rate, long scheduled, long dropped, Duration elapsed,
+                                 Map<String, EndpointStats> endpoints) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.eaglebank.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The traffic mixes the generator can drive. Each scheduled request picks one operation by weight.
+ */
+public enum Scenario {
+
+    /**
+     * Everyone logs in at once, as at market open: every request is a BCrypt verification.
+     */
+    LOGIN_STORM("login-storm",
+            new Operation("POST /v1/auth/login", 1, 200, (api, seed) -> api.login(seed.anyUser()))),
+
+    /**
+     * Deposits concentrated on a few hot accounts, so writes contend on the same ledger lanes and rows.
+     */
+    HOT_DEPOSIT("hot-deposit",
+            new Operation("POST /v1/accounts/{id}/transactions", 1, 200,
+                    (api, seed) -> api.deposit(seed.hotAccount(), 1.0))),
+
+    /**
+     * Clients polling balances and recent history: read-heavy with an occasional write.
+     */
+    ACCOUNT_POLLING("account-polling",
+            new Operation("GET /v1/accounts/{id}", 80, 200, (api, seed) -> api.getAccount(seed.anyUser())),
+            new Operation("GET /v1/accounts/{id}/transactions", 15, 200,
+                    (api, seed) -> api.listTransactions(seed.anyUser(), 20)),
+            new Operation("POST /v1/accounts/{id}/transactions", 5, 200,
+                    (api, seed) -> api.deposit(seed.anyUser(), 1.0)));
+
+    private final String name;
+    private final Operation[] operations;
+    private final int totalWeight;
+
+    Scenario(String name, Operation... operations) {
+        this.name = name;
+        this.operations = operations;
+        this.totalWeight = Arrays.stream(operations).mapToInt(Operation::weight).sum();
+    }
+
+    public String displayName() {
+        return name;
+    }
+
+    public Operation[] operations() {
+        return operations.clone();
+    }
+
+    public Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public static Scenario fromName(String name) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + name
+                        + " (expected one of " + Arrays.stream(values()).map(s -> s.name).toList() + " or all)"));
+    }
+
+    /**
+     * One kind of request within a scenario.
+     *
+     * @param endpoint       label the latencies are reported under
+     * @param weight         relative share of the scenario's traffic
+     * @param expectedStatus status counted as a success
+     * @param factory        builds the request against the seeded data
+     */
+    public record Operation(String endpoint, int weight, int expectedStatus, RequestFactory factory) {
+    }
+
+    @FunctionalInterface
+    public interface RequestFactory {
+        HttpRequest create(ApiClient api, SeedData seed);
+    }
+}
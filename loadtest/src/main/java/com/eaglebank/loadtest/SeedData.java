@@ -0,0 +1,25 @@
+package com.eaglebank.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Users and accounts created through the API before any scenario runs.
+ */
+public record SeedData(List<SeededUser> users, int hotAccounts) {
+
+    /**
+     * @param token     bearer token from a real login
+     * @param accountId the user's funded account
+     */
+    public record SeededUser(String email, String password, String token, long accountId) {
+    }
+
+    public SeededUser anyUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    public SeededUser hotAccount() {
+        return users.get(ThreadLocalRandom.current().nextInt(Math.min(hotAccounts, users.size())));
+    }
+}
@@ -2,8 +2,10 @@ package com.eaglebank;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class EagleBankApplication {
     public static void main(String[] args) {
         SpringApplication.run(EagleBankApplication.class, args);
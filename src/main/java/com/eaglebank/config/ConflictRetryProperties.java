@@ -0,0 +1,25 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Retrying ledger writes that lose an optimistic-locking race on an account's version.
+ *
+ * @param maxAttempts     attempts per request, the first included; {@code 1} disables retrying
+ * @param backoff         ceiling of the first retry's random delay; doubles with every further retry
+ * @param maxBackoff      cap on any single retry's delay ceiling
+ * @param budget          total time a request may spend backing off before it gives up with a 409
+ * @param trackedAccounts most accounts whose conflict rates are kept; the coldest is dropped to make room
+ */
+@ConfigurationProperties(prefix = "eaglebank.ledger.conflict-retry")
+public record ConflictRetryProperties(
+        @DefaultValue("4") int maxAttempts,
+        @DefaultValue("5ms") Duration backoff,
+        @DefaultValue("100ms") Duration maxBackoff,
+        @DefaultValue("250ms") Duration budget,
+        @DefaultValue("1024") int trackedAccounts
+) {
+}
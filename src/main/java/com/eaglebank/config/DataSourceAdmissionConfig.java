@@ -0,0 +1,49 @@
+package com.eaglebank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application datasource in {@link AdmissionControlledDataSource} when
+ * {@code eaglebank.datasource.admission.enabled} is set (the {@code virtual} profile turns it on).
+ */
+@Slf4j
+@Configuration
+public class DataSourceAdmissionConfig {
+
+    private static final int FALLBACK_PERMITS = 10;
+
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(ObjectProvider<DataSourceAdmissionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+                    return bean;
+                }
+                DataSourceAdmissionProperties admission = properties.getObject();
+                if (!admission.enabled()) {
+                    return bean;
+                }
+                int permits = admission.permits() > 0 ? admission.permits() : poolSize(dataSource);
+                log.info("Datasource admission control enabled. bean={} permits={} acquireTimeout={}",
+                        beanName, permits, admission.acquireTimeout());
+                return new AdmissionControlledDataSource(dataSource, permits, admission.acquireTimeout());
+            }
+        };
+    }
+
+    // Hikari reports -1 until the pool starts when no maximum was configured; its default is 10.
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return FALLBACK_PERMITS;
+    }
+}
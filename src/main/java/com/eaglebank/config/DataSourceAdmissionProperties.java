@@ -0,0 +1,21 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Admission control in front of the JDBC connection pool.
+ *
+ * @param enabled        wrap the datasource so callers queue on a fair semaphore before asking the pool
+ * @param permits        concurrent connection holders; 0 means the pool's maximum size
+ * @param acquireTimeout how long a caller waits for a permit before failing
+ */
+@ConfigurationProperties(prefix = "eaglebank.datasource.admission")
+public record DataSourceAdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0") int permits,
+        @DefaultValue("5s") Duration acquireTimeout
+) {
+}
@@ -0,0 +1,28 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code Idempotency-Key} handling for transaction POSTs.
+ *
+ * @param enabled            replay the stored result of a key instead of writing the transaction again
+ * @param ttl                how long a key is kept at least; expired keys are deleted by the next compaction
+ * @param cacheSize          maximum number of recent results answered from memory
+ * @param expectedKeys       live keys the Bloom filter is sized for; beyond that its false-positive rate climbs
+ *                           until a compaction resizes it
+ * @param falsePositiveRate  share of new keys the Bloom filter mistakes for known ones, each costing a lookup
+ * @param compactionInterval how often expired keys are deleted and the Bloom filter rebuilt without them
+ */
+@ConfigurationProperties(prefix = "eaglebank.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("100000") long cacheSize,
+        @DefaultValue("1000000") int expectedKeys,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("10m") Duration compactionInterval
+) {
+}
@@ -0,0 +1,31 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Local write-ahead journal for accepted transactions.
+ *
+ * @param enabled            acknowledge transactions once they are durable in the journal and apply them to the
+ *                           database in the background, instead of writing them to the database on the request path
+ * @param directory          where the journal segment files live
+ * @param segmentSize        size of each memory-mapped segment file; a full segment is rolled to a new one
+ * @param groupCommitRecords fsync as soon as this many records are waiting
+ * @param groupCommitDelay   fsync at the latest this long after the oldest waiting record was appended
+ * @param applyBatchSize     maximum journal records written to the database in one transaction
+ * @param applyBacklog       records accepted but not yet applied before new transactions block
+ */
+@ConfigurationProperties(prefix = "eaglebank.journal")
+public record JournalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/journal") String directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("256") int groupCommitRecords,
+        @DefaultValue("200us") Duration groupCommitDelay,
+        @DefaultValue("500") int applyBatchSize,
+        @DefaultValue("65536") int applyBacklog
+) {
+}
@@ -0,0 +1,29 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the single-writer ledger engine.
+ *
+ * @param lanes            number of single-writer lanes; {@code 0} means one per available core
+ * @param mailboxCapacity  maximum queued commands per lane before submitters block
+ * @param snapshotInterval transactions between balance snapshots; bounds how many a rebuild replays
+ * @param batchSize        most queued commands a lane commits in one database transaction; {@code 1} disables batching
+ * @param batchWindow      how long a lane waits for more commands to fill a batch; zero takes only what is queued
+ */
+@ConfigurationProperties(prefix = "eaglebank.ledger")
+public record LedgerProperties(
+        @DefaultValue("0") int lanes,
+        @DefaultValue("4096") int mailboxCapacity,
+        @DefaultValue("100") int snapshotInterval,
+        @DefaultValue("64") int batchSize,
+        @DefaultValue("0ms") Duration batchWindow
+) {
+
+    public int effectiveLanes() {
+        return lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+    }
+}
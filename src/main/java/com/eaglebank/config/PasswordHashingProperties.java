@@ -0,0 +1,29 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cost and admission limits for password hashing.
+ *
+ * @param cost          BCrypt log rounds for new hashes; stored hashes below it are upgraded on the next login
+ * @param threads       hashing threads; 0 means one per available core
+ * @param queueCapacity hash jobs allowed to wait for a thread before new ones are rejected; a hard cap, since
+ *                      requests are also rejected up front once the queue ahead of them would outlast the timeout
+ * @param timeout       how long a request waits for its hash before giving up. It bounds the caller's wait only:
+ *                      a hash that has started still runs to the end
+ */
+@ConfigurationProperties(prefix = "eaglebank.security.password-hashing")
+public record PasswordHashingProperties(
+        @DefaultValue("10") int cost,
+        @DefaultValue("0") int threads,
+        @DefaultValue("64") int queueCapacity,
+        @DefaultValue("2s") Duration timeout
+) {
+
+    public int effectiveThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,19 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Sizing for the cross-request cache of authenticated users.
+ *
+ * @param maxSize maximum number of cached principals
+ * @param ttl     how long a resolved principal is served before it is reloaded; zero disables the cache
+ */
+@ConfigurationProperties(prefix = "eaglebank.security.principal-cache")
+public record PrincipalCacheProperties(
+        @DefaultValue("10000") long maxSize,
+        @DefaultValue("5m") Duration ttl
+) {
+}
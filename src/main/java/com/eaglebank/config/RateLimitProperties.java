@@ -0,0 +1,44 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Token-bucket limits on API requests, one bucket per caller and route group.
+ *
+ * @param enabled    reject callers that exceed their group's limit with 429 and {@code Retry-After}
+ * @param perAccount give authenticated callers a separate bucket for each account in the path, rather than one
+ *                   for all their accounts
+ * @param maxBuckets buckets kept in memory; the least recently used are evicted beyond it and start full again
+ * @param login      unauthenticated credential endpoints (login, sign-up), per client address
+ * @param reads      authenticated GETs, per user
+ * @param writes     authenticated POSTs, PATCHes and DELETEs, per user
+ */
+@ConfigurationProperties(prefix = "eaglebank.security.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("false") boolean perAccount,
+        @DefaultValue("100000") long maxBuckets,
+        Limit login,
+        Limit reads,
+        Limit writes
+) {
+
+    public RateLimitProperties {
+        login = login != null ? login : new Limit(10, 1);
+        reads = reads != null ? reads : new Limit(100, 50);
+        writes = writes != null ? writes : new Limit(40, 20);
+    }
+
+    /**
+     * @param burst     requests a caller with a full bucket may send at once
+     * @param perSecond rate at which the bucket refills, and so the sustained request rate allowed; 0 in either
+     *                  leaves the group unlimited
+     */
+    public record Limit(int burst, double perSecond) {
+
+        public boolean unlimited() {
+            return burst <= 0 || perSecond <= 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * In-memory read model serving account reads and ownership checks.
+ *
+ * @param enabled           hold every account's owner, type and balance in memory and answer reads from it
+ * @param consistency       when a committed write becomes visible to readers
+ * @param projectionBacklog committed writes waiting to be projected in {@code EVENTUAL} mode before writers block
+ */
+@ConfigurationProperties(prefix = "eaglebank.read-model")
+public record ReadModelProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("read-your-writes") Consistency consistency,
+        @DefaultValue("65536") int projectionBacklog
+) {
+
+    public enum Consistency {
+        /**
+         * The writing thread updates the model before the write is acknowledged, so a client always reads
+         * back what it has just written.
+         */
+        READ_YOUR_WRITES,
+        /**
+         * Writes are acknowledged as soon as they commit and a background projector updates the model
+         * shortly after. The writer reads its own writes straight away; other readers may briefly read the
+         * previous balance.
+         */
+        EVENTUAL
+    }
+}
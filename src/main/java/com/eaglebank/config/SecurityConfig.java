@@ -1,62 +1,107 @@
 package com.eaglebank.config;
 
 import com.eaglebank.security.JwtAuthFilter;
+import com.eaglebank.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // GETs that carry an ETag and set their own Cache-Control. Headers are written eagerly, so the default
+    // no-store would otherwise sit next to theirs and win.
+    private static final RequestMatcher OWN_CACHE_CONTROL = new OrRequestMatcher(
+            antMatcher(HttpMethod.GET, "/v1/users/*"),
+            antMatcher(HttpMethod.GET, "/v1/accounts/*"),
+            antMatcher(HttpMethod.GET, "/v1/accounts/*/transactions/*"));
+
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
+                // Write security headers before the controller runs. Written lazily, they race with
+                // streaming bodies that commit the response from another thread.
+                .headers(headers -> headers
+                        .cacheControl(HeadersConfigurer.CacheControlConfig::disable)
+                        .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                                new NegatedRequestMatcher(OWN_CACHE_CONTROL), new CacheControlHeadersWriter()))
+                        .withObjectPostProcessor(new ObjectPostProcessor<HeaderWriterFilter>() {
+                            @Override
+                            public <O extends HeaderWriterFilter> O postProcess(O filter) {
+                                filter.setShouldWriteHeadersEagerly(true);
+                                return filter;
+                            }
+                        }))
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses complete on an ASYNC dispatch; the originating request was already authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Ant matchers: the same chain guards the management server, where MVC matchers cannot
+                        // find the application's dispatcher servlet.
                         .requestMatchers(
-                                "/v1/users",
-                                "/v1/auth/login",
-                                "/swagger-ui/**",
-                                "/swagger-ui.html",
-                                "/swagger-ui/index.html",
-                                "/v3/api-docs/**",
-                                "/swagger-resources/**",
-                                "/webjars/**",
-                                "/error"
+                                antMatcher("/v1/users"),
+                                antMatcher("/v1/auth/login"),
+                                antMatcher("/swagger-ui/**"),
+                                antMatcher("/swagger-ui.html"),
+                                antMatcher("/swagger-ui/index.html"),
+                                antMatcher("/v3/api-docs/**"),
+                                antMatcher("/swagger-resources/**"),
+                                antMatcher("/webjars/**"),
+                                antMatcher("/error"),
+                                // Served on management.server.port only, which the gateway does not expose.
+                                antMatcher("/actuator/health"),
+                                antMatcher("/actuator/prometheus")
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint((request, response, authException) -> {
-                            System.out.println("Unauthorized request to: " + request.getRequestURI() + ", message: " + authException.getMessage());
+                            log.info("Unauthorized request. uri={} message={}", request.getRequestURI(), authException.getMessage());
                             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, authException.getMessage());
                         })
                         .accessDeniedHandler((request, response, accessDeniedException) -> {
-                            System.out.println("Access denied to: " + request.getRequestURI() + ", message: " + accessDeniedException.getMessage());
+                            log.info("Access denied. uri={} message={}", request.getRequestURI(), accessDeniedException.getMessage());
                             response.sendError(HttpServletResponse.SC_FORBIDDEN, accessDeniedException.getMessage());
                         })
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // After authentication, so buckets are per user, but before anything that takes a worker's time.
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
                 .build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        return new BCryptPasswordEncoder(properties.cost());
     }
 
     @Bean
@@ -4,11 +4,13 @@ import com.eaglebank.dto.UserLoginRequest;
 import com.eaglebank.dto.UserLoginResponse;
 import com.eaglebank.model.User;
 import com.eaglebank.repository.UserRepository;
+import com.eaglebank.exception.HashingCapacityExceededException;
 import com.eaglebank.security.JwtService;
+import com.eaglebank.security.PasswordHasher;
+import com.eaglebank.security.PrincipalCache;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,11 +23,17 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
+    private final PrincipalCache principalCache;
 
-    public AuthController(UserRepository userRepository, JwtService jwtService) {
+    public AuthController(UserRepository userRepository,
+                          JwtService jwtService,
+                          PasswordHasher passwordHasher,
+                          PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
+        this.passwordHasher = passwordHasher;
+        this.principalCache = principalCache;
     }
 
     @PostMapping("/login")
@@ -38,14 +46,31 @@ public class AuthController {
                     return new IllegalArgumentException("Invalid credentials");
                 });
 
-        if (!encoder.matches(request.password(), user.getPassword())) {
+        if (!passwordHasher.matches(request.password(), user.getPassword())) {
             log.warn("Login failed: invalid password for email={}", request.email());
             throw new IllegalArgumentException("Invalid credentials");
         }
 
-        String token = jwtService.generateToken(user.getEmail());
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehash(user, request.password());
+        }
+
+        String token = jwtService.generateToken(user.getId(), user.getEmail());
         log.info("Login successful for email={}", request.email());
 
         return ResponseEntity.ok(new UserLoginResponse(token));
     }
+
+    // The plain password is only available at login, so that is when hashes below the configured cost are upgraded.
+    private void rehash(User user, String rawPassword) {
+        try {
+            user.setPassword(passwordHasher.hash(rawPassword));
+            userRepository.save(user);
+            principalCache.invalidate(user.getEmail());
+            log.info("Password rehashed at current cost for email={}", user.getEmail());
+        } catch (HashingCapacityExceededException e) {
+            // Not worth failing a valid login over; the upgrade is retried on the next one.
+            log.debug("Skipped password rehash under load for email={}", user.getEmail());
+        }
+    }
 }
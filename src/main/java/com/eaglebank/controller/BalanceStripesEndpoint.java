@@ -0,0 +1,36 @@
+package com.eaglebank.controller;
+
+import com.eaglebank.service.StripedBalanceService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Operator tool for hot deposit accounts: {@code GET /actuator/stripes} lists the striped accounts, and
+ * {@code POST /actuator/stripes} with {@code {"accountId": 42, "stripes": 8}} spreads an account's deposits
+ * over eight slots; {@code "stripes": 0} turns striping off again. Not exposed over HTTP unless {@code stripes}
+ * is added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "stripes")
+public class BalanceStripesEndpoint {
+
+    private final StripedBalanceService stripedBalances;
+
+    public BalanceStripesEndpoint(StripedBalanceService stripedBalances) {
+        this.stripedBalances = stripedBalances;
+    }
+
+    @ReadOperation
+    public Map<Long, Integer> stripedAccounts() {
+        return stripedBalances.stripedAccounts();
+    }
+
+    @WriteOperation
+    public StripedBalanceService.StripeResult restripe(Long accountId, int stripes) {
+        return stripedBalances.restripe(accountId, stripes);
+    }
+}
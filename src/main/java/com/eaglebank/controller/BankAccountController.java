@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -27,25 +28,35 @@ public class BankAccountController {
 
     @PostMapping
     public ResponseEntity<BankAccountResponse> createAccount(@Valid @RequestBody BankAccountRequest request) {
-        log.info("Received request to create bank account for userId={}", securityUtils.getAuthenticatedUser().getId());
+        // Log the email from the security context: resolving the full user here would cost a lookup per line.
+        log.info("Received request to create bank account for user={}", securityUtils.getAuthenticatedEmail());
 
         BankAccountResponse response = service.createAccount(request);
 
-        log.info("Successfully created bank account. accountId={} userId={}",
-                response.id(), securityUtils.getAuthenticatedUser().getId());
+        log.info("Successfully created bank account. accountId={} user={}",
+                response.id(), securityUtils.getAuthenticatedEmail());
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping("/{accountId}")
-    public ResponseEntity<BankAccountResponse> getAccount(@PathVariable Long accountId) {
+    public ResponseEntity<BankAccountResponse> getAccount(@PathVariable Long accountId, WebRequest webRequest) {
         log.info("Fetching bank account with accountId={}", accountId);
 
+        // An unchanged poll is answered from the revision alone: no account load and no body.
+        BankAccountService.Revision revision = service.getAccountRevision(accountId);
+        String eTag = EntityTags.of(revision.version(), revision.lastTransactionId());
+        if (webRequest.checkNotModified(eTag)) {
+            log.info("Bank account not modified. accountId={}", accountId);
+            return EntityTags.notModified(eTag);
+        }
+
         BankAccountResponse response = service.getAccountById(accountId);
 
-        log.info("Retrieved bank account. accountId={} userId={}",
-                response.id(), securityUtils.getAuthenticatedUser().getId());
+        log.info("Retrieved bank account. accountId={} user={}",
+                response.id(), securityUtils.getAuthenticatedEmail());
 
-        return ResponseEntity.ok(response);
+        // Read after the version, so the body is never older than the tag it is sent with.
+        return ResponseEntity.ok().cacheControl(EntityTags.REVALIDATE).eTag(eTag).body(response);
     }
 }
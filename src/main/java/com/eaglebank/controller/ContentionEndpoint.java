@@ -0,0 +1,33 @@
+package com.eaglebank.controller;
+
+import com.eaglebank.ledger.AccountContention;
+import com.eaglebank.ledger.ConflictRetry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Operator view of the accounts whose ledger writes most often lose version conflicts:
+ * {@code GET /actuator/contention?limit=20}, hottest first. Not exposed over HTTP unless {@code contention}
+ * is added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "contention")
+public class ContentionEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final ConflictRetry conflictRetry;
+
+    public ContentionEndpoint(ConflictRetry conflictRetry) {
+        this.conflictRetry = conflictRetry;
+    }
+
+    @ReadOperation
+    public List<AccountContention.HotAccount> hottest(@Nullable Integer limit) {
+        return conflictRetry.contention().hottest(limit != null ? limit : DEFAULT_LIMIT);
+    }
+}
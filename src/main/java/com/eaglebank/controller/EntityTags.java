@@ -0,0 +1,39 @@
+package com.eaglebank.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+/**
+ * Strong ETags built from entity versions, and the cache headers that go with them. Every cacheable response is
+ * private: it belongs to the authenticated caller.
+ */
+final class EntityTags {
+
+    // Clients may keep the body but must revalidate it with If-None-Match before each use.
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // Transactions never change once written.
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    private EntityTags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * A tag for state that can change ahead of its version, such as a read model balance in journal mode;
+     * a negative {@code lastTransactionId} means the version alone identifies the state.
+     */
+    static String of(long version, long lastTransactionId) {
+        return lastTransactionId < 0 ? of(version) : "\"" + version + "-" + lastTransactionId + "\"";
+    }
+
+    static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(eTag).build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.eaglebank.controller;
+
+import com.eaglebank.service.LedgerSnapshotService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator tool that replays account balances from the transaction log:
+ * {@code POST /actuator/ledger} with {@code {"accountId": 42}} rebuilds one account; an empty body rebuilds
+ * all of them, in parallel across the ledger lanes. Not exposed over HTTP unless {@code ledger} is added
+ * to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "ledger")
+public class LedgerRebuildEndpoint {
+
+    private final LedgerSnapshotService ledgerSnapshots;
+
+    public LedgerRebuildEndpoint(LedgerSnapshotService ledgerSnapshots) {
+        this.ledgerSnapshots = ledgerSnapshots;
+    }
+
+    @WriteOperation
+    public Object rebuild(@Nullable Long accountId) {
+        return accountId != null ? ledgerSnapshots.rebuild(accountId) : ledgerSnapshots.rebuildAll();
+    }
+}
@@ -0,0 +1,101 @@
+package com.eaglebank.controller;
+
+import com.eaglebank.dto.StatementFormat;
+import com.eaglebank.service.StatementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/accounts/{accountId}")
+public class StatementController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private final StatementService statementService;
+
+    public StatementController(StatementService statementService) {
+        this.statementService = statementService;
+    }
+
+    @GetMapping(value = "/statement", produces = {NDJSON, CSV})
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = NDJSON) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        StatementFormat format = StatementFormat.negotiate(MediaType.parseMediaTypes(accept));
+        boolean gzip = acceptsGzip(acceptEncoding);
+        log.info("Exporting statement. accountId={} format={} from={} to={} gzip={}", accountId, format, from, to, gzip);
+
+        statementService.validateAccess(accountId);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // Closing the gzip stream must not close the servlet stream; Spring flushes it afterwards.
+                try (GZIPOutputStream compressed = new GZIPOutputStream(StreamUtils.nonClosing(out), 8192)) {
+                    statementService.writeStatement(accountId, from, to, format, compressed);
+                }
+            } else {
+                statementService.writeStatement(accountId, from, to, format, out);
+            }
+            log.info("Statement export completed. accountId={} format={}", accountId, format);
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + accountId + "." + format.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip: an explicit {@code gzip} (or {@code x-gzip}) entry decides,
+     * otherwise a {@code *} entry does; either one with {@code q=0} refuses it.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                        && parameter.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                wildcard = Math.max(wildcard, quality);
+            }
+        }
+        return (gzip >= 0 ? gzip : wildcard) > 0;
+    }
+}
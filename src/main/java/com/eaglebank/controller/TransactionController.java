@@ -1,16 +1,24 @@
 package com.eaglebank.controller;
 
+import com.eaglebank.dto.BatchTransactionRequest;
+import com.eaglebank.dto.BatchTransactionResponse;
+import com.eaglebank.dto.TransactionPageResponse;
 import com.eaglebank.dto.TransactionRequest;
 import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.idempotency.IdempotencyStore;
+import com.eaglebank.model.TransactionType;
 import com.eaglebank.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @Slf4j
 @RestController
-@RequestMapping("/v1/accounts/{accountId}/transactions")
+@RequestMapping("/v1/accounts/{accountId}")
 public class TransactionController {
 
     private final TransactionService transactionService;
@@ -19,14 +27,15 @@ public class TransactionController {
         this.transactionService = transactionService;
     }
 
-    @PostMapping
+    @PostMapping("/transactions")
     public ResponseEntity<TransactionResponse> createTransaction(
             @PathVariable Long accountId,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody TransactionRequest request) {
-        log.info("Creating transaction for accountId={} type={} amount={}",
-                accountId, request.type(), request.amount());
+        log.info("Creating transaction for accountId={} type={} amount={} idempotent={}",
+                accountId, request.type(), request.amount(), idempotencyKey != null);
 
-        TransactionResponse response = transactionService.createTransaction(accountId, request);
+        TransactionResponse response = transactionService.createTransaction(accountId, request, idempotencyKey);
 
         log.info("Transaction created successfully. accountId={} transactionId={} type={} amount={}",
                 accountId, response.transactionId(), response.type(), response.amount());
@@ -34,7 +43,39 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/{transactionId}")
+    @GetMapping("/transactions")
+    public ResponseEntity<TransactionPageResponse> listTransactions(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("Listing transactions. accountId={} type={} from={} to={} limit={}", accountId, type, from, to, limit);
+
+        TransactionPageResponse response = transactionService.getTransactions(accountId, cursor, type, from, to, limit);
+
+        log.info("Listed transactions. accountId={} count={} hasMore={}",
+                accountId, response.transactions().size(), response.nextCursor() != null);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/transactions:batch")
+    public ResponseEntity<BatchTransactionResponse> createTransactions(
+            @PathVariable Long accountId,
+            @Valid @RequestBody BatchTransactionRequest request) {
+        log.info("Creating transaction batch for accountId={} size={}", accountId, request.transactions().size());
+
+        BatchTransactionResponse response = transactionService.createTransactions(accountId, request.transactions());
+
+        log.info("Transaction batch processed. accountId={} applied={} rejected={}",
+                accountId, response.applied(), response.rejected());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/transactions/{transactionId}")
     public ResponseEntity<TransactionResponse> getTransaction(
             @PathVariable Long accountId,
             @PathVariable Long transactionId
@@ -46,6 +87,10 @@ public class TransactionController {
         log.info("Retrieved transaction. accountId={} transactionId={} type={} amount={}",
                 accountId, response.transactionId(), response.type(), response.amount());
 
-        return ResponseEntity.ok(response);
+        // Immutable, so any tag will do; it lets a client revalidate once the max-age has run out.
+        return ResponseEntity.ok()
+                .cacheControl(EntityTags.IMMUTABLE)
+                .eTag(EntityTags.of(response.transactionId()))
+                .body(response);
     }
 }
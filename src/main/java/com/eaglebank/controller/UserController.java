@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -32,14 +33,20 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long userId) {
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long userId, WebRequest webRequest) {
         log.info("Fetching user details for userId={}", userId);
 
+        String eTag = EntityTags.of(service.getUserVersionForCurrentUser(userId));
+        if (webRequest.checkNotModified(eTag)) {
+            log.info("User not modified. userId={}", userId);
+            return EntityTags.notModified(eTag);
+        }
+
         UserResponse response = service.getUserByIdForCurrentUser(userId);
 
         log.info("Retrieved user details. userId={} email={}", response.id(), response.email());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(EntityTags.REVALIDATE).eTag(eTag).body(response);
     }
 
     @PatchMapping("/{userId}")
@@ -0,0 +1,6 @@
+package com.eaglebank.dto;
+
+public enum BatchItemStatus {
+    APPLIED,
+    REJECTED
+}
@@ -0,0 +1,14 @@
+package com.eaglebank.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTransactionRequest(
+        @NotEmpty(message = "At least one transaction is required")
+        @Size(max = 1000, message = "A batch may contain at most 1000 transactions")
+        List<@Valid TransactionRequest> transactions
+) {
+}
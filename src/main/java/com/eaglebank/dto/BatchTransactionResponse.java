@@ -0,0 +1,12 @@
+package com.eaglebank.dto;
+
+import java.util.List;
+
+public record BatchTransactionResponse(
+        Long accountId,
+        int applied,
+        int rejected,
+        Double balance,
+        List<BatchTransactionResult> results
+) {
+}
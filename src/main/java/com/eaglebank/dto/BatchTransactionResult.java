@@ -0,0 +1,14 @@
+package com.eaglebank.dto;
+
+import com.eaglebank.model.TransactionType;
+
+public record BatchTransactionResult(
+        int index,
+        BatchItemStatus status,
+        Long transactionId,
+        TransactionType type,
+        Double amount,
+        Double updatedBalance,
+        String error
+) {
+}
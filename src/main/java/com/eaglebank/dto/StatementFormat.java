@@ -0,0 +1,43 @@
+package com.eaglebank.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+public enum StatementFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    StatementFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Picks the first supported format in the client's {@code Accept} order, defaulting to NDJSON.
+     */
+    public static StatementFormat negotiate(List<MediaType> accepted) {
+        for (MediaType candidate : accepted) {
+            if (candidate.isWildcardType()) {
+                return NDJSON;
+            }
+            for (StatementFormat format : values()) {
+                if (candidate.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return NDJSON;
+    }
+}
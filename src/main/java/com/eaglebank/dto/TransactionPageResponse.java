@@ -0,0 +1,9 @@
+package com.eaglebank.dto;
+
+import java.util.List;
+
+public record TransactionPageResponse(
+        List<TransactionResponse> transactions,
+        String nextCursor
+) {
+}
@@ -0,0 +1,10 @@
+package com.eaglebank.exception;
+
+/**
+ * A write that kept losing to concurrent updates of the same account (409), thrown without a stack trace.
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,43 @@
+package com.eaglebank.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+/**
+ * Serialized {@code {"error": "..."}} bodies, built once per distinct message. Rejections carry a small,
+ * fixed set of messages, so the hot error path writes cached bytes instead of running Jackson each time.
+ */
+final class ErrorBodies {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // Bounded in case a message ever carries request data; the usual working set is a few dozen entries.
+    private static final Cache<String, byte[]> BODIES = Caffeine.newBuilder().maximumSize(1_024).build();
+
+    private ErrorBodies() {
+    }
+
+    static ResponseEntity<byte[]> response(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(of(message != null ? message : status.getReasonPhrase()));
+    }
+
+    static byte[] of(String message) {
+        return BODIES.get(message, ErrorBodies::serialize);
+    }
+
+    private static byte[] serialize(String message) {
+        try {
+            return JSON.writeValueAsBytes(Map.of("error", message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize error body", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.eaglebank.exception;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets one occurrence per exception type through every {@code interval}, so a failure that repeats on
+ * every request logs a stack trace now and then instead of flooding the log with identical ones.
+ */
+final class ErrorLogLimiter {
+
+    private final long intervalNanos;
+    private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    ErrorLogLimiter(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @return how many occurrences of {@code type} were suppressed since the last permitted one, or
+     * {@code -1} if this occurrence should be suppressed too
+     */
+    long tryAcquire(Class<?> type) {
+        Window window = windows.computeIfAbsent(type, t -> new Window(System.nanoTime()));
+        long now = System.nanoTime();
+        long next = window.nextAllowed.get();
+        if (now - next >= 0 && window.nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            return window.suppressed.sumThenReset();
+        }
+        window.suppressed.increment();
+        return -1;
+    }
+
+    private static final class Window {
+        private final AtomicLong nextAllowed;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Window(long nextAllowed) {
+            this.nextAllowed = new AtomicLong(nextAllowed);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.eaglebank.exception;
+
+import org.springframework.security.access.AccessDeniedException;
+
+/**
+ * An ownership check that failed (403), thrown without a stack trace. Extends Spring Security's
+ * {@link AccessDeniedException} so existing callers and handlers keep treating it as one.
+ */
+public class ForbiddenException extends AccessDeniedException {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
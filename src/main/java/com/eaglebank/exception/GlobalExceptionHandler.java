@@ -1,58 +1,128 @@
 package com.eaglebank.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.util.Map;
+import java.time.Duration;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
+/**
+ * Maps exceptions to {@code {"error": "..."}} responses with pre-serialized bodies.
+ * <p>
+ * 4xx responses are expected outcomes: they are logged at debug, in one line and without a stack trace,
+ * and are counted by {@code http.server.requests} anyway. Only unexpected failures (500) log a stack
+ * trace, at most one per exception type every {@link #STACK_TRACE_INTERVAL}.
+ */
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    static final Duration STACK_TRACE_INTERVAL = Duration.ofSeconds(10);
+
+    private final ErrorLogLimiter stackTraceLimiter = new ErrorLogLimiter(STACK_TRACE_INTERVAL);
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public Map<String, String> handleValidation(MethodArgumentNotValidException ex) {
+    public ResponseEntity<byte[]> handleValidation(MethodArgumentNotValidException ex) {
         String error = Optional.ofNullable(ex.getBindingResult().getFieldError())
                 .map(FieldError::getDefaultMessage)
                 .orElse("Unknown validation error");
 
-        log.warn("Validation failed: {}", error, ex);
-        return Map.of("error", error);
+        log.debug("Validation failed: {}", error);
+        return ErrorBodies.response(HttpStatus.BAD_REQUEST, error);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public Map<String, String> handleIllegalArg(IllegalArgumentException ex) {
-        log.warn("Bad request: {}", ex.getMessage(), ex);
-        return Map.of("error", ex.getMessage());
+    public ResponseEntity<byte[]> handleIllegalArg(IllegalArgumentException ex) {
+        log.debug("Bad request: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(AccessDeniedException.class)
-    @ResponseStatus(HttpStatus.FORBIDDEN)
-    public Map<String, String> handleAccessDenied(AccessDeniedException ex) {
-        log.warn("Access denied: {}", ex.getMessage(), ex);
-        return Map.of("error", ex.getMessage());
+    public ResponseEntity<byte[]> handleAccessDenied(AccessDeniedException ex) {
+        log.debug("Access denied: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.FORBIDDEN, ex.getMessage());
     }
 
     @ExceptionHandler(NoSuchElementException.class)
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public Map<String, String> handleNotFound(NoSuchElementException ex) {
-        log.warn("Resource not found: {}", ex.getMessage(), ex);
-        return Map.of("error", ex.getMessage());
+    public ResponseEntity<byte[]> handleNotFound(NoSuchElementException ex) {
+        log.debug("Resource not found: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserConflictException.class)
+    public ResponseEntity<byte[]> handleUserConflict(UserConflictException ex) {
+        log.debug("Conflict: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<byte[]> handleConcurrentUpdate(ConcurrentUpdateException ex) {
+        log.debug("Concurrent update: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // A version conflict on a write that is not retried, such as a user update.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.debug("Version conflict: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.CONFLICT, "Resource was modified concurrently, please retry");
     }
 
     @ExceptionHandler(InsufficientFundsException.class)
-    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
-    public Map<String, String> handleInsufficientFunds(InsufficientFundsException ex) {
-        log.warn("Insufficient funds: {}", ex.getMessage(), ex);
-        return Map.of("error", ex.getMessage());
+    public ResponseEntity<byte[]> handleInsufficientFunds(InsufficientFundsException ex) {
+        log.debug("Insufficient funds: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<byte[]> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        log.debug("Idempotency key reused: {}", ex.getMessage());
+        return ErrorBodies.response(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<byte[]> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        log.warn("Password hashing saturated: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBodies.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleUnexpected(Exception ex) throws Exception {
+        if (isHandledByFramework(ex)) {
+            // Rethrowing the original exception hands it on to Spring's own resolvers and status mapping.
+            throw ex;
+        }
+        long suppressed = stackTraceLimiter.tryAcquire(ex.getClass());
+        if (suppressed >= 0) {
+            log.error("Unexpected error ({} more of this type suppressed since the last trace)", suppressed, ex);
+        }
+        return ErrorBodies.response(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+    }
+
+    private static boolean isHandledByFramework(Exception ex) {
+        return ex instanceof ErrorResponse
+                || ex instanceof TypeMismatchException
+                || ex instanceof HttpMessageConversionException
+                || ex instanceof AuthenticationException
+                || AnnotatedElementUtils.hasAnnotation(ex.getClass(), ResponseStatus.class);
     }
 }
@@ -0,0 +1,10 @@
+package com.eaglebank.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated and a request is turned away instead of queued.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
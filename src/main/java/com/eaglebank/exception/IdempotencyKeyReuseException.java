@@ -0,0 +1,11 @@
+package com.eaglebank.exception;
+
+/**
+ * An {@code Idempotency-Key} sent again with a different request than the one it was first used for (422),
+ * thrown without a stack trace.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,7 +1,11 @@
 package com.eaglebank.exception;
 
+/**
+ * An expected business rejection, so no stack trace is captured: the handler never logs one, and a client
+ * retrying against a drained account should not pay for the walk on every request.
+ */
 public class InsufficientFundsException extends RuntimeException {
     public InsufficientFundsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
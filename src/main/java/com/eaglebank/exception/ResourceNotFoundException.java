@@ -0,0 +1,18 @@
+package com.eaglebank.exception;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A missing or unreachable resource (404), thrown without a stack trace. Extends
+ * {@link NoSuchElementException} so existing callers and handlers keep treating it as one.
+ */
+public class ResourceNotFoundException extends NoSuchElementException {
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,7 +1,10 @@
 package com.eaglebank.exception;
 
+/**
+ * An expected business rejection (409), thrown without a stack trace.
+ */
 public class UserConflictException extends RuntimeException {
     public UserConflictException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,331 @@
+package com.eaglebank.idempotency;
+
+import com.eaglebank.config.IdempotencyProperties;
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.exception.IdempotencyKeyReuseException;
+import com.eaglebank.model.IdempotencyRecord;
+import com.eaglebank.repository.IdempotencyRecordRepository;
+import com.eaglebank.repository.IdempotencyScope;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Results of transaction POSTs sent with an {@code Idempotency-Key}, so a retry gets the first result back
+ * instead of writing the transaction again. Checked in three tiers, cheapest first:
+ * <ol>
+ *     <li>a bounded, TTL-evicted cache of recent results, which answers most retries</li>
+ *     <li>a Bloom filter over every stored key, which answers "definitely new" for a first attempt without a
+ *     database lookup; only its false positives, and keys stored by other instances, reach the next tier</li>
+ *     <li>the {@code idempotency_keys} table</li>
+ * </ol>
+ * The table's unique constraint is what makes a key idempotent: a request that slips past the first two tiers,
+ * such as a concurrent retry or one whose first attempt ran on another instance, fails to commit and is then
+ * answered from the table. The filter only ever trades a lookup for a rolled-back write.
+ * <p>
+ * Keys are kept for at least {@code ttl}. A background compactor deletes expired keys and rebuilds the filter
+ * without them, since a Bloom filter cannot forget. Only successful results are stored: a rejected request
+ * wrote nothing, so its retry is evaluated afresh. On by default; {@code eaglebank.idempotency.enabled=false}
+ * ignores the header.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "eaglebank.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyStore implements SmartLifecycle {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration compactionInterval;
+    private final int expectedKeys;
+    private final double falsePositiveRate;
+    private final Cache<Scope, Stored> recent;
+
+    private volatile KeyBloomFilter keys;
+    // Also fed by writers while a compaction rebuilds the filter, so the swap does not lose their keys.
+    private volatile KeyBloomFilter rebuilding;
+    private volatile Thread compactor;
+    private volatile boolean running;
+
+    private final Counter cacheHits;
+    private final Counter definitelyNew;
+    private final Counter storedHits;
+    private final Counter falsePositives;
+    private final Counter compacted;
+
+    public IdempotencyStore(IdempotencyProperties properties,
+                            IdempotencyRecordRepository repository,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.ttl = properties.ttl();
+        this.compactionInterval = properties.compactionInterval();
+        this.expectedKeys = properties.expectedKeys();
+        this.falsePositiveRate = properties.falsePositiveRate();
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(properties.cacheSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.keys = new KeyBloomFilter(expectedKeys, falsePositiveRate);
+
+        this.cacheHits = lookups(meterRegistry, "cached");
+        this.definitelyNew = lookups(meterRegistry, "new");
+        this.storedHits = lookups(meterRegistry, "stored");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.compacted = Counter.builder("eaglebank.idempotency.compacted")
+                .description("Expired idempotency keys deleted")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.idempotency.cached", recent, Cache::estimatedSize)
+                .description("Recent idempotent results held in memory")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.idempotency.filter.memory", this, store -> store.keys.sizeInBytes())
+                .description("Heap held by the idempotency key Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("eaglebank.idempotency.lookups")
+                .description("Idempotency key checks by the tier that answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code key} is blank or longer than the column holds (400)
+     */
+    public static void requireValid(String key) {
+        if (key.isBlank() || key.length() > IdempotencyRecord.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    HEADER + " must be 1 to " + IdempotencyRecord.MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * The result stored for {@code key}, or empty if the key is new.
+     *
+     * @throws IdempotencyKeyReuseException if the key was first used for a different request
+     */
+    public Optional<TransactionResponse> find(long userId, String key, Long accountId, TransactionRequest request) {
+        Stored stored = recent.getIfPresent(new Scope(userId, key));
+        if (stored != null) {
+            cacheHits.increment();
+            return Optional.of(stored.replay(accountId, request));
+        }
+        if (!keys.mightContain(userId, key)) {
+            definitelyNew.increment();
+            return Optional.empty();
+        }
+        Optional<TransactionResponse> response = load(userId, key, accountId, request);
+        (response.isPresent() ? storedHits : falsePositives).increment();
+        return response;
+    }
+
+    /**
+     * The result stored for {@code key}, read from the table whatever the cache and filter say. For a request
+     * that lost the race to store its key.
+     *
+     * @throws IdempotencyKeyReuseException if the key was first used for a different request
+     */
+    public Optional<TransactionResponse> load(long userId, String key, Long accountId, TransactionRequest request) {
+        return repository.findByUserIdAndIdempotencyKey(userId, key)
+                .map(row -> {
+                    Stored stored = Stored.of(row);
+                    recent.put(new Scope(userId, key), stored);
+                    return stored.replay(accountId, request);
+                });
+    }
+
+    /**
+     * Stores {@code response} as the result of {@code key} in the surrounding database transaction, next to the
+     * transaction it names. Served from memory once that commits.
+     */
+    public void record(long userId, String key, Long accountId, TransactionResponse response) {
+        persist(userId, key, accountId, response);
+        afterCommit(() -> remember(userId, key, accountId, response));
+    }
+
+    /**
+     * Serves {@code response} as the result of {@code key} from memory straight away, ahead of
+     * {@link #persistJournaled}. For the journal's lanes, which are serialized per account outside the database:
+     * the key's row is written only when the applier writes its transaction.
+     */
+    public void remember(long userId, String key, Long accountId, TransactionResponse response) {
+        addKey(userId, key);
+        recent.put(new Scope(userId, key), new Stored(accountId, response));
+    }
+
+    /**
+     * Writes the key's row, in the surrounding database transaction if there is one.
+     */
+    private void persist(long userId, String key, Long accountId, TransactionResponse response) {
+        addKey(userId, key);
+        repository.save(new IdempotencyRecord(userId, key, accountId, response.type(), response.amount(),
+                response.transactionId(), response.updatedBalance(), LocalDateTime.now().plus(ttl)));
+    }
+
+    /**
+     * Writes the row for a key journaled with its transaction, in the applier's database transaction, unless the
+     * key is already stored. The journal's lanes serialize per account while keys are scoped per user, so the same
+     * key sent to two accounts at once is journaled twice; the first to be applied keeps it, and the applier never
+     * fails a batch of durable transactions on the unique constraint.
+     *
+     * @return whether the row was written
+     */
+    public boolean persistJournaled(long userId, String key, Long accountId, TransactionResponse response) {
+        // The query flushes rows persisted earlier in the same batch, so duplicates within a batch are seen too.
+        if (repository.findByUserIdAndIdempotencyKey(userId, key).isPresent()) {
+            log.warn("Journaled idempotency key already stored; keeping the first. userId={} transactionId={}",
+                    userId, response.transactionId());
+            return false;
+        }
+        persist(userId, key, accountId, response);
+        return true;
+    }
+
+    private void addKey(long userId, String key) {
+        keys.add(userId, key);
+        KeyBloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(userId, key);
+        }
+    }
+
+    /**
+     * Deletes expired keys and, if any went, rebuilds the filter without them. A filter that has outgrown
+     * {@code expectedKeys} is rebuilt at twice the live key count.
+     *
+     * @return the number of keys deleted
+     */
+    int compact() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        long live = repository.count();
+        if (deleted > 0 || live > expectedKeys) {
+            rebuild(live);
+        }
+        if (deleted > 0) {
+            compacted.increment(deleted);
+            log.info("Compacted idempotency keys. deleted={} live={}", deleted, live);
+        }
+        return deleted;
+    }
+
+    private void rebuild(long live) {
+        KeyBloomFilter next = new KeyBloomFilter((int) Math.min(Integer.MAX_VALUE, Math.max(expectedKeys, 2 * live)),
+                falsePositiveRate);
+        rebuilding = next;
+        try {
+            // A key whose writer read rebuilding just before it was set and committed behind the scan is missed;
+            // a retry with it then fails on the unique constraint and is answered from the table.
+            long afterId = 0;
+            List<IdempotencyScope> page;
+            do {
+                page = repository.findScopesAfter(afterId, Limit.of(REBUILD_PAGE_SIZE));
+                for (IdempotencyScope scope : page) {
+                    next.add(scope.userId(), scope.idempotencyKey());
+                    afterId = scope.id();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            keys = next;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void compactPeriodically() {
+        while (running) {
+            try {
+                Thread.sleep(compactionInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.warn("Idempotency key compaction failed; retrying in {}", compactionInterval, e);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        rebuild(repository.count());
+        running = true;
+        compactor = new Thread(this::compactPeriodically, "idempotency-compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+        log.info("Idempotency keys loaded. filterBytes={} ttl={}", keys.sizeInBytes(), ttl);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = compactor;
+        if (thread != null) {
+            thread.interrupt();
+            compactor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the journal has replayed into the database, and before the web server takes requests.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+
+    private record Scope(long userId, String key) {
+    }
+
+    private record Stored(Long accountId, TransactionResponse response) {
+
+        static Stored of(IdempotencyRecord row) {
+            return new Stored(row.getAccountId(), new TransactionResponse(row.getTransactionId(), row.getType(),
+                    row.getAmount(), row.getUpdatedBalance()));
+        }
+
+        TransactionResponse replay(Long accountId, TransactionRequest request) {
+            if (!this.accountId.equals(accountId)
+                    || response.type() != request.type()
+                    || !Objects.equals(response.amount(), request.amount())) {
+                throw new IdempotencyKeyReuseException(HEADER + " was already used for a different transaction");
+            }
+            return response;
+        }
+    }
+}
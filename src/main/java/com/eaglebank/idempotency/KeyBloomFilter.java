@@ -0,0 +1,81 @@
+package com.eaglebank.idempotency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter over {@code (userId, key)} scopes, safe for concurrent adds and lookups without
+ * locking. {@link #mightContain} never answers {@code false} for a scope that was added before it started;
+ * it answers {@code true} for about {@code falsePositiveRate} of the others while no more than
+ * {@code expectedKeys} have been added.
+ * <p>
+ * Bits are never cleared, so removed keys can only be dropped by building a new filter.
+ */
+final class KeyBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    KeyBloomFilter(int expectedKeys, double falsePositiveRate) {
+        int keys = Math.max(expectedKeys, 1);
+        long optimalBits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        // At most 2^32 bits (512 MB), so an unsigned 32-bit probe scales onto the whole range.
+        int wordCount = (int) Math.min(1 << 26, Math.max(1, (optimalBits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / keys * Math.log(2)));
+    }
+
+    void add(long userId, String key) {
+        long hash = hash(userId, key);
+        // Kirsch-Mitzenmacher: the k probes are h1 + i * h2, from the two halves of one 64-bit hash.
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.weakCompareAndSetVolatile(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(long userId, String key) {
+        long hash = hash(userId, key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return bits >>> 3;
+    }
+
+    private long index(int combined) {
+        // Non-negative and spread over the full bit range rather than folded onto the first 2^31 bits.
+        return ((combined & 0xFFFF_FFFFL) * bits) >>> 32;
+    }
+
+    // FNV-1a over the key's chars seeded with the user id, then a murmur3 finalizer to spread the bits.
+    private static long hash(long userId, String key) {
+        long hash = 0xCBF2_9CE4_8422_2325L ^ userId * 0x9E37_79B9_7F4A_7C15L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x0000_0100_0000_01B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51_AFD7_ED55_8CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CE_B9FE_1A85_EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
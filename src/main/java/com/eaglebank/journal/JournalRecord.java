@@ -0,0 +1,141 @@
+package com.eaglebank.journal;
+
+import com.eaglebank.model.IdempotencyRecord;
+import com.eaglebank.model.TransactionType;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * One accepted transaction as stored in the journal.
+ * <p>
+ * Records start with a fixed 48-byte header: a CRC32C of the rest of the record, the type, the length of the
+ * idempotency key, then the ids, amounts and timestamp. A transaction sent with an {@code Idempotency-Key} is
+ * followed by its user id and the key in UTF-8, padded to 8 bytes, so the key becomes durable with the
+ * transaction it names. Segment files start zero-filled, and zeroes never carry a valid checksum, so a reader
+ * stops at the first record that was never written or was torn by a crash.
+ *
+ * @param balanceAfter   the account balance once this transaction is applied
+ * @param userId         the user who sent {@code idempotencyKey}; 0 without a key
+ * @param idempotencyKey the request's {@code Idempotency-Key}, or {@code null}
+ */
+public record JournalRecord(long transactionId, long accountId, TransactionType type, double amount,
+                            double balanceAfter, LocalDateTime timestamp, long userId,
+                            @Nullable String idempotencyKey) {
+
+    static final int SIZE = 48;
+    // UTF-8 takes at most three bytes per char.
+    static final int MAX_SIZE = sizeFor(IdempotencyRecord.MAX_KEY_LENGTH * 3);
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final int CHECKSUM = 0;
+    private static final int TYPE = 4;
+    private static final int KEY_LENGTH = 6;
+    private static final int TRANSACTION_ID = 8;
+    private static final int ACCOUNT_ID = 16;
+    private static final int AMOUNT = 24;
+    private static final int BALANCE_AFTER = 32;
+    private static final int TIMESTAMP = 40;
+    private static final int USER_ID = 48;
+    private static final int KEY = 56;
+
+    public JournalRecord(long transactionId, long accountId, TransactionType type, double amount,
+                         double balanceAfter, LocalDateTime timestamp) {
+        this(transactionId, accountId, type, amount, balanceAfter, timestamp, 0, null);
+    }
+
+    public double signedAmount() {
+        return type == TransactionType.DEPOSIT ? amount : -amount;
+    }
+
+    /**
+     * Bytes this record takes in a segment.
+     */
+    int size() {
+        return idempotencyKey == null ? SIZE : sizeFor(encodedKey().length);
+    }
+
+    void writeTo(ByteBuffer buffer, int offset) {
+        // Type is stored as ordinal + 1 so that an all-zero record can never decode.
+        buffer.put(offset + TYPE, (byte) (type.ordinal() + 1));
+        buffer.putLong(offset + TRANSACTION_ID, transactionId);
+        buffer.putLong(offset + ACCOUNT_ID, accountId);
+        buffer.putDouble(offset + AMOUNT, amount);
+        buffer.putDouble(offset + BALANCE_AFTER, balanceAfter);
+        buffer.putLong(offset + TIMESTAMP, toEpochMicros(timestamp));
+        int size = SIZE;
+        if (idempotencyKey != null) {
+            byte[] key = encodedKey();
+            buffer.putShort(offset + KEY_LENGTH, (short) key.length);
+            buffer.putLong(offset + USER_ID, userId);
+            buffer.put(offset + KEY, key);
+            size = sizeFor(key.length);
+        }
+        buffer.putInt(offset + CHECKSUM, checksum(buffer, offset, size));
+    }
+
+    /**
+     * Decodes the record at {@code offset}, or returns {@code null} if it does not fit the buffer or its checksum
+     * or type is invalid.
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int offset) {
+        if (offset + SIZE > buffer.capacity()) {
+            return null;
+        }
+        int keyLength = Short.toUnsignedInt(buffer.getShort(offset + KEY_LENGTH));
+        int size = sizeFor(keyLength);
+        if (size > MAX_SIZE || offset + size > buffer.capacity()
+                || buffer.getInt(offset + CHECKSUM) != checksum(buffer, offset, size)) {
+            return null;
+        }
+        int type = buffer.get(offset + TYPE) - 1;
+        if (type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        long userId = 0;
+        String key = null;
+        if (keyLength > 0) {
+            userId = buffer.getLong(offset + USER_ID);
+            byte[] bytes = new byte[keyLength];
+            buffer.get(offset + KEY, bytes);
+            key = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new JournalRecord(
+                buffer.getLong(offset + TRANSACTION_ID),
+                buffer.getLong(offset + ACCOUNT_ID),
+                TYPES[type],
+                buffer.getDouble(offset + AMOUNT),
+                buffer.getDouble(offset + BALANCE_AFTER),
+                fromEpochMicros(buffer.getLong(offset + TIMESTAMP)),
+                userId,
+                key);
+    }
+
+    private byte[] encodedKey() {
+        return idempotencyKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeFor(int keyLength) {
+        return keyLength == 0 ? SIZE : (KEY + keyLength + 7) & ~7;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int size) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + TYPE, size - TYPE));
+        return (int) crc.getValue();
+    }
+
+    // Timestamps are stored at the database column's precision (microseconds).
+    private static long toEpochMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,453 @@
+package com.eaglebank.journal;
+
+import com.eaglebank.model.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of {@link JournalRecord}s in fixed-size, memory-mapped segment files. Records are laid
+ * end to end; one that does not fit the rest of a segment starts the next.
+ * <p>
+ * Appends copy the record into the mapped segment under a lock, assigning transaction ids in append order.
+ * A flusher thread makes them durable in groups. It forces the mapped pages to disk once
+ * {@code groupCommitRecords} records are waiting, or when the oldest has waited {@code groupCommitDelay}.
+ * One fsync therefore covers every record appended meanwhile. {@link #awaitDurable(long)} blocks until a
+ * given record is covered.
+ * <p>
+ * A full segment is forced and a new one started, named after its first transaction id. On open, each
+ * segment is scanned up to the first record that fails its checksum. That is where the last crash tore the
+ * tail. The rest of the active segment is zeroed so that stale bytes can never be read back.
+ */
+@Slf4j
+public class MappedJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int groupCommitRecords;
+    private final long groupCommitDelayNanos;
+    private final LongSupplier idAllocator;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+
+    // Guarded by lock.
+    private final List<Segment> segments = new ArrayList<>();
+    private long lastAppendedId;
+    private long durableId;
+    private int pendingRecords;
+    private long firstPendingNanos;
+    private boolean closed;
+    private RuntimeException failure;
+
+    private final LongAdder flushes = new LongAdder();
+    private final Thread flusher;
+
+    /**
+     * Opens the journal in {@code directory}, recovering any segments already there, and starts its flusher.
+     *
+     * @param idAllocator supplies increasing transaction ids; only ever called under the append lock
+     */
+    public MappedJournal(Path directory, long segmentSize, int groupCommitRecords, Duration groupCommitDelay,
+                         LongSupplier idAllocator) throws IOException {
+        if (segmentSize < JournalRecord.MAX_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between "
+                    + JournalRecord.MAX_SIZE + " bytes and 2GB: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize;
+        this.groupCommitRecords = Math.max(1, groupCommitRecords);
+        this.groupCommitDelayNanos = groupCommitDelay.toNanos();
+        this.idAllocator = idAllocator;
+
+        Files.createDirectories(directory);
+        recover();
+
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(MappedJournal::isSegment)
+                    .sorted(Comparator.comparingLong(MappedJournal::firstIdOf))
+                    .toList();
+        }
+        for (Path file : files) {
+            Segment segment = Segment.open(file, firstIdOf(file), 0);
+            segment.scan(lastAppendedId);
+            lastAppendedId = Math.max(lastAppendedId, segment.lastId);
+            segments.add(segment);
+        }
+        if (!segments.isEmpty()) {
+            Segment active = segments.get(segments.size() - 1);
+            active.zeroFrom(active.limit);
+            active.buffer.force();
+            active.flushedLimit = active.limit;
+        }
+        durableId = lastAppendedId;
+        log.info("Journal opened. directory={} segments={} lastTransactionId={}",
+                directory, segments.size(), lastAppendedId);
+    }
+
+    /**
+     * Appends a transaction under the next transaction id. The record is not yet durable when this returns;
+     * pass its id to {@link #awaitDurable(long)} before acknowledging it.
+     */
+    public JournalRecord append(long accountId, TransactionType type, double amount, double balanceAfter,
+                                LocalDateTime timestamp) {
+        return append(accountId, type, amount, balanceAfter, timestamp, 0, null);
+    }
+
+    /**
+     * Appends a transaction sent with {@code idempotencyKey}, which becomes durable with it.
+     */
+    public JournalRecord append(long accountId, TransactionType type, double amount, double balanceAfter,
+                                LocalDateTime timestamp, long userId, @Nullable String idempotencyKey) {
+        return append(accountId, type, amount, balanceAfter, timestamp, userId, idempotencyKey, record -> {
+        });
+    }
+
+    /**
+     * Appends a transaction and hands its record to {@code onAppend} before the next append can take an id.
+     * Concurrent appenders therefore pass their records on in id order, which a consumer that applies them in
+     * arrival order relies on.
+     */
+    public JournalRecord append(long accountId, TransactionType type, double amount, double balanceAfter,
+                                LocalDateTime timestamp, long userId, @Nullable String idempotencyKey,
+                                Consumer<? super JournalRecord> onAppend) {
+        lock.lock();
+        try {
+            ensureWritable();
+            long id = idAllocator.getAsLong();
+            if (id <= lastAppendedId) {
+                throw new IllegalStateException("Journal ids must increase: " + id + " after " + lastAppendedId);
+            }
+            JournalRecord record = new JournalRecord(id, accountId, type, amount, balanceAfter, timestamp,
+                    userId, idempotencyKey);
+            int size = record.size();
+            Segment active = activeSegmentFor(id, size);
+            record.writeTo(active.buffer, active.limit);
+            active.limit += size;
+            active.lastId = id;
+            lastAppendedId = id;
+
+            if (++pendingRecords == 1) {
+                firstPendingNanos = System.nanoTime();
+                flushNeeded.signal();
+            } else if (pendingRecords == groupCommitRecords) {
+                flushNeeded.signal();
+            }
+            onAppend.accept(record);
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment activeSegmentFor(long id, int size) {
+        Segment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active != null && active.limit + size <= active.capacity) {
+            return active;
+        }
+        try {
+            if (active != null) {
+                // Rolling makes everything in the old segment durable, so a flush only ever covers the active one.
+                active.buffer.force();
+                active.flushedLimit = active.limit;
+            }
+            Segment next = Segment.open(directory.resolve(segmentName(id)), id, segmentSize);
+            segments.add(next);
+            return next;
+        } catch (IOException e) {
+            failure = new UncheckedIOException("Cannot roll journal segment", e);
+            throw failure;
+        }
+    }
+
+    /**
+     * Blocks until the record with {@code transactionId}, and so every record before it, is on disk.
+     */
+    public void awaitDurable(long transactionId) {
+        lock.lock();
+        try {
+            while (durableId < transactionId) {
+                ensureWritable();
+                durableAdvanced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the journal to flush", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureWritable() {
+        if (failure != null) {
+            throw new IllegalStateException("Journal is unusable after an I/O failure", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            Segment segment;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                while (!closed && pendingRecords == 0) {
+                    flushNeeded.await();
+                }
+                if (pendingRecords == 0) {
+                    return;
+                }
+                long deadline = firstPendingNanos + groupCommitDelayNanos;
+                long remaining;
+                while (!closed && pendingRecords < groupCommitRecords
+                        && (remaining = deadline - System.nanoTime()) > 0) {
+                    flushNeeded.awaitNanos(remaining);
+                }
+                segment = segments.get(segments.size() - 1);
+                from = segment.flushedLimit;
+                to = segment.limit;
+                segment.flushedLimit = to;
+                target = lastAppendedId;
+                pendingRecords = 0;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // Forced outside the lock: appends carry on into the next group while this one hits the disk.
+            RuntimeException error = null;
+            try {
+                if (to > from) {
+                    segment.buffer.force(from, to - from);
+                }
+                flushes.increment();
+            } catch (RuntimeException e) {
+                log.error("Journal flush failed; rejecting further appends", e);
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableId = Math.max(durableId, target);
+                }
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Feeds every recovered record with an id above {@code afterId} to {@code consumer}, in id order.
+     */
+    public void forEach(long afterId, Consumer<JournalRecord> consumer) {
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment.lastId <= afterId) {
+                    continue;
+                }
+                for (int offset = 0; offset < segment.limit; ) {
+                    JournalRecord record = JournalRecord.readFrom(segment.buffer, offset);
+                    if (record.transactionId() > afterId) {
+                        consumer.accept(record);
+                    }
+                    offset += record.size();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments whose records have all been applied, up to and including {@code transactionId}.
+     * The active segment is always kept.
+     */
+    public void release(long transactionId) {
+        lock.lock();
+        try {
+            while (segments.size() > 1 && segments.get(0).lastId <= transactionId) {
+                Segment released = segments.remove(0);
+                released.close();
+                Files.deleteIfExists(released.path);
+                log.debug("Journal segment released. file={}", released.path.getFileName());
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete applied journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastAppendedId() {
+        lock.lock();
+        try {
+            return lastAppendedId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long flushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * Flushes whatever is still pending, stops the flusher and closes the segment files.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            segments.forEach(Segment::close);
+            durableAdvanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static String segmentName(long firstId) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstId, SEGMENT_SUFFIX);
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private long lastId;
+        private int limit;
+        private int flushedLimit;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer, long firstId) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+            this.lastId = firstId - 1;
+        }
+
+        /**
+         * Maps {@code path}, keeping an existing file's size or creating it with {@code size} zeroed bytes.
+         */
+        private static Segment open(Path path, long firstId, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long length = channel.size() > 0 ? channel.size() : size;
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, length), firstId);
+        }
+
+        // Stops at the first invalid record, or at one whose id does not increase (left over from before a tear).
+        private void scan(long previousId) {
+            long last = Math.max(previousId, lastId);
+            int offset = 0;
+            while (true) {
+                JournalRecord record = JournalRecord.readFrom(buffer, offset);
+                if (record == null || record.transactionId() <= last) {
+                    break;
+                }
+                last = record.transactionId();
+                offset += record.size();
+            }
+            limit = offset;
+            flushedLimit = offset;
+            if (offset > 0) {
+                lastId = last;
+            }
+        }
+
+        private void zeroFrom(int offset) {
+            for (int i = offset; i < buffer.capacity(); i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close journal segment {}", path, e);
+            }
+        }
+    }
+}
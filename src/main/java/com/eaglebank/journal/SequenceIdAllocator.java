@@ -0,0 +1,50 @@
+package com.eaglebank.journal;
+
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out transaction ids from the same database sequence as Hibernate's generator for
+ * {@link com.eaglebank.model.Transaction}, with the same pooled block layout. Each sequence value {@code hi}
+ * reserves the ids {@code (hi - allocationSize, hi]}, so journaled rows never collide with rows persisted
+ * directly. Only one sequence round trip is needed per block.
+ * <p>
+ * Not thread-safe: the journal only calls it under its append lock.
+ */
+class SequenceIdAllocator implements LongSupplier {
+
+    private final JdbcOperations jdbc;
+    private final String nextValueSql;
+    private final int allocationSize;
+
+    private long next = 1;
+    private long hi;
+
+    SequenceIdAllocator(JdbcOperations jdbc, String nextValueSql, int allocationSize) {
+        this.jdbc = jdbc;
+        this.nextValueSql = nextValueSql;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public long getAsLong() {
+        if (next > hi) {
+            Long value = jdbc.queryForObject(nextValueSql, Long.class);
+            if (value == null) {
+                throw new IllegalStateException("Sequence returned no value: " + nextValueSql);
+            }
+            hi = value;
+            next = Math.max(1, hi - allocationSize + 1);
+        }
+        return next++;
+    }
+
+    /**
+     * Drops the rest of the current block, so the next id comes from a fresh one above anything handed out since.
+     */
+    void reset() {
+        next = 1;
+        hi = 0;
+    }
+}
@@ -0,0 +1,382 @@
+package com.eaglebank.journal;
+
+import com.eaglebank.config.JournalProperties;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.exception.ResourceNotFoundException;
+import com.eaglebank.idempotency.IdempotencyStore;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.service.LedgerSnapshotService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accepts transactions into a {@link MappedJournal} and applies them to the database in the background.
+ * Enabled with {@code eaglebank.journal.enabled}.
+ * <p>
+ * Accepting a transaction does no database I/O. Its account's balance and owner are held in memory, owned
+ * by the account's ledger lane like every other balance mutation: they are loaded once and then updated as
+ * records are appended. A request is acknowledged once its record is durable in the journal.
+ * <p>
+ * One applier thread drains durable records in batches. It inserts the transaction rows with a JDBC batch
+ * and adds each account's net change to its balance, all in one database transaction per batch. Records
+ * are queued for it under the journal's append lock, so it receives and commits them in id order, and the
+ * highest transaction id in the database marks how far the journal has been applied. On startup, everything in the journal above it is replayed before the application takes traffic.
+ * An {@code Idempotency-Key} is journaled with its transaction and its row written in the same batch, so a
+ * key survives a crash exactly when its transaction does.
+ * <p>
+ * Balances read from the database, history pages and statements trail accepted transactions by the
+ * applier's lag, usually well under a millisecond. Account reads served by the read model do not: it is
+ * updated as soon as a record is durable.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "eaglebank.journal", name = "enabled", havingValue = "true")
+public class TransactionJournal implements SmartLifecycle {
+
+    private static final String INSERT_SQL = """
+            insert into transactions (id, account_id, type, amount, balance_after_transaction, timestamp)
+            values (?, ?, ?, ?, ?, ?)""";
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final JournalProperties properties;
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository accountRepository;
+    private final LedgerSnapshotService ledgerSnapshots;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final SequenceIdAllocator idAllocator;
+    // Takes the version each applied batch gives an account, which is what its ETag is built from.
+    private final AccountReadModel readModel;
+    // Null when eaglebank.idempotency.enabled is false: journaled keys are then dropped.
+    private final IdempotencyStore idempotency;
+
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+    // Unbounded itself; backlogRoom holds the applyBacklog limit.
+    private final BlockingQueue<JournalRecord> backlog = new LinkedBlockingQueue<>();
+    private final Semaphore backlogRoom;
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+
+    private volatile MappedJournal journal;
+    private volatile Thread applier;
+    private volatile boolean running;
+
+    public TransactionJournal(JournalProperties properties,
+                              TransactionRepository transactionRepository,
+                              BankAccountRepository accountRepository,
+                              LedgerSnapshotService ledgerSnapshots,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionOperations transactionOperations,
+                              EntityManagerFactory entityManagerFactory,
+                              @Nullable AccountReadModel readModel,
+                              @Nullable IdempotencyStore idempotency,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerSnapshots = ledgerSnapshots;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.readModel = readModel;
+        this.idempotency = idempotency;
+        this.backlogRoom = new Semaphore(properties.applyBacklog());
+
+        String nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(Transaction.ID_SEQUENCE);
+        this.idAllocator = new SequenceIdAllocator(jdbcTemplate, nextValueSql, Transaction.ID_ALLOCATION_SIZE);
+
+        FunctionCounter.builder("eaglebank.journal.records", appended, LongAdder::sum)
+                .description("Transactions appended to the journal")
+                .register(meterRegistry);
+        FunctionCounter.builder("eaglebank.journal.applied", applied, LongAdder::sum)
+                .description("Journal records written to the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("eaglebank.journal.flushes", this, TransactionJournal::flushCount)
+                .description("Group commits; records divided by flushes is the average group size")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.journal.backlog", backlog, BlockingQueue::size)
+                .description("Journal records accepted but not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the in-memory state of {@code accountId}, loading it on first use. Call only from the account's
+     * ledger lane.
+     */
+    public Account account(Long accountId) {
+        return accounts.computeIfAbsent(accountId, id -> accountRepository.findById(id)
+                .map(account -> new Account(id, account.getUser().getId(), account.isStriped()
+                        // Striped before the journal was enabled: the stripes hold the rest of the balance.
+                        ? accountRepository.findFoldedBalanceById(id).orElseThrow()
+                        : account.getBalance()))
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found")));
+    }
+
+    /**
+     * Appends a transaction sent without an {@code Idempotency-Key}; see
+     * {@link #append(Account, TransactionType, double, double, LocalDateTime, long, String)}.
+     */
+    public JournalRecord append(Account account, TransactionType type, double amount, double balanceAfter,
+                                LocalDateTime timestamp) {
+        return append(account, type, amount, balanceAfter, timestamp, 0, null);
+    }
+
+    /**
+     * Appends a transaction that leaves {@code account} at {@code balanceAfter} and queues it for the database,
+     * along with the {@code idempotencyKey} {@code userId} sent it with, if any. Call only from the account's
+     * ledger lane; wait for {@link #awaitDurable(long)} before acknowledging it.
+     */
+    public JournalRecord append(Account account, TransactionType type, double amount, double balanceAfter,
+                                LocalDateTime timestamp, long userId, @Nullable String idempotencyKey) {
+        // Room is reserved first: the record is queued under the journal's append lock, where it must not block,
+        // so that the backlog, and with it the database, gets records in id order.
+        try {
+            backlogRoom.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the journal backlog", e);
+        }
+        JournalRecord record;
+        try {
+            record = journal.append(account.id, type, amount, balanceAfter, timestamp, userId, idempotencyKey,
+                    backlog::add);
+        } catch (RuntimeException e) {
+            backlogRoom.release();
+            throw e;
+        }
+        account.balance = balanceAfter;
+        appended.increment();
+        return record;
+    }
+
+    public void awaitDurable(long transactionId) {
+        journal.awaitDurable(transactionId);
+    }
+
+    private long flushCount() {
+        MappedJournal current = journal;
+        return current != null ? current.flushCount() : 0;
+    }
+
+    // Runs on the repaired account's lane once the rebuild commits, so the held balance stays lane-confined.
+    @TransactionalEventListener
+    public void onBalanceRepaired(LedgerSnapshotService.BalanceRepaired event) {
+        Account account = accounts.get(event.accountId());
+        if (account != null) {
+            account.balance += event.correction();
+        }
+    }
+
+    @Override
+    public void start() {
+        Path directory = Path.of(properties.directory());
+        // Records appended while stopped, by a crashed predecessor for instance, may lie above the old block.
+        idAllocator.reset();
+        try {
+            journal = new MappedJournal(directory, properties.segmentSize().toBytes(),
+                    properties.groupCommitRecords(), properties.groupCommitDelay(), idAllocator);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the transaction journal in " + directory.toAbsolutePath(), e);
+        }
+        accounts.clear();
+        // Left behind by an applier that stopped on a failed batch; recovery replays them from the journal.
+        int stale = backlog.size();
+        backlog.clear();
+        backlogRoom.release(stale);
+        recover();
+
+        running = true;
+        applier = new Thread(this::applyLoop, "journal-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    private void recover() {
+        long appliedThrough = transactionRepository.findMaxId();
+        List<JournalRecord> batch = new ArrayList<>(properties.applyBatchSize());
+        long[] replayed = {0};
+        journal.forEach(appliedThrough, record -> {
+            batch.add(record);
+            if (batch.size() == properties.applyBatchSize()) {
+                apply(batch);
+                replayed[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            apply(batch);
+            replayed[0] += batch.size();
+        }
+        journal.release(journal.lastAppendedId());
+        log.info("Journal recovered. appliedThrough={} replayed={}", appliedThrough, replayed[0]);
+    }
+
+    private void applyLoop() {
+        List<JournalRecord> batch = new ArrayList<>(properties.applyBatchSize());
+        while (running || !backlog.isEmpty()) {
+            try {
+                JournalRecord first = backlog.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                backlog.drainTo(batch, properties.applyBatchSize() - 1);
+                backlogRoom.release(batch.size());
+                // The backlog is in id order, so the last record is the highest.
+                long lastId = batch.get(batch.size() - 1).transactionId();
+                journal.awaitDurable(lastId);
+                if (!applyWithRetry(batch)) {
+                    return;
+                }
+                journal.release(lastId);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean applyWithRetry(List<JournalRecord> batch) throws InterruptedException {
+        while (true) {
+            try {
+                apply(batch);
+                return true;
+            } catch (RuntimeException e) {
+                log.error("Journal apply failed. firstTransactionId={} records={}",
+                        batch.get(0).transactionId(), batch.size(), e);
+                if (!running) {
+                    // Left in the journal: recovery replays it on the next start.
+                    return false;
+                }
+                Thread.sleep(RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private void apply(List<JournalRecord> batch) {
+        transactionOperations.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, record) -> {
+                statement.setLong(1, record.transactionId());
+                statement.setLong(2, record.accountId());
+                statement.setString(3, record.type().name());
+                statement.setDouble(4, record.amount());
+                statement.setDouble(5, record.balanceAfter());
+                statement.setObject(6, record.timestamp());
+            });
+            if (idempotency != null) {
+                for (JournalRecord record : batch) {
+                    if (record.idempotencyKey() != null) {
+                        idempotency.persistJournaled(record.userId(), record.idempotencyKey(), record.accountId(),
+                                new TransactionResponse(record.transactionId(), record.type(), record.amount(),
+                                        record.balanceAfter()));
+                    }
+                }
+            }
+
+            Map<Long, AccountChange> changes = new TreeMap<>();
+            for (JournalRecord record : batch) {
+                changes.computeIfAbsent(record.accountId(), id -> new AccountChange()).add(record);
+            }
+            // Net changes rather than the journaled balance, so that a concurrent rebuild's repair survives.
+            for (BankAccount account : accountRepository.findAllForUpdateByIdIn(changes.keySet())) {
+                AccountChange change = changes.get(account.getId());
+                account.setBalance(account.getBalance() + change.amount);
+                ledgerSnapshots.recordEvents(account, change.events, change.lastTransactionId);
+                if (readModel != null) {
+                    readModel.recordVersion(account);
+                }
+            }
+        });
+        applied.add(batch.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = applier;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+        log.info("Journal closed. backlog={}", backlog.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Recover before the web server starts taking requests, and stop only after it has drained them.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * An account's balance including every accepted transaction, held on its ledger lane.
+     */
+    @Getter
+    public static final class Account {
+
+        private final long id;
+        private final long ownerId;
+        private double balance;
+
+        private Account(long id, long ownerId, double balance) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.balance = balance;
+        }
+    }
+
+    private static final class AccountChange {
+
+        private double amount;
+        private int events;
+        private long lastTransactionId;
+
+        private void add(JournalRecord record) {
+            amount += record.signedAmount();
+            events++;
+            lastTransactionId = record.transactionId();
+        }
+    }
+}
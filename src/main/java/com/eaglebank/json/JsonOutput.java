@@ -0,0 +1,225 @@
+package com.eaglebank.json;
+
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable UTF-8 buffer with just the JSON primitives the response writers need. Structure and field names
+ * are written as pre-encoded {@link #token tokens}, so a writer only formats values, and numbers are formatted
+ * straight into the buffer without intermediate strings.
+ * <p>
+ * Output matches the application's Jackson configuration byte for byte: nulls are written, doubles follow
+ * {@link Double#toString(double)}, and strings use Jackson's escapes.
+ */
+public final class JsonOutput {
+
+    private static final byte[] NULL = token("null");
+    private static final byte[] HEX = token("0123456789ABCDEF");
+    private static final long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+    // Double.toString switches to scientific notation from here up.
+    private static final double PLAIN_LIMIT = 1e7;
+
+    // For each ASCII char: 0 = written as is, -1 = \\u00XX, otherwise the char after the backslash.
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = -1;
+        }
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+    }
+
+    private byte[] buffer;
+    private int size;
+
+    public JsonOutput(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Encodes a fixed piece of JSON, such as {@code ,"balance":}, once for use with {@link #raw(byte[])}.
+     */
+    public static byte[] token(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public JsonOutput raw(byte[] token) {
+        ensure(token.length);
+        System.arraycopy(token, 0, buffer, size, token.length);
+        size += token.length;
+        return this;
+    }
+
+    public JsonOutput raw(char ascii) {
+        ensure(1);
+        buffer[size++] = (byte) ascii;
+        return this;
+    }
+
+    public JsonOutput nullValue() {
+        return raw(NULL);
+    }
+
+    public JsonOutput string(@Nullable Enum<?> value) {
+        return value == null ? nullValue() : string(value.name());
+    }
+
+    public JsonOutput string(@Nullable String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        int length = value.length();
+        // Worst case is 6 bytes per char (\\u00XX), plus the quotes.
+        ensure(length * 6 + 2);
+        byte[] out = buffer;
+        int pos = size;
+        out[pos++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                if (escape == 0) {
+                    out[pos++] = (byte) c;
+                } else if (escape > 0) {
+                    out[pos++] = '\\';
+                    out[pos++] = escape;
+                } else {
+                    out[pos++] = '\\';
+                    out[pos++] = 'u';
+                    out[pos++] = '0';
+                    out[pos++] = '0';
+                    out[pos++] = HEX[c >> 4];
+                    out[pos++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                int codePoint = Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))
+                        ? Character.toCodePoint(c, value.charAt(++i)) : -1;
+                if (codePoint < 0) {
+                    // An unpaired surrogate is not valid UTF-16; encode it the way String.getBytes does.
+                    out[pos++] = '?';
+                } else {
+                    out[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                    out[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    out[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    out[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+                }
+            } else {
+                out[pos++] = (byte) (0xE0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        out[pos++] = '"';
+        size = pos;
+        return this;
+    }
+
+    public JsonOutput number(@Nullable Long value) {
+        return value == null ? nullValue() : number(value.longValue());
+    }
+
+    public JsonOutput number(long value) {
+        if (value == Long.MIN_VALUE) {
+            return ascii(Long.toString(value));
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int pos = size + digits;
+        size = pos;
+        do {
+            buffer[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return this;
+    }
+
+    public JsonOutput number(@Nullable Double value) {
+        return value == null ? nullValue() : number(value.doubleValue());
+    }
+
+    /**
+     * Writes {@code value} as {@link Double#toString(double)} would. Amounts and balances are whole cents, which
+     * are formatted here directly; anything else falls back to {@code Double.toString}.
+     */
+    public JsonOutput number(double value) {
+        if (Math.abs(value) < PLAIN_LIMIT && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO) {
+            long cents = Math.round(value * 100);
+            // The nearest double to cents / 100 is this value, so that decimal is also its shortest form.
+            if (cents / 100.0 == value) {
+                if (cents < 0) {
+                    raw('-');
+                    cents = -cents;
+                }
+                number(cents / 100);
+                int fraction = (int) (cents % 100);
+                raw('.');
+                raw((char) ('0' + fraction / 10));
+                if (fraction % 10 != 0) {
+                    raw((char) ('0' + fraction % 10));
+                }
+                return this;
+            }
+        }
+        if (!Double.isFinite(value)) {
+            // Jackson quotes non-numeric numbers by default.
+            return raw('"').ascii(Double.toString(value)).raw('"');
+        }
+        return ascii(Double.toString(value));
+    }
+
+    private JsonOutput ascii(String value) {
+        int length = value.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
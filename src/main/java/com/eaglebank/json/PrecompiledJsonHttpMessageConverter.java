@@ -0,0 +1,100 @@
+package com.eaglebank.json;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes the API's response records with the hand-written {@link ResponseWriters} instead of reflective Jackson
+ * databinding. Spring Boot puts converter beans ahead of its defaults, so these records are written here and
+ * everything else, request bodies included, still goes through Jackson.
+ * <p>
+ * Each response is formatted into a pooled buffer, then copied to the response stream in one write with its
+ * {@code Content-Length}. The pool is a fixed set of slots rather than a thread-local, because in the
+ * {@code virtual} profile every request runs on a new thread.
+ */
+@Component
+@ConditionalOnProperty(prefix = "eaglebank.json", name = "precompiled-writers", havingValue = "true",
+        matchIfMissing = true)
+public class PrecompiledJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final int INITIAL_CAPACITY = 512;
+    // Buffers grown past this (a large page) are dropped after use rather than pooled.
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    private static final int PROBES = 4;
+
+    private final AtomicReferenceArray<JsonOutput> pool;
+    private final int slotMask;
+
+    public PrecompiledJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+        int slots = Integer.highestOneBit(Math.max(8, Runtime.getRuntime().availableProcessors() * 4) - 1) << 1;
+        this.pool = new AtomicReferenceArray<>(slots);
+        this.slotMask = slots - 1;
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return ResponseWriters.WRITERS.containsKey(clazz);
+    }
+
+    @Override
+    public boolean canRead(@NonNull Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Response records are not read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object value, @NonNull HttpOutputMessage outputMessage) throws IOException {
+        BiConsumer<Object, JsonOutput> writer = ResponseWriters.WRITERS.get(value.getClass());
+        JsonOutput out = acquire();
+        try {
+            writer.accept(value, out);
+            outputMessage.getHeaders().setContentLength(out.size());
+            out.writeTo(outputMessage.getBody());
+        } finally {
+            release(out);
+        }
+    }
+
+    private JsonOutput acquire() {
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & slotMask;
+            JsonOutput out = pool.get(slot);
+            if (out != null && pool.compareAndSet(slot, out, null)) {
+                return out;
+            }
+        }
+        return new JsonOutput(INITIAL_CAPACITY);
+    }
+
+    private void release(JsonOutput out) {
+        if (out.capacity() > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        out.reset();
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & slotMask;
+            if (pool.get(slot) == null && pool.compareAndSet(slot, null, out)) {
+                return;
+            }
+        }
+    }
+}
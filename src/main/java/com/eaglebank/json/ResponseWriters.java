@@ -0,0 +1,143 @@
+package com.eaglebank.json;
+
+import com.eaglebank.dto.BankAccountResponse;
+import com.eaglebank.dto.BatchTransactionResponse;
+import com.eaglebank.dto.BatchTransactionResult;
+import com.eaglebank.dto.TransactionPageResponse;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.dto.UserLoginResponse;
+import com.eaglebank.dto.UserResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static com.eaglebank.json.JsonOutput.token;
+
+/**
+ * Hand-written JSON writers for the response records, in record component order as Jackson writes them.
+ * A field added to one of these records must be added here too; {@code PrecompiledJsonHttpMessageConverterTest}
+ * compares every writer against Jackson and fails until it is.
+ */
+final class ResponseWriters {
+
+    private static final byte[] ACCOUNT_ID = token("{\"id\":");
+    private static final byte[] ACCOUNT_TYPE = token(",\"accountType\":");
+    private static final byte[] ACCOUNT_BALANCE = token(",\"balance\":");
+
+    private static final byte[] TRANSACTION_ID = token("{\"transactionId\":");
+    private static final byte[] TRANSACTION_TYPE = token(",\"type\":");
+    private static final byte[] TRANSACTION_AMOUNT = token(",\"amount\":");
+    private static final byte[] TRANSACTION_UPDATED_BALANCE = token(",\"updatedBalance\":");
+
+    private static final byte[] PAGE_TRANSACTIONS = token("{\"transactions\":");
+    private static final byte[] PAGE_NEXT_CURSOR = token(",\"nextCursor\":");
+
+    private static final byte[] BATCH_ACCOUNT_ID = token("{\"accountId\":");
+    private static final byte[] BATCH_APPLIED = token(",\"applied\":");
+    private static final byte[] BATCH_REJECTED = token(",\"rejected\":");
+    private static final byte[] BATCH_BALANCE = token(",\"balance\":");
+    private static final byte[] BATCH_RESULTS = token(",\"results\":");
+
+    private static final byte[] RESULT_INDEX = token("{\"index\":");
+    private static final byte[] RESULT_STATUS = token(",\"status\":");
+    private static final byte[] RESULT_TRANSACTION_ID = token(",\"transactionId\":");
+    private static final byte[] RESULT_TYPE = token(",\"type\":");
+    private static final byte[] RESULT_AMOUNT = token(",\"amount\":");
+    private static final byte[] RESULT_UPDATED_BALANCE = token(",\"updatedBalance\":");
+    private static final byte[] RESULT_ERROR = token(",\"error\":");
+
+    private static final byte[] USER_ID = token("{\"id\":");
+    private static final byte[] USER_FULL_NAME = token(",\"fullName\":");
+    private static final byte[] USER_EMAIL = token(",\"email\":");
+
+    private static final byte[] LOGIN_TOKEN = token("{\"token\":");
+
+    static final Map<Class<?>, BiConsumer<Object, JsonOutput>> WRITERS = Map.of(
+            BankAccountResponse.class, (value, out) -> account((BankAccountResponse) value, out),
+            TransactionResponse.class, (value, out) -> transaction((TransactionResponse) value, out),
+            TransactionPageResponse.class, (value, out) -> page((TransactionPageResponse) value, out),
+            BatchTransactionResponse.class, (value, out) -> batch((BatchTransactionResponse) value, out),
+            UserResponse.class, (value, out) -> user((UserResponse) value, out),
+            UserLoginResponse.class, (value, out) -> login((UserLoginResponse) value, out));
+
+    private ResponseWriters() {
+    }
+
+    static void account(BankAccountResponse account, JsonOutput out) {
+        out.raw(ACCOUNT_ID).number(account.id())
+                .raw(ACCOUNT_TYPE).string(account.accountType())
+                .raw(ACCOUNT_BALANCE).number(account.balance())
+                .raw('}');
+    }
+
+    static void transaction(TransactionResponse transaction, JsonOutput out) {
+        out.raw(TRANSACTION_ID).number(transaction.transactionId())
+                .raw(TRANSACTION_TYPE).string(transaction.type())
+                .raw(TRANSACTION_AMOUNT).number(transaction.amount())
+                .raw(TRANSACTION_UPDATED_BALANCE).number(transaction.updatedBalance())
+                .raw('}');
+    }
+
+    static void page(TransactionPageResponse page, JsonOutput out) {
+        out.raw(PAGE_TRANSACTIONS);
+        List<TransactionResponse> transactions = page.transactions();
+        if (transactions == null) {
+            out.nullValue();
+        } else {
+            out.raw('[');
+            for (int i = 0; i < transactions.size(); i++) {
+                if (i > 0) {
+                    out.raw(',');
+                }
+                transaction(transactions.get(i), out);
+            }
+            out.raw(']');
+        }
+        out.raw(PAGE_NEXT_CURSOR).string(page.nextCursor()).raw('}');
+    }
+
+    static void batch(BatchTransactionResponse batch, JsonOutput out) {
+        out.raw(BATCH_ACCOUNT_ID).number(batch.accountId())
+                .raw(BATCH_APPLIED).number(batch.applied())
+                .raw(BATCH_REJECTED).number(batch.rejected())
+                .raw(BATCH_BALANCE).number(batch.balance())
+                .raw(BATCH_RESULTS);
+        List<BatchTransactionResult> results = batch.results();
+        if (results == null) {
+            out.nullValue();
+        } else {
+            out.raw('[');
+            for (int i = 0; i < results.size(); i++) {
+                if (i > 0) {
+                    out.raw(',');
+                }
+                result(results.get(i), out);
+            }
+            out.raw(']');
+        }
+        out.raw('}');
+    }
+
+    private static void result(BatchTransactionResult result, JsonOutput out) {
+        out.raw(RESULT_INDEX).number(result.index())
+                .raw(RESULT_STATUS).string(result.status())
+                .raw(RESULT_TRANSACTION_ID).number(result.transactionId())
+                .raw(RESULT_TYPE).string(result.type())
+                .raw(RESULT_AMOUNT).number(result.amount())
+                .raw(RESULT_UPDATED_BALANCE).number(result.updatedBalance())
+                .raw(RESULT_ERROR).string(result.error())
+                .raw('}');
+    }
+
+    static void user(UserResponse user, JsonOutput out) {
+        out.raw(USER_ID).number(user.id())
+                .raw(USER_FULL_NAME).string(user.fullName())
+                .raw(USER_EMAIL).string(user.email())
+                .raw('}');
+    }
+
+    static void login(UserLoginResponse login, JsonOutput out) {
+        out.raw(LOGIN_TOKEN).string(login.token()).raw('}');
+    }
+}
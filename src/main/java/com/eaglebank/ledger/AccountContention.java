@@ -0,0 +1,106 @@
+package com.eaglebank.ledger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Recent version conflicts per account. Each account's rate decays exponentially with a one-minute time
+ * constant, so it reads as roughly the conflicts seen over the last minute. At most {@code capacity} accounts
+ * are tracked; a newly contended account displaces the coldest.
+ * <p>
+ * Tagging meters by account would mint a time series for every account ever contended, so the per-account
+ * rates are served by the {@code contention} actuator endpoint and only the hottest reaches the registry.
+ */
+public class AccountContention {
+
+    static final double TIME_CONSTANT_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int capacity;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Rate> rates = new ConcurrentHashMap<>();
+
+    AccountContention(int capacity, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.nanoClock = nanoClock;
+    }
+
+    void recordConflict(long accountId) {
+        long now = nanoClock.getAsLong();
+        Rate rate = rates.get(accountId);
+        if (rate == null) {
+            // Conflicts are rare enough that scanning for the coldest entry costs nothing worth caching.
+            if (rates.size() >= capacity) {
+                evictColdest(now);
+            }
+            rate = rates.computeIfAbsent(accountId, id -> new Rate());
+        }
+        rate.record(now);
+    }
+
+    private void evictColdest(long now) {
+        rates.entrySet().stream()
+                .min(Comparator.comparingDouble(entry -> entry.getValue().perMinute(now)))
+                .ifPresent(entry -> rates.remove(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * The {@code limit} accounts with the highest current conflict rates, hottest first.
+     */
+    public List<HotAccount> hottest(int limit) {
+        long now = nanoClock.getAsLong();
+        List<HotAccount> accounts = new ArrayList<>(rates.size());
+        rates.forEach((accountId, rate) -> accounts.add(rate.snapshot(accountId, now)));
+        accounts.sort(Comparator.comparingDouble(HotAccount::conflictsPerMinute).reversed());
+        return List.copyOf(accounts.subList(0, Math.min(Math.max(limit, 0), accounts.size())));
+    }
+
+    public double hottestPerMinute() {
+        long now = nanoClock.getAsLong();
+        double hottest = 0;
+        for (Rate rate : rates.values()) {
+            hottest = Math.max(hottest, rate.perMinute(now));
+        }
+        return hottest;
+    }
+
+    public int trackedAccounts() {
+        return rates.size();
+    }
+
+    /**
+     * @param conflictsPerMinute decayed conflict rate as of now
+     * @param conflicts          conflicts seen since tracking of the account began
+     */
+    public record HotAccount(long accountId, double conflictsPerMinute, long conflicts) {
+    }
+
+    private static final class Rate {
+
+        private double value;
+        private long updatedAt;
+        private long total;
+
+        synchronized void record(long now) {
+            value = decayed(now) + 1;
+            updatedAt = now;
+            total++;
+        }
+
+        synchronized double perMinute(long now) {
+            return decayed(now);
+        }
+
+        synchronized HotAccount snapshot(long accountId, long now) {
+            return new HotAccount(accountId, decayed(now), total);
+        }
+
+        private double decayed(long now) {
+            return total == 0 ? 0 : value * Math.exp(-(now - updatedAt) / TIME_CONSTANT_NANOS);
+        }
+    }
+}
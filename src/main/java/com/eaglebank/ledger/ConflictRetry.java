@@ -0,0 +1,112 @@
+package com.eaglebank.ledger;
+
+import com.eaglebank.config.ConflictRetryProperties;
+import com.eaglebank.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Reruns a ledger write that lost an optimistic-locking race on its account's version.
+ * <p>
+ * Within one instance the account's lane already serializes its writes, so a conflict means another writer
+ * committed to the row first: another instance, or a maintenance job writing outside the lanes. The losing
+ * transaction has rolled back whole, transaction row included, and the rerun reads the account afresh. Each
+ * retry waits a random delay between zero and an exponentially growing ceiling, so writers that collided once
+ * do not collide again in lockstep. A request gets {@link ConflictRetryProperties#maxAttempts()} attempts and
+ * {@link ConflictRetryProperties#budget()} of backoff, whichever runs out first, and then a
+ * {@link ConcurrentUpdateException}.
+ * <p>
+ * Waits happen on the calling request's thread, never on a lane.
+ */
+@Slf4j
+@Component
+public class ConflictRetry {
+
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+    private final long budgetNanos;
+    private final AccountContention contention;
+    private final Counter conflicts;
+    private final Counter exhausted;
+    private final Timer backoff;
+
+    public ConflictRetry(ConflictRetryProperties properties, MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, properties.maxAttempts());
+        this.backoffNanos = properties.backoff().toNanos();
+        this.maxBackoffNanos = properties.maxBackoff().toNanos();
+        this.budgetNanos = properties.budget().toNanos();
+        this.contention = new AccountContention(properties.trackedAccounts(), System::nanoTime);
+
+        this.conflicts = Counter.builder("eaglebank.ledger.conflicts")
+                .description("Ledger writes rolled back because another writer updated the account first")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("eaglebank.ledger.conflicts.exhausted")
+                .description("Requests refused after using up their conflict retry budget")
+                .register(meterRegistry);
+        this.backoff = Timer.builder("eaglebank.ledger.conflicts.backoff")
+                .description("Delays slept before retrying a conflicted ledger write")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.ledger.contention.hottest", contention, AccountContention::hottestPerMinute)
+                .description("Decayed conflicts per minute on the most contended account")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.ledger.contention.accounts", contention, AccountContention::trackedAccounts)
+                .description("Accounts with a tracked conflict rate")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code write}, rerunning it while it fails on a version conflict and the request's budget lasts.
+     * Any other exception is rethrown unchanged.
+     */
+    public <T> T execute(Long accountId, Supplier<T> write) {
+        long deadline = System.nanoTime() + budgetNanos;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                contention.recordConflict(accountId);
+
+                long delay = jitteredBackoff(attempt);
+                if (attempt >= maxAttempts || System.nanoTime() + delay > deadline) {
+                    exhausted.increment();
+                    log.debug("Giving up on account {} after {} conflicting attempts", accountId, attempt);
+                    throw new ConcurrentUpdateException("Account is being updated concurrently, please retry");
+                }
+                backoff.record(delay, TimeUnit.NANOSECONDS);
+                sleep(delay);
+            }
+        }
+    }
+
+    public AccountContention contention() {
+        return contention;
+    }
+
+    // "Full jitter": uniform between zero and a ceiling that doubles per attempt, capped at maxBackoff.
+    long jitteredBackoff(int attempt) {
+        long ceiling = backoffNanos << Math.min(attempt - 1, 20);
+        ceiling = ceiling <= 0 ? maxBackoffNanos : Math.min(ceiling, maxBackoffNanos);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a concurrent update");
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.eaglebank.ledger;
+
+import com.eaglebank.config.LedgerProperties;
+import com.eaglebank.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Applies balance mutations through a fixed set of single-writer lanes.
+ * <p>
+ * Every account is hashed onto exactly one lane, and each lane is drained by one dedicated
+ * thread, so mutations for an account are applied strictly in submission order without
+ * database row locks. Different accounts land on different lanes and run in parallel.
+ * <p>
+ * Under load a lane group-commits. It takes up to {@link LedgerProperties#batchSize()} queued commands,
+ * waiting up to {@link LedgerProperties#batchWindow()} for more to arrive. It runs them one after another
+ * in a single database transaction and commits once. Only then does it complete each caller's result,
+ * failures included, so callers still see a synchronous call that returns after its commit.
+ */
+@Slf4j
+@Component
+public class LedgerEngine {
+
+    private final Lane[] lanes;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final long batchWindowNanos;
+    private final Timer applyTimer;
+    private final Timer commitTimer;
+    private final DistributionSummary batchSizes;
+
+    public LedgerEngine(LedgerProperties properties,
+                        TransactionOperations transactionOperations,
+                        MeterRegistry meterRegistry) {
+        this.transactionOperations = transactionOperations;
+        this.batchSize = Math.max(1, properties.batchSize());
+        this.batchWindowNanos = properties.batchWindow().toNanos();
+        this.applyTimer = Timer.builder("eaglebank.ledger.apply")
+                .description("Time a ledger command runs on its lane, excluding the commit it shares with its batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("eaglebank.ledger.commit")
+                .description("Time a lane spends running and committing one batch of commands")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("eaglebank.ledger.batch.size")
+                .description("Commands committed together in one database transaction")
+                .register(meterRegistry);
+        this.lanes = new Lane[properties.effectiveLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, properties.mailboxCapacity());
+        }
+        Gauge.builder("eaglebank.ledger.mailbox.depth", this, LedgerEngine::queuedCommands)
+                .description("Commands waiting in all lane mailboxes")
+                .register(meterRegistry);
+        log.info("Ledger engine started with {} lanes, batches of up to {} commands", lanes.length, batchSize);
+    }
+
+    /**
+     * Runs {@code command} in a database transaction on the lane owning {@code accountId} and
+     * waits for its result. Runtime exceptions thrown by the command are rethrown unchanged.
+     */
+    public <T> T execute(Long accountId, Supplier<T> command) {
+        return await(submit(accountId, command));
+    }
+
+    /**
+     * Runs {@code command} in a database transaction on the lane {@code stripe} places after the one owning
+     * {@code accountId}, and waits for its result. Stripe 0 is the account's own lane. Commands for different
+     * stripes of one account run in parallel, so they must only write state their stripe owns.
+     */
+    public <T> T execute(Long accountId, int stripe, Supplier<T> command) {
+        if (stripe == 0) {
+            return execute(accountId, command);
+        }
+        return await(dispatch(lanes[Math.floorMod(laneIndex(accountId) + stripe, lanes.length)], command, true));
+    }
+
+    /**
+     * Runs {@code command} on the lane owning {@code accountId} without opening a database transaction, and
+     * waits for its result. For commands that only touch state owned by the lane itself, such as the
+     * journal's in-memory balances.
+     */
+    public <T> T executeOnLane(Long accountId, Supplier<T> command) {
+        return await(dispatch(accountId, command, false));
+    }
+
+    /**
+     * Queues {@code command} to run in a database transaction on the lane owning {@code accountId}.
+     * <p>
+     * The transaction may be shared with other queued commands. A command that throws must not have changed
+     * any entity first: the batch still commits its neighbours' work. Business rejections here are all raised
+     * before the first write. If the commit itself fails, each command of the batch is run again alone, so
+     * a command's side effects outside the database belong in after-commit callbacks, which the failed commit
+     * discards, or with its caller once the result is final.
+     */
+    public <T> CompletableFuture<T> submit(Long accountId, Supplier<T> command) {
+        return dispatch(accountId, command, true);
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        // join() would wrap a failure in a new CompletionException and capture a stack trace on every
+        // rejected command; handle() completes normally either way, so waiting on it wraps nothing.
+        result.handle((value, failure) -> null).join();
+        if (result.state() == Future.State.FAILED) {
+            Throwable failure = result.exceptionNow();
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            throw new CompletionException(failure);
+        }
+        return result.resultNow();
+    }
+
+    private <T> CompletableFuture<T> dispatch(Long accountId, Supplier<T> body, boolean transactional) {
+        return dispatch(laneFor(accountId), body, transactional);
+    }
+
+    private <T> CompletableFuture<T> dispatch(Lane lane, Supplier<T> body, boolean transactional) {
+        Command<T> command = new Command<>(body, transactional);
+
+        if (Thread.currentThread() == lane.thread) {
+            // Re-entrant call from the lane itself: queuing would deadlock, and ordering already holds.
+            command.alone.run();
+        } else {
+            lane.enqueue(command);
+        }
+        return command.result;
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int queuedCommands() {
+        int queued = 0;
+        for (Lane lane : lanes) {
+            queued += lane.mailbox.size();
+        }
+        return queued;
+    }
+
+    int laneIndex(Long accountId) {
+        return Math.floorMod(Long.hashCode(accountId), lanes.length);
+    }
+
+    private Lane laneFor(Long accountId) {
+        return lanes[laneIndex(accountId)];
+    }
+
+    /**
+     * Stops the lanes. Commands still queued, or submitted from now on, fail with a
+     * {@link RejectedExecutionException} instead of leaving their callers waiting.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.closed = true;
+            lane.thread.interrupt();
+        }
+        for (Lane lane : lanes) {
+            lane.rejectQueued();
+        }
+    }
+
+    /**
+     * Runs consecutive transactional commands in one database transaction and completes them after the commit.
+     */
+    private void commitTogether(List<Command<?>> group) {
+        if (group.size() == 1) {
+            group.get(0).alone.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            transactionOperations.executeWithoutResult(status -> group.forEach(command -> command.inBatch.run()));
+        } catch (RuntimeException | Error e) {
+            log.warn("Ledger batch commit failed; retrying its {} commands one by one", group.size(), e);
+            group.forEach(command -> command.alone.run());
+            return;
+        } finally {
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(group.size());
+        group.forEach(Command::complete);
+    }
+
+    private final class Command<T> {
+
+        private final Supplier<T> body;
+        private final boolean transactional;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // Both carry the submitting request's statement count onto the lane.
+        private final Runnable alone;
+        private final Runnable inBatch;
+        private T value;
+        private Throwable failure;
+
+        private Command(Supplier<T> body, boolean transactional) {
+            this.body = body;
+            this.transactional = transactional;
+            this.alone = StatementCounter.propagate(this::runAlone);
+            this.inBatch = StatementCounter.propagate(this::apply);
+        }
+
+        private void apply() {
+            long start = System.nanoTime();
+            try {
+                value = body.get();
+                failure = null;
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                applyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // In its own transaction, which a failure rolls back, exactly as before batching.
+        private void runAlone() {
+            if (!transactional) {
+                apply();
+                complete();
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                transactionOperations.executeWithoutResult(status -> {
+                    apply();
+                    if (failure != null) {
+                        status.setRollbackOnly();
+                    }
+                });
+            } catch (RuntimeException | Error e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            } finally {
+                commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            batchSizes.record(1);
+            complete();
+        }
+
+        private void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<Command<?>> mailbox;
+        private final Thread thread;
+        private volatile boolean closed;
+
+        private Lane(int index, int capacity) {
+            this.mailbox = new LinkedBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "ledger-lane-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void enqueue(Command<?> command) {
+            if (closed || !thread.isAlive()) {
+                reject(command);
+                return;
+            }
+            try {
+                mailbox.put(command);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while submitting to ledger lane", e);
+            }
+            if (closed) {
+                // Shut down while this was being queued: the lane may already have drained its mailbox.
+                rejectQueued();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Command<?>> batch = new ArrayList<>(batchSize);
+            // A command may swallow the shutdown interrupt, so the closed flag is checked as well.
+            while (!closed && !Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(mailbox.take());
+                    fill(batch);
+                    if (closed) {
+                        batch.forEach(this::reject);
+                    } else {
+                        runInOrder(batch);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // Taken but interrupted before they ran.
+                    batch.forEach(this::reject);
+                } finally {
+                    batch.clear();
+                }
+            }
+            rejectQueued();
+        }
+
+        private void rejectQueued() {
+            List<Command<?>> queued = new ArrayList<>();
+            mailbox.drainTo(queued);
+            queued.forEach(this::reject);
+        }
+
+        private void reject(Command<?> command) {
+            command.result.completeExceptionally(
+                    new RejectedExecutionException("Ledger lane " + thread.getName() + " is shut down"));
+        }
+
+        private void fill(List<Command<?>> batch) throws InterruptedException {
+            mailbox.drainTo(batch, batchSize - batch.size());
+            long deadline = System.nanoTime() + batchWindowNanos;
+            long remaining;
+            while (batch.size() < batchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                Command<?> next = mailbox.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+                mailbox.drainTo(batch, batchSize - batch.size());
+            }
+        }
+
+        // Commands that must not join a database transaction split the batch, keeping submission order.
+        private void runInOrder(List<Command<?>> batch) {
+            int start = 0;
+            for (int i = 0; i <= batch.size(); i++) {
+                if (i == batch.size() || !batch.get(i).transactional) {
+                    if (i > start) {
+                        commitTogether(batch.subList(start, i));
+                    }
+                    if (i < batch.size()) {
+                        batch.get(i).alone.run();
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+    }
+}
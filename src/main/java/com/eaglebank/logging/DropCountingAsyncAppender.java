@@ -0,0 +1,33 @@
+package com.eaglebank.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback's ring-buffer {@link AsyncAppender} that also counts the events it drops because the buffer
+ * was full. Configure it with {@code neverBlock=true} so a slow sink costs lost lines rather than
+ * request latency; the count is exported as {@code eaglebank.logging.dropped}.
+ * <p>
+ * Logback instantiates appenders itself (see {@code logback-prod.xml}), so the count is static.
+ * It is read from the remaining capacity just before the offer, so it can be off by the events that
+ * race the worker freeing a slot.
+ */
+public class DropCountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            DROPPED.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+}
@@ -0,0 +1,59 @@
+package com.eaglebank.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps roughly one in {@code keepOneIn} enabled events at or below {@code level} from loggers under
+ * {@code logger}; anything more severe always passes. Turbo filters run before logback builds the event,
+ * so a sampled-out line costs no formatting, allocation or queue slot.
+ * <p>
+ * Declare one filter per logger prefix. Sampled-out events are exported as
+ * {@code eaglebank.logging.sampled.out}.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final LongAdder SAMPLED_OUT = new LongAdder();
+
+    private String logger = "";
+    private int keepOneIn = 1;
+    private Level level = Level.INFO;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger target, Level eventLevel, String format, Object[] params, Throwable t) {
+        // Levels the logger has disabled are left to its own check so they do not count against the sample.
+        if (keepOneIn <= 1
+                || !level.isGreaterOrEqual(eventLevel)
+                || !eventLevel.isGreaterOrEqual(target.getEffectiveLevel())
+                || !target.getName().startsWith(logger)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (ThreadLocalRandom.current().nextInt(keepOneIn) == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        SAMPLED_OUT.increment();
+        return FilterReply.DENY;
+    }
+
+    public static long sampledOut() {
+        return SAMPLED_OUT.sum();
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public void setKeepOneIn(int keepOneIn) {
+        this.keepOneIn = keepOneIn;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+}
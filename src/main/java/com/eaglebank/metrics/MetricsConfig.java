@@ -0,0 +1,107 @@
+package com.eaglebank.metrics;
+
+import com.eaglebank.config.AdmissionControlledDataSource;
+import com.eaglebank.logging.DropCountingAsyncAppender;
+import com.eaglebank.logging.SamplingTurboFilter;
+import com.eaglebank.security.JwtService;
+import com.eaglebank.security.PrincipalCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Exposes the counters that components already keep as meters. Names are part of the dashboard and
+ * alerting contract: add new meters freely, but do not rename or retag existing ones.
+ * <p>
+ * Meters recorded inline live next to the code they measure:
+ * <ul>
+ *     <li>{@code eaglebank.transactions.applied{type}} and {@code eaglebank.transactions.rejected{reason}}</li>
+ *     <li>{@code eaglebank.ledger.apply} and {@code eaglebank.ledger.mailbox.depth}</li>
+ *     <li>{@code eaglebank.ledger.conflicts}, {@code eaglebank.ledger.conflicts.exhausted},
+ *     {@code eaglebank.ledger.conflicts.backoff}, {@code eaglebank.ledger.contention.hottest} and
+ *     {@code eaglebank.ledger.contention.accounts}</li>
+ *     <li>{@code eaglebank.ledger.striped.accounts}</li>
+ *     <li>{@code eaglebank.auth.password{operation}}, {@code eaglebank.auth.password.rejected},
+ *     {@code eaglebank.auth.password.queue.depth} and {@code eaglebank.auth.password.active}</li>
+ *     <li>{@code eaglebank.auth.jwt.verify{outcome}}</li>
+ *     <li>{@code eaglebank.ratelimit.rejected{group}} and {@code eaglebank.ratelimit.buckets}</li>
+ *     <li>{@code eaglebank.persistence.statements.per.request{method,uri}}</li>
+ *     <li>{@code eaglebank.readmodel.reads{result}}, {@code eaglebank.readmodel.accounts},
+ *     {@code eaglebank.readmodel.memory.estimated} and {@code eaglebank.readmodel.projection.backlog}</li>
+ *     <li>{@code eaglebank.idempotency.lookups{result}}, {@code eaglebank.idempotency.compacted},
+ *     {@code eaglebank.idempotency.cached} and {@code eaglebank.idempotency.filter.memory}</li>
+ * </ul>
+ * Request timers ({@code http.server.requests}) and the Hikari pool ({@code hikaricp.connections.*},
+ * including acquire wait time) come from Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder principalCacheMetrics(PrincipalCache principalCache) {
+        return registry -> {
+            FunctionCounter.builder("eaglebank.auth.principal.lookups", principalCache, c -> c.stats().requestHits())
+                    .description("Authenticated-user lookups by where they were answered")
+                    .tag("result", "request_hit")
+                    .register(registry);
+            FunctionCounter.builder("eaglebank.auth.principal.lookups", principalCache, c -> c.stats().cacheHits())
+                    .description("Authenticated-user lookups by where they were answered")
+                    .tag("result", "cache_hit")
+                    .register(registry);
+            FunctionCounter.builder("eaglebank.auth.principal.lookups", principalCache, c -> c.stats().misses())
+                    .description("Authenticated-user lookups by where they were answered")
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("eaglebank.auth.principal.cache.size", principalCache, c -> c.stats().size())
+                    .description("Principals held in the cross-request cache")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder jwtCacheMetrics(JwtService jwtService) {
+        return registry -> Gauge.builder("eaglebank.auth.jwt.cache.size", jwtService, JwtService::cachedTokenCount)
+                .description("Verified tokens held in the verification cache")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder statementMetrics() {
+        return registry -> FunctionCounter.builder("eaglebank.persistence.statements", StatementCounter.class,
+                        c -> StatementCounter.total())
+                .description("SQL statements prepared by Hibernate")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder dataSourceAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof AdmissionControlledDataSource admission) {
+                Gauge.builder("eaglebank.datasource.admission.waiting", admission, AdmissionControlledDataSource::queueLength)
+                        .description("Callers parked waiting for a connection permit")
+                        .register(registry);
+                Gauge.builder("eaglebank.datasource.admission.available", admission, AdmissionControlledDataSource::availablePermits)
+                        .description("Connection permits currently free")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            FunctionCounter.builder("eaglebank.logging.dropped", DropCountingAsyncAppender.class,
+                            c -> DropCountingAsyncAppender.dropped())
+                    .description("Log events dropped because the async logging buffer was full")
+                    .register(registry);
+            FunctionCounter.builder("eaglebank.logging.sampled.out", SamplingTurboFilter.class,
+                            c -> SamplingTurboFilter.sampledOut())
+                    .description("Log events skipped by per-logger sampling")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.eaglebank.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts every SQL statement Hibernate prepares, in total and for the request in scope.
+ * <p>
+ * Hibernate instantiates this class itself (see {@code hibernate.session_factory.statement_inspector}),
+ * so the state is static. A {@link Scope} is opened per request by {@link StatementCountingFilter};
+ * work handed to another thread keeps counting against it when wrapped with {@link #propagate(Runnable)}.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final LongAdder TOTAL = new LongAdder();
+
+    @Override
+    public String inspect(String sql) {
+        TOTAL.increment();
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements.increment();
+        }
+        return sql;
+    }
+
+    public static long total() {
+        return TOTAL.sum();
+    }
+
+    /**
+     * Starts counting on the current thread until the returned scope is closed.
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Wraps {@code task} so statements it runs on another thread count against the caller's scope.
+     */
+    public static Runnable propagate(Runnable task) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            Scope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Scope previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope previous;
+        private final LongAdder statements = new LongAdder();
+
+        private Scope(Scope previous) {
+            this.previous = previous;
+        }
+
+        public long count() {
+            return statements.sum();
+        }
+
+        @Override
+        public void close() {
+            restore(previous);
+        }
+    }
+}
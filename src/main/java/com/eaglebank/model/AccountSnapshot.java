@@ -0,0 +1,45 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An account's balance as of a point in its transaction log: the balance after applying every transaction
+ * with an id up to and including {@code lastTransactionId}. {@code lastTransactionId = 0} marks the opening
+ * balance, before any transaction. Snapshots are append-only.
+ */
+@Getter
+@Entity
+@Table(name = "account_snapshots",
+        indexes = @Index(name = "idx_account_snapshots_account_id_last_tx", columnList = "account_id, last_transaction_id"))
+public class AccountSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_snapshots_seq")
+    @SequenceGenerator(name = "account_snapshots_seq", sequenceName = "account_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @Column(nullable = false)
+    private Double balance;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    protected AccountSnapshot() {
+    }
+
+    public AccountSnapshot(Long accountId, Long lastTransactionId, Double balance) {
+        this.accountId = accountId;
+        this.lastTransactionId = lastTransactionId;
+        this.balance = balance;
+        this.takenAt = LocalDateTime.now();
+    }
+}
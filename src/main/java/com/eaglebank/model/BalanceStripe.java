@@ -0,0 +1,45 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One extra deposit slot of a striped account. A striped account's balance is its own balance plus the
+ * balances of its stripes; slot 0 is the account row itself, so stripes are numbered from 1. Withdrawals
+ * sweep the stripes back into the account before checking funds. Rows are never deleted, so the sum of
+ * their versions only ever grows and can stand in the account's ETag.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "balance_stripes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_stripes_account_slot", columnNames = {"account_id", "slot"}))
+public class BalanceStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_stripes_seq")
+    @SequenceGenerator(name = "balance_stripes_seq", sequenceName = "balance_stripes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false)
+    private double balance;
+
+    // Deposits on the slot's lane and sweeps on the account's lane race for the row; the loser rolls back.
+    @Version
+    private long version;
+
+    protected BalanceStripe() {
+    }
+
+    public BalanceStripe(Long accountId, int slot) {
+        this.accountId = accountId;
+        this.slot = slot;
+    }
+}
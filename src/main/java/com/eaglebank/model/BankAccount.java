@@ -13,7 +13,8 @@ import lombok.Setter;
 public class BankAccount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bank_accounts_seq")
+    @SequenceGenerator(name = "bank_accounts_seq", sequenceName = "bank_accounts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -22,10 +23,23 @@ public class BankAccount {
     @NotNull
     private Double balance;
 
-    @ManyToOne
+    // Ownership checks only read the owner's id, which a lazy proxy answers without loading the user row.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Transactions applied since the last snapshot; the ledger takes a new one when this reaches the interval.
+    @Column(name = "events_since_snapshot", nullable = false)
+    private int eventsSinceSnapshot;
+
+    // Deposit slots, counting the account's own balance; below 2 the account is not striped. See BalanceStripe.
+    @Column(name = "balance_stripes", nullable = false)
+    private int balanceStripes;
+
+    // Bumped on every update, so it changes whenever the balance does; served as the account's ETag.
+    @Version
+    private long version;
+
     public BankAccount() {
     }
 
@@ -36,4 +50,7 @@ public class BankAccount {
         this.user = user;
     }
 
+    public boolean isStriped() {
+        return balanceStripes > 1;
+    }
 }
@@ -0,0 +1,67 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The first result of a transaction POST sent with an {@code Idempotency-Key}, replayed to retries with the
+ * same key. Keys are scoped to the user who sent them and written in the same database transaction as the
+ * transaction they name, so a key is never stored without its transaction, nor the other way round.
+ */
+@Getter
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_keys_seq")
+    @SequenceGenerator(name = "idempotency_keys_seq", sequenceName = "idempotency_keys_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    // The request the key was first used for, so reusing it for a different one can be refused.
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "updated_balance", nullable = false)
+    private Double updatedBalance;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    protected IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(Long userId, String idempotencyKey, Long accountId, TransactionType type, Double amount,
+                             Long transactionId, Double updatedBalance, LocalDateTime expiresAt) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.accountId = accountId;
+        this.type = type;
+        this.amount = amount;
+        this.transactionId = transactionId;
+        this.updatedBalance = updatedBalance;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -9,11 +9,20 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        indexes = @Index(name = "idx_transactions_account_id_id", columnList = "account_id, id"))
 public class Transaction {
 
+    public static final String ID_SEQUENCE = "transactions_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids let Hibernate batch inserts (IDENTITY forces one INSERT per row to read the key).
+    // The pooled optimizer reserves 50 ids per round trip, matching hibernate.jdbc.batch_size. Ids still
+    // increase in allocation order, and each account's writes are serialized on its ledger lane, so
+    // keyset pages on (account_id, id) stay stable.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private Double amount;
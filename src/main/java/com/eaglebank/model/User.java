@@ -12,7 +12,8 @@ import lombok.Setter;
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -26,6 +27,10 @@ public class User {
     @Column(unique = true)
     private String email;
 
+    // Bumped on every update; served as the user's ETag.
+    @Version
+    private long version;
+
     public User() {
     }
 
@@ -0,0 +1,315 @@
+package com.eaglebank.readmodel;
+
+import com.eaglebank.config.ReadModelProperties;
+import com.eaglebank.config.ReadModelProperties.Consistency;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.service.LedgerSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Every account's owner, type and balance, held in memory so that account reads and ownership checks do not
+ * touch the database. Loaded from the database at startup and kept current by the write paths, which hand in
+ * each account's new state once it has committed. On by default; {@code eaglebank.read-model.enabled=false}
+ * sends every read back to the database.
+ * <p>
+ * An account missing from the model is read from the database. Reads never populate the model: a row read
+ * outside the write path could overwrite a newer balance.
+ * <p>
+ * Each entry remembers the newest transaction it reflects. An update carrying an older transaction id is
+ * dropped, so updates may arrive out of order, as they do from concurrent journal acknowledgements.
+ * <p>
+ * In {@code EVENTUAL} mode the projector thread applies writes after they are acknowledged, but the writer still
+ * reads its own. The writing thread also keeps the account's newest unprojected state, and
+ * {@link #find(Long, Long)} shows it to the account's owner, the only caller who can write to it, until the
+ * projector catches up.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "eaglebank.read-model", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AccountReadModel implements SmartLifecycle {
+
+    /**
+     * Approximate heap per account with compressed oops: the map node (32), its boxed key (16), the view (56)
+     * and its share of the table (8). The account type string is interned and shared.
+     */
+    static final long BYTES_PER_ACCOUNT = 112;
+
+    private final BankAccountRepository accountRepository;
+    private final Consistency consistency;
+    private final Map<Long, AccountView> views = new ConcurrentHashMap<>();
+    // EVENTUAL only: written but not yet projected, by account; empty in READ_YOUR_WRITES.
+    private final Map<Long, AccountView> unprojected = new ConcurrentHashMap<>();
+    private final BlockingQueue<Runnable> projections;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Thread projector;
+    private volatile boolean running;
+
+    public AccountReadModel(ReadModelProperties properties,
+                            BankAccountRepository accountRepository,
+                            MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.consistency = properties.consistency();
+        this.projections = new LinkedBlockingQueue<>(properties.projectionBacklog());
+
+        Gauge.builder("eaglebank.readmodel.accounts", views, Map::size)
+                .description("Accounts held in the read model")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.readmodel.memory.estimated", this, AccountReadModel::estimatedBytes)
+                .description("Approximate heap held by the read model")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.readmodel.projection.backlog", projections, BlockingQueue::size)
+                .description("Committed writes not yet visible in the read model")
+                .register(meterRegistry);
+        this.hits = Counter.builder("eaglebank.readmodel.reads")
+                .description("Account reads by whether the read model could answer them")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("eaglebank.readmodel.reads")
+                .description("Account reads by whether the read model could answer them")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The account as every reader sees it. Enough for ownership checks, since an account never changes owner.
+     */
+    public Optional<AccountView> find(Long accountId) {
+        return found(views.get(accountId));
+    }
+
+    /**
+     * The account as {@code readerId} should see it: in {@code EVENTUAL} mode its owner also sees writes the
+     * projector has not applied yet.
+     */
+    public Optional<AccountView> find(Long accountId, Long readerId) {
+        AccountView view = views.get(accountId);
+        AccountView pending = unprojected.isEmpty() ? null : unprojected.get(accountId);
+        if (pending != null && readerId != null && pending.ownerId() == readerId) {
+            view = newest(pending, view);
+        }
+        return found(view);
+    }
+
+    private Optional<AccountView> found(AccountView view) {
+        if (view == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(view);
+    }
+
+    /**
+     * Records an account's full state, adding it if it is new. Applied once the surrounding database
+     * transaction commits, if there is one.
+     */
+    public void record(AccountView view) {
+        afterCommit(() -> publishWrite(view.id(), current -> current == null ? view : newer(current, view)));
+    }
+
+    /**
+     * Records a managed account's state as it stands once the surrounding transaction commits, including the
+     * version the commit gave it.
+     */
+    public void record(BankAccount account, long lastTransactionId) {
+        afterCommit(() -> {
+            // Taken on the committing thread: the entity is not safe to read from the projector.
+            AccountView view = AccountView.of(account, lastTransactionId);
+            publishWrite(view.id(), current -> current == null ? view : newer(current, view));
+        });
+    }
+
+    /**
+     * Records the balance {@code transactionId} left an account at. Accounts not in the model are skipped.
+     * Applied once the surrounding database transaction commits, if there is one.
+     */
+    public void recordBalance(long accountId, double balance, long transactionId) {
+        afterCommit(() -> publishWrite(accountId, current -> current == null || transactionId <= current.lastTransactionId()
+                ? current : current.withBalance(balance, transactionId)));
+    }
+
+    /**
+     * Records the version a background writer, such as the journal applier, gave an account whose balance the
+     * model already holds. Read once the surrounding transaction commits.
+     */
+    public void recordVersion(BankAccount account) {
+        afterCommit(() -> {
+            long accountId = account.getId();
+            long version = account.getVersion();
+            publish(() -> views.computeIfPresent(accountId, (id, current) ->
+                    version > current.version() ? current.withVersion(version) : current));
+        });
+    }
+
+    /**
+     * Drops an account whose balance the model can no longer follow, such as one that has just been striped;
+     * its reads go to the database until it is recorded again. Applied once the surrounding transaction
+     * commits, if there is one.
+     */
+    public void evict(long accountId) {
+        afterCommit(() -> {
+            unprojected.remove(accountId);
+            publish(() -> views.remove(accountId));
+        });
+    }
+
+    /**
+     * Applies a write's {@code change} to the account. In {@code EVENTUAL} mode it is also applied on the writing
+     * thread to the newest state the writer has seen, which stays visible to the owner until the projector has
+     * applied it to the shared entry.
+     */
+    private void publishWrite(long accountId, UnaryOperator<AccountView> change) {
+        if (consistency == Consistency.READ_YOUR_WRITES || projector == null) {
+            views.compute(accountId, (id, current) -> change.apply(current));
+            return;
+        }
+        AccountView base = newest(unprojected.get(accountId), views.get(accountId));
+        AccountView pending = change.apply(base);
+        boolean changed = pending != null && pending != base;
+        if (changed) {
+            unprojected.merge(accountId, pending, AccountReadModel::newer);
+        }
+        publish(() -> {
+            views.compute(accountId, (id, current) -> change.apply(current));
+            if (changed) {
+                // A no-op if a later write has replaced it; that write's own projection removes it.
+                unprojected.remove(accountId, pending);
+            }
+        });
+    }
+
+    private static AccountView newer(AccountView current, AccountView next) {
+        return next.lastTransactionId() > current.lastTransactionId()
+                || next.lastTransactionId() == current.lastTransactionId() && next.version() >= current.version()
+                ? next : current;
+    }
+
+    // Ties go to the shared entry, which may carry a newer version than the writer's copy.
+    private static AccountView newest(AccountView pending, AccountView shared) {
+        if (pending == null || shared == null) {
+            return pending != null ? pending : shared;
+        }
+        return pending.lastTransactionId() > shared.lastTransactionId() ? pending : shared;
+    }
+
+    // A rebuild corrected a drifted balance on the account's lane; carry the same correction over. Its commit
+    // bumped the entity version once, and so must this, or the ETag would still name the drifted balance.
+    @TransactionalEventListener
+    public void onBalanceRepaired(LedgerSnapshotService.BalanceRepaired event) {
+        publish(() -> views.computeIfPresent(event.accountId(), (id, current) -> current
+                .withBalance(current.balance() + event.correction(), current.lastTransactionId())
+                .withVersion(current.version() + 1)));
+    }
+
+    public int size() {
+        return views.size();
+    }
+
+    public long estimatedBytes() {
+        return (views.size() + unprojected.size()) * BYTES_PER_ACCOUNT;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void publish(Runnable update) {
+        if (consistency == Consistency.READ_YOUR_WRITES || projector == null) {
+            update.run();
+            return;
+        }
+        try {
+            // Blocking rather than applying inline keeps corrections ordered behind the updates they follow.
+            projections.put(update);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            update.run();
+        }
+    }
+
+    private void project() {
+        while (running || !projections.isEmpty()) {
+            try {
+                Runnable update = projections.poll(100, TimeUnit.MILLISECONDS);
+                if (update != null) {
+                    update.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        views.clear();
+        unprojected.clear();
+        for (AccountView view : accountRepository.findAllViews()) {
+            views.put(view.id(), view);
+        }
+        running = true;
+        if (consistency == Consistency.EVENTUAL) {
+            projector = new Thread(this::project, "read-model-projector");
+            projector.setDaemon(true);
+            projector.start();
+        }
+        log.info("Read model loaded. accounts={} estimatedBytes={} consistency={}",
+                views.size(), estimatedBytes(), consistency);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = projector;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            projector = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the journal has replayed into the database, and before the web server takes requests.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+}
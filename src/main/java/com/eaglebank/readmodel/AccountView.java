@@ -0,0 +1,31 @@
+package com.eaglebank.readmodel;
+
+import com.eaglebank.model.BankAccount;
+
+/**
+ * What account reads need to know about an account, without the entity or its owner.
+ *
+ * @param version           the account's entity version; with {@code lastTransactionId}, its ETag
+ * @param lastTransactionId the newest transaction reflected in {@code balance}; older updates are ignored
+ */
+public record AccountView(long id, long ownerId, String accountType, double balance, long version,
+                          long lastTransactionId) {
+
+    public AccountView {
+        // A handful of distinct account types shared by every entry rather than one string per account.
+        accountType = accountType.intern();
+    }
+
+    public static AccountView of(BankAccount account, long lastTransactionId) {
+        return new AccountView(account.getId(), account.getUser().getId(), account.getAccountType(),
+                account.getBalance(), account.getVersion(), lastTransactionId);
+    }
+
+    AccountView withBalance(double balance, long lastTransactionId) {
+        return new AccountView(id, ownerId, accountType, balance, version, lastTransactionId);
+    }
+
+    AccountView withVersion(long version) {
+        return new AccountView(id, ownerId, accountType, balance, version, lastTransactionId);
+    }
+}
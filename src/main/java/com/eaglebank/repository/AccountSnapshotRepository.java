@@ -0,0 +1,11 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.AccountSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface AccountSnapshotRepository extends JpaRepository<AccountSnapshot, Long> {
+
+    Optional<AccountSnapshot> findFirstByAccountIdOrderByLastTransactionIdDesc(Long accountId);
+}
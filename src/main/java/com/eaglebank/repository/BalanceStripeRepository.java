@@ -0,0 +1,26 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.BalanceStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceStripeRepository extends JpaRepository<BalanceStripe, Long> {
+
+    /**
+     * Loads an account's stripes and bumps every one's version at commit, touched or not, so that a deposit
+     * committing to any of them in the meantime fails one of the two transactions.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    List<BalanceStripe> findAllByAccountIdOrderBySlot(Long accountId);
+
+    Optional<BalanceStripe> findByAccountIdAndSlot(Long accountId, int slot);
+
+    @Query("select coalesce(sum(s.balance), 0) from BalanceStripe s where s.accountId = :accountId")
+    double sumBalanceByAccountId(@Param("accountId") Long accountId);
+}
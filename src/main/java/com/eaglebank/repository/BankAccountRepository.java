@@ -1,12 +1,61 @@
 package com.eaglebank.repository;
 
 import com.eaglebank.model.BankAccount;
+import com.eaglebank.readmodel.AccountView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
     boolean existsByUserId(Long userId);
 
     List<BankAccount> findAllByUserId(Long userId);
+
+    @Query("select a.user.id from BankAccount a where a.id = :accountId")
+    Optional<Long> findOwnerIdById(@Param("accountId") Long accountId);
+
+    // Answers a conditional GET without loading the account or its owner. A deposit on a stripe leaves the
+    // account row alone, so the stripes' versions count too.
+    @Query("select new com.eaglebank.repository.VersionStamp(a.user.id, a.version"
+            + " + coalesce((select sum(s.version) from BalanceStripe s where s.accountId = a.id), 0L))"
+            + " from BankAccount a where a.id = :accountId")
+    Optional<VersionStamp> findVersionStampById(@Param("accountId") Long accountId);
+
+    /**
+     * A striped account's balance: its own plus its stripes', read in one statement so that a concurrent sweep
+     * moving money from the stripes into the account is seen either wholly or not at all.
+     */
+    @Query("select a.balance + coalesce((select sum(s.balance) from BalanceStripe s where s.accountId = a.id), 0)"
+            + " from BankAccount a where a.id = :accountId")
+    Optional<Double> findFoldedBalanceById(@Param("accountId") Long accountId);
+
+    List<BankAccount> findAllByBalanceStripesGreaterThan(int stripes);
+
+    @Query("select a.id from BankAccount a order by a.id")
+    List<Long> findAllIds();
+
+    // Straight into views, without entities or the persistence context, for the read model's startup load.
+    // Striped accounts are left out: their balances are spread over rows the model does not follow.
+    @Query("select new com.eaglebank.readmodel.AccountView(a.id, a.user.id, a.accountType, a.balance, a.version, 0L)"
+            + " from BankAccount a where a.balanceStripes < 2")
+    List<AccountView> findAllViews();
+
+    /**
+     * Loads an account with a row lock held until the transaction ends, for writers that do not run on the
+     * account's ledger lane (the journal applier) and for rebuilds that must not interleave with them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BankAccount a where a.id = :accountId")
+    Optional<BankAccount> findForUpdateById(@Param("accountId") Long accountId);
+
+    // Locks in id order so that concurrent lockers cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BankAccount a where a.id in :accountIds order by a.id")
+    List<BankAccount> findAllForUpdateByIdIn(@Param("accountIds") Collection<Long> accountIds);
 }
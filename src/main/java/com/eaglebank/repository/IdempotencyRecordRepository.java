@@ -0,0 +1,34 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.IdempotencyRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Seeks one page of stored keys in id order, starting strictly above {@code afterId}.
+     */
+    @Query("""
+            select new com.eaglebank.repository.IdempotencyScope(r.id, r.userId, r.idempotencyKey)
+            from IdempotencyRecord r
+            where r.id > :afterId
+            order by r.id
+            """)
+    List<IdempotencyScope> findScopesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
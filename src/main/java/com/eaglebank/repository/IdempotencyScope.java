@@ -0,0 +1,7 @@
+package com.eaglebank.repository;
+
+/**
+ * Just enough of a stored key to put it back into the Bloom filter; {@code id} is the keyset position.
+ */
+public record IdempotencyScope(Long id, Long userId, String idempotencyKey) {
+}
@@ -0,0 +1,11 @@
+package com.eaglebank.repository;
+
+/**
+ * The transactions of one account after a snapshot, folded into a single balance change.
+ *
+ * @param delta             deposits minus withdrawals
+ * @param events            number of transactions folded
+ * @param lastTransactionId id of the newest transaction folded, or the snapshot's own id when there were none
+ */
+public record LedgerTail(Double delta, Long events, Long lastTransactionId) {
+}
@@ -1,7 +1,58 @@
 package com.eaglebank.repository;
 
+import com.eaglebank.dto.TransactionResponse;
 import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    /**
+     * Seeks one page of an account's history, newest first, starting strictly below {@code beforeId}.
+     * Projects straight into the response DTO so no {@code Transaction}/{@code BankAccount}/{@code User}
+     * graph is hydrated, and walks the {@code (account_id, id)} index instead of counting past an offset.
+     */
+    @Query("""
+            select new com.eaglebank.dto.TransactionResponse(t.id, t.type, t.amount, t.balanceAfterTransaction)
+            from Transaction t
+            where t.bankAccount.id = :accountId
+              and t.id < :beforeId
+              and (:type is null or t.type = :type)
+              and (:from is null or t.timestamp >= :from)
+              and (:to is null or t.timestamp < :to)
+            order by t.id desc
+            """)
+    List<TransactionResponse> findPageByAccountId(@Param("accountId") Long accountId,
+                                                  @Param("beforeId") Long beforeId,
+                                                  @Param("type") TransactionType type,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  Limit limit);
+
+    /**
+     * Folds an account's transactions with ids above {@code afterId} into one balance change, in a single
+     * aggregate over the {@code (account_id, id)} index.
+     */
+    @Query("""
+            select new com.eaglebank.repository.LedgerTail(
+                coalesce(sum(case when t.type = com.eaglebank.model.TransactionType.DEPOSIT then t.amount else -t.amount end), 0.0),
+                count(t),
+                coalesce(max(t.id), :afterId))
+            from Transaction t
+            where t.bankAccount.id = :accountId
+              and t.id > :afterId
+            """)
+    LedgerTail foldAfter(@Param("accountId") Long accountId, @Param("afterId") Long afterId);
+
+    Optional<Transaction> findFirstByBankAccountIdOrderByIdAsc(Long accountId);
+
+    @Query("select coalesce(max(t.id), 0) from Transaction t")
+    long findMaxId();
 }
@@ -2,6 +2,9 @@ package com.eaglebank.repository;
 
 import com.eaglebank.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -9,4 +12,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    // Answers a conditional GET for the user's own record without loading it.
+    @Query("select u.version from User u where u.id = :userId and u.email = :email")
+    Optional<Long> findVersionByIdAndEmail(@Param("userId") Long userId, @Param("email") String email);
 }
@@ -0,0 +1,7 @@
+package com.eaglebank.repository;
+
+/**
+ * Just enough of an account to authorize a conditional GET and compare its ETag.
+ */
+public record VersionStamp(Long ownerId, Long version) {
+}
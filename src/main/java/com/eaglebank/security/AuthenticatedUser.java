@@ -0,0 +1,17 @@
+package com.eaglebank.security;
+
+import java.security.Principal;
+
+/**
+ * Lightweight principal built from a verified JWT, so ownership checks need no user-table query.
+ *
+ * @param id    the user's id, or {@code null} for legacy tokens issued before the id claim existed
+ * @param email the token subject
+ */
+public record AuthenticatedUser(Long id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
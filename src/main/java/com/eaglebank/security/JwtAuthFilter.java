@@ -1,5 +1,7 @@
 package com.eaglebank.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,15 +14,28 @@ import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Timer validTokens;
+    private final Timer invalidTokens;
 
-    public JwtAuthFilter(JwtService jwtService) {
+    public JwtAuthFilter(JwtService jwtService, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
+        this.validTokens = verifyTimer("valid", meterRegistry);
+        this.invalidTokens = verifyTimer("invalid", meterRegistry);
+    }
+
+    private static Timer verifyTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("eaglebank.auth.jwt.verify")
+                .description("Time to verify a bearer token, cache hits included")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
@@ -41,12 +56,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            long start = System.nanoTime();
             try {
                 String token = authHeader.substring(7);
-                String email = jwtService.extractEmail(token);
-                var auth = new UsernamePasswordAuthenticationToken(email, null, null);
+                JwtService.VerifiedToken verified = jwtService.verify(token);
+                validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                var principal = new AuthenticatedUser(verified.userId(), verified.subject());
+                var auth = new UsernamePasswordAuthenticationToken(principal, null, null);
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } catch (Exception e) {
+                invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
@@ -1,20 +1,65 @@
 package com.eaglebank.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Getter
 @Service
 public class JwtService {
     private static final long EXPIRATION_MS = 86400000;
+    private static final long MAX_CACHED_TOKENS = 100_000;
+    static final String USER_ID_CLAIM = "uid";
+
+    // Reused per pooled platform thread. Virtual threads live for a single request, so a thread-local there
+    // would just allocate a fresh digest per request and keep it until the thread ends.
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(JwtService::newSha256);
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
 
+    // JwtParser is immutable and thread-safe; building one per request was pure overhead.
+    @Getter(AccessLevel.NONE)
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Tokens that already passed signature verification, keyed by a digest of the full compact token
+    // (signature included) and evicted no later than the token's own expiry.
+    @Getter(AccessLevel.NONE)
+    private final Cache<TokenDigest, VerifiedToken> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(new ExpireAtTokenExpiry())
+            .build();
+
+    /**
+     * Issues a token carrying both the email subject and the user id claim.
+     */
+    public String generateToken(Long userId, String email) {
+        return Jwts.builder()
+                .setSubject(email)
+                .claim(USER_ID_CLAIM, userId)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Issues a legacy, email-only token. Such tokens stay accepted until they expire; their user id is
+     * resolved from the email instead.
+     */
     public String generateToken(String email) {
         return Jwts.builder()
                 .setSubject(email)
@@ -25,29 +70,94 @@ public class JwtService {
     }
 
     public String extractEmail(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String email = extractEmail(token);
-            return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            final VerifiedToken verified = verify(token);
+            return (verified.subject().equals(userDetails.getUsername()) && !verified.isExpired());
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
+    /**
+     * Verifies the signature and expiry of {@code token}, answering from the cache when this exact token
+     * was verified before and has not expired yet.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                expiration != null ? expiration.getTime() : System.currentTimeMillis() + EXPIRATION_MS);
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
+    public long cachedTokenCount() {
+        return verifiedTokens.estimatedSize();
+    }
+
+    /**
+     * The claims of a token that passed verification.
+     *
+     * @param subject         the email the token was issued to
+     * @param userId          the user id claim, or {@code null} for legacy email-only tokens
+     * @param expiresAtMillis the token's {@code exp} claim in epoch milliseconds
+     */
+    public record VerifiedToken(String subject, Long userId, long expiresAtMillis) {
+        public boolean isExpired() {
+            return expiresAtMillis <= System.currentTimeMillis();
+        }
+    }
+
+    private static MessageDigest newSha256() {
         try {
-            Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claims.getExpiration().before(new Date());
-        } catch (ExpiredJwtException e) {
-            return true;
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        return Thread.currentThread().isVirtual() ? newSha256() : SHA_256.get();
+    }
+
+    // 256-bit SHA-256 digest held as four longs: cheap equals/hashCode and no retained token strings.
+    private record TokenDigest(long a, long b, long c, long d) {
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(sha256().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<TokenDigest, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
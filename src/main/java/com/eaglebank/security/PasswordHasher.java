@@ -0,0 +1,175 @@
+package com.eaglebank.security;
+
+import com.eaglebank.config.PasswordHashingProperties;
+import com.eaglebank.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs every password hash and verification on a small, dedicated pool with a bounded queue.
+ * <p>
+ * BCrypt is deliberately slow, so running it on request threads lets a login burst starve every other
+ * endpoint. Here at most {@code threads} hashes run at once; when the queue is full too, callers are
+ * rejected immediately with {@link HashingCapacityExceededException} rather than piling up.
+ * <p>
+ * The timeout bounds how long a caller waits, not how long the pool works: BCrypt ignores interrupts, so a
+ * hash that has started runs to the end after its caller gave up. To keep the pool from filling with such
+ * work, a request whose expected wait, judged from the queue ahead of it and the mean hash time, already
+ * exceeds the timeout is rejected before it is queued, and a queued job whose caller timed out is removed.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder encoder, PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.timeout = properties.timeout();
+
+        int threads = properties.effectiveThreads();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + sequence.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = hashingTimer("hash", meterRegistry);
+        this.verifyTimer = hashingTimer("verify", meterRegistry);
+        this.rejected = Counter.builder("eaglebank.auth.password.rejected")
+                .description("Hash requests turned away because the pool was saturated or the wait timed out")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hash jobs waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hash jobs currently running")
+                .register(meterRegistry);
+
+        log.info("Password hashing pool started. threads={} queueCapacity={} cost={}",
+                threads, properties.queueCapacity(), properties.cost());
+    }
+
+    private static Timer hashingTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("eaglebank.auth.password")
+                .description("Time spent hashing or verifying a password, excluding the queue wait")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public String hash(CharSequence rawPassword) {
+        return run(hashTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(verifyTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether {@code encodedPassword} was hashed with a lower cost than the one currently configured.
+     * Cheap: only inspects the hash prefix.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Supplier<T> hashing) {
+        if (expectedWaitNanos() > timeout.toNanos()) {
+            rejected.increment();
+            throw new HashingCapacityExceededException("Authentication is busy, please retry shortly");
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(hashing));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingCapacityExceededException("Authentication is busy, please retry shortly");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            // Frees its queue slot if it never started; a running hash finishes regardless.
+            executor.remove((Runnable) future);
+            rejected.increment();
+            throw new HashingCapacityExceededException("Authentication is busy, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Time until a job submitted now would finish, if every job ahead of it took the mean hash time.
+     * Zero until the first hash completes.
+     */
+    private long expectedWaitNanos() {
+        long rounds = (executor.getQueue().size() + executor.getActiveCount()) / executor.getMaximumPoolSize() + 1;
+        return rounds * meanHashNanos();
+    }
+
+    private long meanHashNanos() {
+        long done = hashTimer.count() + verifyTimer.count();
+        double totalNanos = hashTimer.totalTime(TimeUnit.NANOSECONDS) + verifyTimer.totalTime(TimeUnit.NANOSECONDS);
+        return done == 0 ? 0 : (long) (totalNanos / done);
+    }
+
+    public PasswordHasherStats stats() {
+        return new PasswordHasherStats(
+                executor.getQueue().size(),
+                executor.getActiveCount(),
+                hashTimer.count() + verifyTimer.count(),
+                (long) rejected.count(),
+                meanHashNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param queueDepth     hash jobs waiting for a thread
+     * @param active         hash jobs currently running
+     * @param completed      hash jobs finished since startup
+     * @param rejected       requests turned away because the pool was saturated or the wait timed out
+     * @param meanHashNanos  mean time spent hashing per job, excluding queue wait
+     */
+    public record PasswordHasherStats(int queueDepth, int active, long completed, long rejected, long meanHashNanos) {
+    }
+}
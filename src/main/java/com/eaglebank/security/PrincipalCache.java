@@ -0,0 +1,101 @@
+package com.eaglebank.security;
+
+import com.eaglebank.config.PrincipalCacheProperties;
+import com.eaglebank.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Resolves authenticated users by email in two tiers: a memo that lives for the current request,
+ * then a bounded, TTL-evicted cache shared across requests. Only a miss on both reaches the loader.
+ * <p>
+ * Anything that changes or removes a user must call {@link #invalidate(String)} for its email.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalCache.class.getName() + ".user";
+
+    private final Cache<String, User> cache;
+    private final boolean enabled;
+
+    private final LongAdder requestHits = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PrincipalCache(PrincipalCacheProperties properties) {
+        this.enabled = !properties.ttl().isZero();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    public Optional<User> resolve(String email, Function<String, Optional<User>> loader) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User memo
+                && memo.getEmail().equals(email)) {
+            requestHits.increment();
+            return Optional.of(memo);
+        }
+
+        User user = enabled ? cache.getIfPresent(email) : null;
+        if (user != null) {
+            cacheHits.increment();
+        } else {
+            misses.increment();
+            user = loader.apply(email).map(PrincipalCache::detachedCopy).orElse(null);
+            if (user == null) {
+                return Optional.empty();
+            }
+            if (enabled) {
+                cache.put(email, user);
+            }
+        }
+
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(user);
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public PrincipalCacheStats stats() {
+        return new PrincipalCacheStats(requestHits.sum(), cacheHits.sum(), misses.sum(), cache.estimatedSize());
+    }
+
+    // The cached instance is shared across threads, so keep it out of any persistence context.
+    private static User detachedCopy(User user) {
+        User copy = new User(user.getId(), user.getFullName(), user.getPassword(), user.getEmail());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+
+    /**
+     * @param requestHits lookups answered by the per-request memo
+     * @param cacheHits   lookups answered by the cross-request cache
+     * @param misses      lookups that went to the database
+     * @param size        current number of cached principals
+     */
+    public record PrincipalCacheStats(long requestHits, long cacheHits, long misses, long size) {
+    }
+}
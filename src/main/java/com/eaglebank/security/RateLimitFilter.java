@@ -0,0 +1,116 @@
+package com.eaglebank.security;
+
+import com.eaglebank.config.RateLimitProperties;
+import com.eaglebank.security.RateLimiter.RouteGroup;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link RateLimiter} to API requests. Runs right after {@link JwtAuthFilter}, so authenticated
+ * callers are limited per user; unauthenticated ones, including logins and sign-ups, per client address.
+ * Behind the gateway that address comes from {@code X-Forwarded-For}, which Tomcat honours only from trusted
+ * proxies ({@code server.forward-headers-strategy: native}), so a client cannot pick its own bucket.
+ * A refused request is answered here with a pre-serialized 429, before it reaches a worker's controller,
+ * the connection pool or password hashing.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/v1/";
+    private static final String ACCOUNTS_PREFIX = "/v1/accounts/";
+    private static final byte[] TOO_MANY_REQUESTS =
+            "{\"error\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final boolean perAccount;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = properties.enabled();
+        this.perAccount = properties.perAccount();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getServletPath().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getServletPath();
+        RouteGroup group = routeGroup(request.getMethod(), path);
+        Object subject = group == RouteGroup.LOGIN ? null : subject();
+        long accountId = -1;
+        if (subject == null) {
+            subject = request.getRemoteAddr();
+        } else if (perAccount) {
+            accountId = accountId(path);
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(group, subject, accountId);
+        if (waitNanos > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(TOO_MANY_REQUESTS.length);
+            response.getOutputStream().write(TOO_MANY_REQUESTS);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    static RouteGroup routeGroup(String method, String path) {
+        boolean post = HttpMethod.POST.matches(method);
+        if (post && (path.equals("/v1/auth/login") || path.equals("/v1/users"))) {
+            return RouteGroup.LOGIN;
+        }
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? RouteGroup.READS : RouteGroup.WRITES;
+    }
+
+    private static Object subject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return user.id();
+        }
+        return authentication.getName();
+    }
+
+    // The {id} of /v1/accounts/{id}/..., or -1 for any other path.
+    static long accountId(String path) {
+        if (!path.startsWith(ACCOUNTS_PREFIX)) {
+            return -1;
+        }
+        long id = 0;
+        int digits = 0;
+        for (int i = ACCOUNTS_PREFIX.length(); i < path.length() && digits < 18; i++, digits++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return digits > 0 ? id : -1;
+    }
+}
@@ -0,0 +1,117 @@
+package com.eaglebank.security;
+
+import com.eaglebank.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per caller and route group, held in a bounded Caffeine cache. Each bucket is a single
+ * {@link AtomicLong} updated by compare-and-set, so callers never lock, and callers with different buckets
+ * never touch the same memory.
+ * <p>
+ * A bucket stores the time at which it will next be full again rather than a token count (the generic cell
+ * rate algorithm): each request pushes that time one refill interval later, and a request that would push
+ * it more than {@code burst} intervals past now is refused. A bucket idle for a full refill is
+ * indistinguishable from a new one, which is also how long an idle bucket is kept before eviction.
+ */
+@Component
+public class RateLimiter {
+
+    public enum RouteGroup {
+        LOGIN, READS, WRITES
+    }
+
+    /**
+     * @param accountId the account in the request path when buckets are kept per account, otherwise -1
+     */
+    private record BucketKey(RouteGroup group, Object subject, long accountId) {
+    }
+
+    private final Cache<BucketKey, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+    // Per group, by ordinal: the refill interval of one token, and how far ahead of now a bucket may run.
+    private final long[] intervalNanos = new long[RouteGroup.values().length];
+    private final long[] burstNanos = new long[RouteGroup.values().length];
+    private final Map<RouteGroup, Counter> rejected = new EnumMap<>(RouteGroup.class);
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        configure(RouteGroup.LOGIN, properties.login());
+        configure(RouteGroup.READS, properties.reads());
+        configure(RouteGroup.WRITES, properties.writes());
+
+        long longestRefill = Duration.ofSeconds(1).toNanos();
+        for (long burst : burstNanos) {
+            longestRefill = Math.max(longestRefill, burst);
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(Duration.ofNanos(longestRefill))
+                .ticker(nanoClock::getAsLong)
+                .build();
+
+        for (RouteGroup group : RouteGroup.values()) {
+            rejected.put(group, Counter.builder("eaglebank.ratelimit.rejected")
+                    .description("Requests refused with 429 for exceeding their rate limit")
+                    .tag("group", group.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("eaglebank.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate limit buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    private void configure(RouteGroup group, RateLimitProperties.Limit limit) {
+        if (limit.unlimited()) {
+            return;
+        }
+        long interval = Math.max(1, Math.round(1e9 / limit.perSecond()));
+        intervalNanos[group.ordinal()] = interval;
+        burstNanos[group.ordinal()] = interval * limit.burst();
+    }
+
+    /**
+     * Takes a token from the caller's bucket for {@code group}.
+     *
+     * @param subject   who the bucket belongs to: a user id, a user name or a client address
+     * @param accountId the account the request is for when buckets are kept per account, otherwise -1
+     * @return 0 if the request may proceed, otherwise how many nanoseconds until it would be allowed
+     */
+    public long tryAcquire(RouteGroup group, Object subject, long accountId) {
+        long interval = intervalNanos[group.ordinal()];
+        if (interval == 0) {
+            return 0;
+        }
+        long burst = burstNanos[group.ordinal()];
+        long now = nanoClock.getAsLong();
+        AtomicLong fullAt = buckets.get(new BucketKey(group, subject, accountId), key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long ahead = next - now;
+            if (ahead > burst) {
+                rejected.get(group).increment();
+                return ahead - burst;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -2,16 +2,21 @@ package com.eaglebank.service;
 
 import com.eaglebank.dto.BankAccountRequest;
 import com.eaglebank.dto.BankAccountResponse;
+import com.eaglebank.exception.ResourceNotFoundException;
 import com.eaglebank.model.BankAccount;
-import com.eaglebank.model.User;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.readmodel.AccountView;
 import com.eaglebank.repository.BankAccountRepository;
 import com.eaglebank.repository.UserRepository;
+import com.eaglebank.repository.VersionStamp;
+import com.eaglebank.security.AuthenticatedUser;
 import com.eaglebank.util.AccessValidator;
 import com.eaglebank.util.SecurityUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.NoSuchElementException;
 
 @Service
 public class BankAccountService {
@@ -19,47 +24,108 @@ public class BankAccountService {
     private final BankAccountRepository accountRepository;
     private final UserRepository userRepository;
     private final SecurityUtils securityUtils;
+    private final LedgerSnapshotService ledgerSnapshots;
+    // Null when eaglebank.read-model.enabled is false: every read then goes to the database.
+    private final AccountReadModel readModel;
 
     public BankAccountService(BankAccountRepository accountRepository,
                               UserRepository userRepository,
-                              SecurityUtils securityUtils) {
+                              SecurityUtils securityUtils,
+                              LedgerSnapshotService ledgerSnapshots,
+                              @Nullable AccountReadModel readModel) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
         this.securityUtils = securityUtils;
+        this.ledgerSnapshots = ledgerSnapshots;
+        this.readModel = readModel;
     }
 
+    @Transactional
     public BankAccountResponse createAccount(BankAccountRequest request) {
-        User user = securityUtils.getAuthenticatedUser();
+        AuthenticatedUser principal = securityUtils.getAuthenticatedPrincipal();
 
         BankAccount account = new BankAccount();
         account.setAccountType(request.accountType());
         account.setBalance(request.balance());
-        account.setUser(user);
+        // The token alone authorizes the request, and it outlives a deleted user; without this check the insert
+        // would fail on the foreign key at flush.
+        account.setUser(userRepository.findById(principal.id())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found")));
 
         BankAccount saved = accountRepository.save(account);
+        ledgerSnapshots.recordOpening(saved);
+        if (readModel != null) {
+            readModel.record(saved, 0L);
+        }
 
         return new BankAccountResponse(saved.getId(), saved.getAccountType(), saved.getBalance());
     }
 
     public BankAccountResponse getAccountById(Long accountId) {
-        User currentUser = securityUtils.getAuthenticatedUser();
+        AuthenticatedUser currentUser = securityUtils.getAuthenticatedPrincipal();
+
+        AccountView view = readModel != null ? readModel.find(accountId, currentUser.id()).orElse(null) : null;
+        if (view != null) {
+            AccessValidator.validateOwnership(view.ownerId(), currentUser);
+            return new BankAccountResponse(view.id(), view.accountType(), view.balance());
+        }
 
         BankAccount account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new NoSuchElementException("Bank account not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+
+        AccessValidator.validateOwnership(account.getUser().getId(), currentUser);
 
-        AccessValidator.validateOwnership(account.getUser(), currentUser);
+        return new BankAccountResponse(account.getId(), account.getAccountType(), balanceOf(account));
+    }
 
-        return new BankAccountResponse(account.getId(), account.getAccountType(), account.getBalance());
+    /**
+     * What a conditional GET of an account compares: its entity version and, when served from the read model, the
+     * newest transaction the model has applied to it.
+     *
+     * @param lastTransactionId -1 when the account was read from the database, whose version alone identifies its
+     *                          balance. The model can run ahead of the database: in journal mode a transaction
+     *                          changes the balance when it is acknowledged and the version only when it is applied.
+     */
+    public record Revision(long version, long lastTransactionId) {
+    }
+
+    /**
+     * Returns the account's current revision for a conditional GET, after the same checks as
+     * {@link #getAccountById(Long)}, without loading the account.
+     */
+    public Revision getAccountRevision(Long accountId) {
+        AuthenticatedUser currentUser = securityUtils.getAuthenticatedPrincipal();
+
+        AccountView view = readModel != null ? readModel.find(accountId, currentUser.id()).orElse(null) : null;
+        if (view != null) {
+            AccessValidator.validateOwnership(view.ownerId(), currentUser);
+            return new Revision(view.version(), view.lastTransactionId());
+        }
+
+        VersionStamp stamp = accountRepository.findVersionStampById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+
+        AccessValidator.validateOwnership(stamp.ownerId(), currentUser);
+
+        return new Revision(stamp.version(), -1);
     }
 
     public List<BankAccountResponse> getAccountsForCurrentUser() {
-        User user = securityUtils.getAuthenticatedUser();
+        AuthenticatedUser principal = securityUtils.getAuthenticatedPrincipal();
 
-        return accountRepository.findAllByUserId(user.getId()).stream()
+        return accountRepository.findAllByUserId(principal.id()).stream()
                 .map(account -> new BankAccountResponse(
                         account.getId(),
                         account.getAccountType(),
-                        account.getBalance()))
+                        balanceOf(account)))
                 .toList();
     }
+
+    // A striped account's row holds only part of its balance; see StripedBalanceService.
+    private double balanceOf(BankAccount account) {
+        if (!account.isStriped()) {
+            return account.getBalance();
+        }
+        return accountRepository.findFoldedBalanceById(account.getId()).orElse(account.getBalance());
+    }
 }
@@ -0,0 +1,205 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.LedgerProperties;
+import com.eaglebank.exception.ResourceNotFoundException;
+import com.eaglebank.ledger.LedgerEngine;
+import com.eaglebank.model.AccountSnapshot;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.LedgerTail;
+import com.eaglebank.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Keeps the transaction log authoritative for balances. An account's balance is its latest snapshot plus
+ * the transactions after it. A snapshot is taken every {@link LedgerProperties#snapshotInterval()}
+ * transactions, so a replay never folds more than about one interval, however long the history is.
+ * <p>
+ * {@link BankAccount#getBalance()} remains the O(1) read path. It is a projection of the log: it is updated
+ * in the same ledger-lane transaction that appends the events, and {@link #rebuild(Long)} recomputes it from
+ * the log and repairs it if it has drifted.
+ */
+@Slf4j
+@Service
+public class LedgerSnapshotService {
+
+    // Replaying sums doubles in a different order than the running balance; ignore that rounding noise.
+    private static final double BALANCE_TOLERANCE = 1e-6;
+
+    private final AccountSnapshotRepository snapshotRepository;
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository accountRepository;
+    private final LedgerEngine ledgerEngine;
+    private final StripedBalanceService stripedBalances;
+    private final ApplicationEventPublisher events;
+    private final int snapshotInterval;
+
+    public LedgerSnapshotService(AccountSnapshotRepository snapshotRepository,
+                                 TransactionRepository transactionRepository,
+                                 BankAccountRepository accountRepository,
+                                 LedgerEngine ledgerEngine,
+                                 StripedBalanceService stripedBalances,
+                                 ApplicationEventPublisher events,
+                                 LedgerProperties properties) {
+        this.snapshotRepository = snapshotRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerEngine = ledgerEngine;
+        this.stripedBalances = stripedBalances;
+        this.events = events;
+        this.snapshotInterval = Math.max(1, properties.snapshotInterval());
+    }
+
+    /**
+     * Records a newly created account's opening balance as the first snapshot of its log.
+     */
+    public void recordOpening(BankAccount account) {
+        snapshotRepository.save(new AccountSnapshot(account.getId(), 0L, account.getBalance()));
+    }
+
+    /**
+     * Counts {@code events} transactions just appended to {@code account}, ending at {@code lastTransactionId},
+     * and snapshots the account's current balance once the interval is reached. Call it on the account's lane
+     * in the transaction that appended them, after the balance has been updated.
+     */
+    public void recordEvents(BankAccount account, int events, Long lastTransactionId) {
+        if (account.isStriped()) {
+            // Stripe deposits commit out of id order, so no balance marks a point in the log. Resumes once unstriped.
+            return;
+        }
+        int pending = account.getEventsSinceSnapshot() + events;
+        if (pending >= snapshotInterval) {
+            snapshotRepository.save(new AccountSnapshot(account.getId(), lastTransactionId, account.getBalance()));
+            pending = 0;
+        }
+        account.setEventsSinceSnapshot(pending);
+    }
+
+    /**
+     * Recomputes one account's balance from its log on the account's ledger lane, repairs the stored balance
+     * if it drifted and takes a fresh snapshot.
+     */
+    public RebuildResult rebuild(Long accountId) {
+        return ledgerEngine.execute(accountId, () -> replay(accountId));
+    }
+
+    /**
+     * Rebuilds every account. Each account replays on its own ledger lane, so the lanes work in parallel and
+     * no rebuild races a write to the same account. An account that fails to rebuild is rolled back and
+     * reported in the summary; the others still complete.
+     */
+    public RebuildSummary rebuildAll() {
+        Map<Long, CompletableFuture<RebuildResult>> pending = new LinkedHashMap<>();
+        for (Long accountId : accountRepository.findAllIds()) {
+            pending.put(accountId, ledgerEngine.submit(accountId, () -> replay(accountId)));
+        }
+
+        long replayedEvents = 0;
+        List<Long> repaired = new ArrayList<>();
+        List<RebuildFailure> failures = new ArrayList<>();
+        for (Map.Entry<Long, CompletableFuture<RebuildResult>> entry : pending.entrySet()) {
+            RebuildResult result;
+            try {
+                result = entry.getValue().join();
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Ledger rebuild failed. accountId={}", entry.getKey(), cause);
+                failures.add(new RebuildFailure(entry.getKey(), String.valueOf(cause.getMessage())));
+                continue;
+            }
+            replayedEvents += result.replayedEvents();
+            if (result.repaired()) {
+                repaired.add(result.accountId());
+            }
+        }
+        log.info("Ledger rebuild completed. accounts={} replayedEvents={} repaired={} failed={}",
+                pending.size(), replayedEvents, repaired.size(), failures.size());
+        return new RebuildSummary(pending.size(), replayedEvents, repaired, failures);
+    }
+
+    private RebuildResult replay(Long accountId) {
+        // The row lock keeps the journal applier, which writes off the lanes, out until the replay commits.
+        BankAccount account = accountRepository.findForUpdateById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+        boolean striped = account.isStriped();
+        if (striped) {
+            // Brings the whole balance into the row. A stripe deposit that commits first fails the rebuild instead.
+            stripedBalances.sweep(account);
+        }
+
+        double base;
+        long afterId;
+        AccountSnapshot snapshot = snapshotRepository.findFirstByAccountIdOrderByLastTransactionIdDesc(accountId)
+                .orElse(null);
+        if (snapshot != null) {
+            base = snapshot.getBalance();
+            afterId = snapshot.getLastTransactionId();
+        } else {
+            // Accounts created before snapshots existed: the first transaction records the balance it left.
+            base = transactionRepository.findFirstByBankAccountIdOrderByIdAsc(accountId)
+                    .map(first -> first.getBalanceAfterTransaction() - signedAmount(first))
+                    .orElse(account.getBalance());
+            afterId = 0L;
+        }
+
+        LedgerTail tail = transactionRepository.foldAfter(accountId, afterId);
+        double rebuilt = base + tail.delta();
+        double previous = account.getBalance();
+        boolean repaired = Math.abs(rebuilt - previous) > BALANCE_TOLERANCE;
+        if (repaired) {
+            log.warn("Ledger drift repaired. accountId={} stored={} rebuilt={}", accountId, previous, rebuilt);
+            account.setBalance(rebuilt);
+            events.publishEvent(new BalanceRepaired(accountId, rebuilt - previous));
+        }
+        if (!striped && (snapshot == null || tail.events() > 0)) {
+            snapshotRepository.save(new AccountSnapshot(accountId, tail.lastTransactionId(), account.getBalance()));
+            account.setEventsSinceSnapshot(0);
+        }
+        return new RebuildResult(accountId, previous, account.getBalance(), tail.events(), repaired);
+    }
+
+    private static double signedAmount(Transaction transaction) {
+        return transaction.getType() == TransactionType.DEPOSIT ? transaction.getAmount() : -transaction.getAmount();
+    }
+
+    /**
+     * @param previousBalance the stored balance before the rebuild
+     * @param rebuiltBalance  the balance derived from the log
+     * @param replayedEvents  transactions folded on top of the snapshot
+     * @param repaired        whether the stored balance had drifted and was overwritten
+     */
+    public record RebuildResult(Long accountId, double previousBalance, double rebuiltBalance,
+                                long replayedEvents, boolean repaired) {
+    }
+
+    /**
+     * @param failures accounts whose rebuild failed and left them unchanged
+     */
+    public record RebuildSummary(int accounts, long replayedEvents, List<Long> repairedAccountIds,
+                                 List<RebuildFailure> failures) {
+    }
+
+    public record RebuildFailure(Long accountId, String error) {
+    }
+
+    /**
+     * Published on the account's lane when a rebuild overwrote a drifted balance.
+     *
+     * @param correction the amount added to the stored balance
+     */
+    public record BalanceRepaired(Long accountId, double correction) {
+    }
+}
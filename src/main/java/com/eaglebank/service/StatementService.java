@@ -0,0 +1,169 @@
+package com.eaglebank.service;
+
+import com.eaglebank.dto.StatementFormat;
+import com.eaglebank.exception.ResourceNotFoundException;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.readmodel.AccountView;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.util.AccessValidator;
+import com.eaglebank.util.SecurityUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams an account's full transaction history straight from a forward-only JDBC cursor to the
+ * response, one row at a time. Nothing is collected in memory, so heap use does not grow with the
+ * number of rows exported.
+ */
+@Service
+public class StatementService {
+
+    private static final int FETCH_SIZE = 500;
+    private static final int WRITE_BUFFER_CHARS = 8192;
+    private static final String CSV_HEADER = "transactionId,timestamp,type,amount,balanceAfter\n";
+
+    private final BankAccountRepository accountRepository;
+    private final SecurityUtils securityUtils;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    // Null when eaglebank.read-model.enabled is false.
+    private final AccountReadModel readModel;
+
+    public StatementService(BankAccountRepository accountRepository,
+                            SecurityUtils securityUtils,
+                            DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            @Nullable AccountReadModel readModel) {
+        this.accountRepository = accountRepository;
+        this.securityUtils = securityUtils;
+        this.readModel = readModel;
+
+        // Dedicated template: a bounded fetch size lets drivers stream instead of buffering the whole result.
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+
+        // Several drivers only honour the fetch size (server-side cursor) inside a transaction.
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Checks that the current user owns the account. Must run on the request thread, before streaming starts.
+     */
+    public void validateAccess(Long accountId) {
+        AuthenticatedUser user = securityUtils.getAuthenticatedPrincipal();
+
+        AccessValidator.validateOwnership(ownerIdOf(accountId), user);
+    }
+
+    private Long ownerIdOf(Long accountId) {
+        if (readModel != null) {
+            AccountView view = readModel.find(accountId).orElse(null);
+            if (view != null) {
+                return view.ownerId();
+            }
+        }
+        return accountRepository.findOwnerIdById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+    }
+
+    /**
+     * Writes every transaction of the account in {@code [from, to)}, oldest first, to {@code out}.
+     * Each line carries the stored running balance, so nothing is recomputed.
+     */
+    public void writeStatement(Long accountId, LocalDateTime from, LocalDateTime to,
+                               StatementFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(
+                "select id, timestamp, type, amount, balance_after_transaction from transactions where account_id = ?");
+        List<Object> args = new ArrayList<>(3);
+        args.add(accountId);
+        if (from != null) {
+            sql.append(" and timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and timestamp < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" order by id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        StringBuilder line = new StringBuilder(128);
+        try {
+            if (format == StatementFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql.toString(), rs -> {
+                        line.setLength(0);
+                        if (format == StatementFormat.CSV) {
+                            appendCsv(line, rs);
+                        } else {
+                            appendNdjson(line, rs);
+                        }
+                        write(writer, line);
+                    }, args.toArray()));
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendCsv(StringBuilder line, ResultSet rs) throws SQLException {
+        line.append(rs.getLong(1)).append(',')
+                .append(rs.getTimestamp(2).toLocalDateTime()).append(',')
+                .append(rs.getString(3)).append(',')
+                .append(rs.getDouble(4)).append(',');
+        appendNullableDouble(line, rs, 5, "");
+        line.append('\n');
+    }
+
+    // Every value is a number, an enum name or an ISO timestamp, so no JSON escaping is needed.
+    private static void appendNdjson(StringBuilder line, ResultSet rs) throws SQLException {
+        line.append("{\"transactionId\":").append(rs.getLong(1))
+                .append(",\"timestamp\":\"").append(rs.getTimestamp(2).toLocalDateTime())
+                .append("\",\"type\":\"").append(rs.getString(3))
+                .append("\",\"amount\":").append(rs.getDouble(4))
+                .append(",\"balanceAfter\":");
+        appendNullableDouble(line, rs, 5, "null");
+        line.append("}\n");
+    }
+
+    private static void appendNullableDouble(StringBuilder line, ResultSet rs, int column, String nullValue)
+            throws SQLException {
+        double value = rs.getDouble(column);
+        if (rs.wasNull()) {
+            line.append(nullValue);
+        } else {
+            line.append(value);
+        }
+    }
+
+    private static void write(Writer writer, CharSequence line) {
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            // Typically the client went away; abort the cursor rather than draining it.
+            throw new UncheckedIOException(e);
+        }
+    }
+}
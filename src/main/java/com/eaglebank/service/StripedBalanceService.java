@@ -0,0 +1,233 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.JournalProperties;
+import com.eaglebank.exception.ResourceNotFoundException;
+import com.eaglebank.ledger.ConflictRetry;
+import com.eaglebank.ledger.LedgerEngine;
+import com.eaglebank.model.BalanceStripe;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.repository.BalanceStripeRepository;
+import com.eaglebank.repository.BankAccountRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Striped balances, for the few accounts that take more deposits than one ledger lane can apply. A striped
+ * account's deposits are spread over several slots, each applied on its own lane, so they run in parallel.
+ * Slot 0 is the account row on the account's own lane; slot {@code k} is a {@link BalanceStripe} row on the
+ * {@code k}-th lane after it.
+ * <ul>
+ *     <li>A deposit reads its stripe, then the account, and gives up with a version conflict if the account
+ *     no longer has that stripe. The caller's conflict retry then routes it afresh.</li>
+ *     <li>A withdrawal runs on the account's lane and first {@linkplain #sweep sweeps} every stripe into the
+ *     account row. Every stripe's version is checked at commit, so a deposit landing on one in the meantime
+ *     rolls one of the two back. The funds check therefore sees the exact balance.</li>
+ *     <li>A read folds the account and its stripes in one statement.</li>
+ * </ul>
+ * Striping is switched per account at runtime with {@link #restripe(Long, int)}. Which accounts are striped
+ * is cached here for routing; the account's {@code balanceStripes} column stays authoritative, so a stale
+ * cache costs a retry, never money.
+ * <p>
+ * While striped, an account takes no balance snapshots and is left out of the read model. Only the database
+ * write path stripes: with the journal enabled, accepting a deposit is already an in-memory append.
+ */
+@Slf4j
+@Service
+public class StripedBalanceService implements SmartLifecycle {
+
+    public static final int MAX_STRIPES = 64;
+
+    private final LedgerEngine ledgerEngine;
+    private final ConflictRetry conflictRetry;
+    private final BankAccountRepository accountRepository;
+    private final BalanceStripeRepository stripeRepository;
+    private final boolean journalEnabled;
+    // Null when eaglebank.read-model.enabled is false.
+    private final AccountReadModel readModel;
+    private final Map<Long, Integer> stripes = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    public StripedBalanceService(LedgerEngine ledgerEngine,
+                                 ConflictRetry conflictRetry,
+                                 BankAccountRepository accountRepository,
+                                 BalanceStripeRepository stripeRepository,
+                                 JournalProperties journalProperties,
+                                 @Nullable AccountReadModel readModel,
+                                 MeterRegistry meterRegistry) {
+        this.ledgerEngine = ledgerEngine;
+        this.conflictRetry = conflictRetry;
+        this.accountRepository = accountRepository;
+        this.stripeRepository = stripeRepository;
+        this.journalEnabled = journalProperties.enabled();
+        this.readModel = readModel;
+
+        Gauge.builder("eaglebank.ledger.striped.accounts", stripes, Map::size)
+                .description("Accounts whose deposits are spread over balance stripes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The slot a new transaction on {@code accountId} should run on: {@code 0}, the account's own lane, unless
+     * the account is striped and the transaction is a deposit.
+     */
+    public int slotFor(Long accountId, TransactionType type) {
+        Integer count = stripes.get(accountId);
+        if (count == null || type != TransactionType.DEPOSIT) {
+            return 0;
+        }
+        // By thread rather than at random, so that one thread's deposits keep to one lane and stay in order.
+        return Math.floorMod(Long.hashCode(Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L), count);
+    }
+
+    /**
+     * Reads stripe {@code slot} of an account for a deposit, on the stripe's lane. Read it before the account:
+     * a restripe that retired the stripe before this read is then visible on the account.
+     */
+    public Optional<BalanceStripe> findStripe(Long accountId, int slot) {
+        return stripeRepository.findByAccountIdAndSlot(accountId, slot);
+    }
+
+    /**
+     * Called when a deposit found its stripe retired: refreshes the routing for the account and returns the
+     * version conflict to throw, so that the deposit is retried on a current slot.
+     */
+    public OptimisticLockingFailureException retired(BankAccount account, int slot) {
+        if (account.isStriped()) {
+            stripes.put(account.getId(), account.getBalanceStripes());
+        } else {
+            stripes.remove(account.getId());
+        }
+        return new OptimisticLockingFailureException("Stripe " + slot + " of account " + account.getId() + " is retired");
+    }
+
+    /**
+     * Moves every stripe's balance into {@code account}, on the account's lane, in the transaction that goes
+     * on to rely on the account's balance being complete. The sweep moves money without changing the total,
+     * so it is safe to commit even when the rest of the command is rejected.
+     */
+    public void sweep(BankAccount account) {
+        sweepAll(account);
+    }
+
+    // Returns the account's stripe rows, every one of them now empty.
+    private List<BalanceStripe> sweepAll(BankAccount account) {
+        List<BalanceStripe> rows = stripeRepository.findAllByAccountIdOrderBySlot(account.getId());
+        for (BalanceStripe stripe : rows) {
+            if (stripe.getBalance() != 0) {
+                account.setBalance(account.getBalance() + stripe.getBalance());
+                stripe.setBalance(0);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The balance held in an account's stripes, for reporting a striped account's balance after a deposit.
+     */
+    public double stripedBalance(Long accountId) {
+        return stripeRepository.sumBalanceByAccountId(accountId);
+    }
+
+    /**
+     * Spreads an account's deposits over {@code count} slots, its own balance included; {@code 0} or {@code 1}
+     * turns striping off. Runs on the account's lane. Retired stripes are swept into the account and kept, empty.
+     */
+    public StripeResult restripe(Long accountId, int count) {
+        if (journalEnabled) {
+            throw new IllegalStateException("Balance stripes are not used while the journal is enabled");
+        }
+        if (count < 0 || count > MAX_STRIPES) {
+            throw new IllegalArgumentException("Stripes must be between 0 and " + MAX_STRIPES);
+        }
+        int stripeCount = count < 2 ? 0 : count;
+        StripeResult result = conflictRetry.execute(accountId,
+                () -> ledgerEngine.execute(accountId, () -> applyStripes(accountId, stripeCount)));
+        if (stripeCount == 0) {
+            stripes.remove(accountId);
+        } else {
+            stripes.put(accountId, stripeCount);
+        }
+        log.info("Account restriped. accountId={} stripes={} previous={}", accountId, stripeCount, result.previous());
+        return result;
+    }
+
+    private StripeResult applyStripes(Long accountId, int count) {
+        BankAccount account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+        boolean wasStriped = account.isStriped();
+        int previous = account.getBalanceStripes();
+
+        // Sweeping all of them also bumps every stripe's version: a deposit racing a retirement rolls back.
+        int existing = sweepAll(account).size();
+        for (int slot = existing + 1; slot < count; slot++) {
+            stripeRepository.save(new BalanceStripe(accountId, slot));
+        }
+        account.setBalanceStripes(count);
+
+        if (readModel != null) {
+            if (count > 1 && !wasStriped) {
+                readModel.evict(accountId);
+            } else if (count < 2 && wasStriped) {
+                // Everything has just been swept into the account row, so the model can follow it again.
+                readModel.record(account, 0L);
+            }
+        }
+        return new StripeResult(accountId, previous, count, account.getBalance());
+    }
+
+    /**
+     * Striped accounts and their stripe counts.
+     */
+    public Map<Long, Integer> stripedAccounts() {
+        return new TreeMap<>(stripes);
+    }
+
+    /**
+     * @param previous the stripe count before, {@code 0} if the account was not striped
+     * @param balance  the account row's balance once every stripe was swept into it
+     */
+    public record StripeResult(Long accountId, int previous, int stripes, double balance) {
+    }
+
+    @Override
+    public void start() {
+        stripes.clear();
+        for (BankAccount account : accountRepository.findAllByBalanceStripesGreaterThan(1)) {
+            stripes.put(account.getId(), account.getBalanceStripes());
+        }
+        running = true;
+        if (!stripes.isEmpty()) {
+            log.info("Striped accounts loaded. accounts={}", stripes.size());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // With the read model: after the journal has replayed, before the web server takes requests.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+}
@@ -1,56 +1,221 @@
 package com.eaglebank.service;
 
+import com.eaglebank.dto.BatchItemStatus;
+import com.eaglebank.dto.BatchTransactionResponse;
+import com.eaglebank.dto.BatchTransactionResult;
+import com.eaglebank.dto.TransactionPageResponse;
 import com.eaglebank.dto.TransactionRequest;
 import com.eaglebank.dto.TransactionResponse;
 import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.exception.ResourceNotFoundException;
+import com.eaglebank.idempotency.IdempotencyStore;
+import com.eaglebank.journal.JournalRecord;
+import com.eaglebank.journal.TransactionJournal;
+import com.eaglebank.ledger.ConflictRetry;
+import com.eaglebank.ledger.LedgerEngine;
+import com.eaglebank.model.BalanceStripe;
 import com.eaglebank.model.BankAccount;
 import com.eaglebank.model.Transaction;
 import com.eaglebank.model.TransactionType;
-import com.eaglebank.model.User;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.readmodel.AccountView;
 import com.eaglebank.repository.BankAccountRepository;
 import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.security.AuthenticatedUser;
 import com.eaglebank.util.AccessValidator;
+import com.eaglebank.util.CursorCodec;
 import com.eaglebank.util.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.NoSuchElementException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 @Service
 public class TransactionService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TransactionRepository transactionRepository;
     private final BankAccountRepository accountRepository;
     private final SecurityUtils securityUtils;
+    private final LedgerEngine ledgerEngine;
+    private final ConflictRetry conflictRetry;
+    private final LedgerSnapshotService ledgerSnapshots;
+    private final StripedBalanceService stripedBalances;
+    // Null unless eaglebank.journal.enabled: then transactions are acknowledged from the journal.
+    private final TransactionJournal journal;
+    // Null when eaglebank.read-model.enabled is false.
+    private final AccountReadModel readModel;
+    // Null when eaglebank.idempotency.enabled is false: the Idempotency-Key header is then ignored.
+    private final IdempotencyStore idempotency;
+
+    private final Map<TransactionType, Counter> appliedByType = new EnumMap<>(TransactionType.class);
+    private final Counter insufficientFunds;
 
     public TransactionService(TransactionRepository transactionRepository,
                               BankAccountRepository accountRepository,
-                              SecurityUtils securityUtils) {
+                              SecurityUtils securityUtils,
+                              LedgerEngine ledgerEngine,
+                              ConflictRetry conflictRetry,
+                              LedgerSnapshotService ledgerSnapshots,
+                              StripedBalanceService stripedBalances,
+                              @Nullable TransactionJournal journal,
+                              @Nullable AccountReadModel readModel,
+                              @Nullable IdempotencyStore idempotency,
+                              MeterRegistry meterRegistry) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
         this.securityUtils = securityUtils;
+        this.ledgerEngine = ledgerEngine;
+        this.conflictRetry = conflictRetry;
+        this.ledgerSnapshots = ledgerSnapshots;
+        this.stripedBalances = stripedBalances;
+        this.journal = journal;
+        this.readModel = readModel;
+        this.idempotency = idempotency;
+
+        for (TransactionType type : TransactionType.values()) {
+            appliedByType.put(type, Counter.builder("eaglebank.transactions.applied")
+                    .description("Transactions written to an account")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.insufficientFunds = Counter.builder("eaglebank.transactions.rejected")
+                .description("Transactions refused without being written")
+                .tag("reason", "insufficient_funds")
+                .register(meterRegistry);
     }
 
     public TransactionResponse createTransaction(Long accountId, TransactionRequest request) {
-        User user = securityUtils.getAuthenticatedUser();
+        return createTransaction(accountId, request, null);
+    }
 
-        BankAccount account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new NoSuchElementException("Bank account not found"));
+    /**
+     * Writes {@code request} to the account, or, if the caller already sent it with {@code idempotencyKey},
+     * returns the result of that first request without writing anything.
+     *
+     * @throws com.eaglebank.exception.IdempotencyKeyReuseException if the key was first used for another request
+     */
+    public TransactionResponse createTransaction(Long accountId, TransactionRequest request,
+                                                 @Nullable String idempotencyKey) {
+        AuthenticatedUser user = securityUtils.getAuthenticatedPrincipal();
+        String key = idempotency != null ? idempotencyKey : null;
+        if (key != null) {
+            IdempotencyStore.requireValid(key);
+        }
 
-        AccessValidator.validateOwnership(account.getUser(), user);
+        if (journal != null) {
+            JournalAck ack = ledgerEngine.executeOnLane(accountId,
+                    () -> journalTransaction(accountId, request, user, key));
+            TransactionResponse response = ack.response();
+            // Waiting here rather than on the lane lets the lane accept the next command into the same group commit.
+            // A replay waits too: its first request may still be on its way to disk.
+            journal.awaitDurable(response.transactionId());
+            if (ack.replayed()) {
+                return response;
+            }
+            if (readModel != null) {
+                readModel.recordBalance(accountId, response.updatedBalance(), response.transactionId());
+            }
+            return response;
+        }
 
-        double updatedBalance = account.getBalance();
-        if (request.type() == TransactionType.DEPOSIT) {
-            updatedBalance += request.amount();
-        } else if (request.type() == TransactionType.WITHDRAWAL) {
-            if (request.amount() > updatedBalance) {
-                throw new InsufficientFundsException("Insufficient funds");
+        if (key != null) {
+            Optional<TransactionResponse> replay = idempotency.find(user.id(), key, accountId, request);
+            if (replay.isPresent()) {
+                return replay.get();
+            }
+        }
+        TransactionResponse response;
+        try {
+            response = conflictRetry.execute(accountId, () -> {
+                // Chosen per attempt: a deposit that found its stripe retired follows the new routing.
+                int slot = stripedBalances.slotFor(accountId, request.type());
+                return ledgerEngine.execute(accountId, slot, slot == 0
+                        ? () -> applyTransaction(accountId, request, user, key)
+                        : () -> applyStripedDeposit(accountId, slot, request, user, key));
+            });
+        } catch (InsufficientFundsException e) {
+            // Counted here rather than on the lane, where a failed group commit or a version conflict reruns it.
+            insufficientFunds.increment();
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first, here or on another instance.
+            if (key == null) {
+                throw e;
             }
-            updatedBalance -= request.amount();
+            return idempotency.load(user.id(), key, accountId, request).orElseThrow(() -> e);
         }
+        // Counted once committed: a write rolled back by a version conflict may run again.
+        appliedByType.get(response.type()).increment();
+        return response;
+    }
 
-        account.setBalance(updatedBalance);
-        accountRepository.save(account);
+    // Runs on the account's lane against the journal's in-memory balance; the applier writes the rows later.
+    // The lane also serializes requests sharing a key, so the in-memory result of the first answers the rest. The key
+    // is journaled with the transaction, and the applier writes its row with the transaction's.
+    private JournalAck journalTransaction(Long accountId, TransactionRequest request, AuthenticatedUser user,
+                                          @Nullable String key) {
+        if (key != null) {
+            Optional<TransactionResponse> replay = idempotency.find(user.id(), key, accountId, request);
+            if (replay.isPresent()) {
+                return new JournalAck(replay.get(), true);
+            }
+        }
+        TransactionJournal.Account account = journal.account(accountId);
+
+        AccessValidator.validateOwnership(account.getOwnerId(), user);
+
+        double updatedBalance;
+        try {
+            updatedBalance = applyToBalance(account.getBalance(), request);
+        } catch (InsufficientFundsException e) {
+            insufficientFunds.increment();
+            throw e;
+        }
+
+        JournalRecord record = journal.append(account, request.type(), request.amount(), updatedBalance,
+                LocalDateTime.now(), user.id(), key);
+        appliedByType.get(request.type()).increment();
+
+        TransactionResponse response =
+                new TransactionResponse(record.transactionId(), request.type(), request.amount(), updatedBalance);
+        if (key != null) {
+            idempotency.remember(user.id(), key, accountId, response);
+        }
+        return new JournalAck(response, false);
+    }
+
+    private record JournalAck(TransactionResponse response, boolean replayed) {
+    }
+
+    // Runs on the account's ledger lane, so the read-modify-write of the balance cannot interleave with this
+    // instance's other writes. The account's version catches any other writer; the rows then roll back together.
+    private TransactionResponse applyTransaction(Long accountId, TransactionRequest request, AuthenticatedUser user,
+                                                 @Nullable String key) {
+        BankAccount account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+
+        AccessValidator.validateOwnership(account.getUser().getId(), user);
+
+        boolean striped = account.isStriped();
+        if (striped && request.type() == TransactionType.WITHDRAWAL) {
+            stripedBalances.sweep(account);
+        }
+
+        double updatedBalance = applyToBalance(account.getBalance(), request);
+        // Deposits on the other stripes count towards the balance reported, not the one checked.
+        double reportedBalance = striped ? updatedBalance + stripedBalances.stripedBalance(accountId) : updatedBalance;
 
         Transaction transaction = new Transaction(
                 request.amount(),
@@ -58,32 +223,250 @@ public class TransactionService {
                 LocalDateTime.now(),
                 account
         );
+        transaction.setBalanceAfterTransaction(reportedBalance);
+        Transaction saved = transactionRepository.save(transaction);
+
+        account.setBalance(updatedBalance);
+        ledgerSnapshots.recordEvents(account, 1, saved.getId());
+        accountRepository.save(account);
+        project(account, saved.getId());
+
+        TransactionResponse response =
+                new TransactionResponse(saved.getId(), saved.getType(), saved.getAmount(), reportedBalance);
+        if (key != null) {
+            idempotency.record(user.id(), key, accountId, response);
+        }
+        return response;
+    }
+
+    // Runs on the stripe's lane, in parallel with the account's other slots, and writes only the stripe row.
+    private TransactionResponse applyStripedDeposit(Long accountId, int slot, TransactionRequest request,
+                                                    AuthenticatedUser user, @Nullable String key) {
+        BalanceStripe stripe = stripedBalances.findStripe(accountId, slot).orElse(null);
+        BankAccount account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+
+        AccessValidator.validateOwnership(account.getUser().getId(), user);
+
+        if (stripe == null || account.getBalanceStripes() <= slot) {
+            throw stripedBalances.retired(account, slot);
+        }
+        stripe.setBalance(stripe.getBalance() + request.amount());
+        // Folded in one statement: the account's lane may be sweeping the stripes into the account meanwhile.
+        double updatedBalance = accountRepository.findFoldedBalanceById(accountId).orElseThrow();
+
+        Transaction transaction = new Transaction(request.amount(), request.type(), LocalDateTime.now(), account);
         transaction.setBalanceAfterTransaction(updatedBalance);
         Transaction saved = transactionRepository.save(transaction);
 
-        return new TransactionResponse(saved.getId(), saved.getType(), saved.getAmount(), updatedBalance);
+        TransactionResponse response =
+                new TransactionResponse(saved.getId(), saved.getType(), saved.getAmount(), updatedBalance);
+        if (key != null) {
+            idempotency.record(user.id(), key, accountId, response);
+        }
+        return response;
     }
 
-    public TransactionResponse getTransaction(Long accountId, Long transactionId) {
-        User user = securityUtils.getAuthenticatedUser();
+    /**
+     * Applies {@code requests} in order against a single in-memory balance. Ownership is checked once,
+     * all rows are written in one batch and the balance is saved once. A withdrawal that would overdraw
+     * the account is rejected on its own; later items still apply against the running balance.
+     */
+    public BatchTransactionResponse createTransactions(Long accountId, List<TransactionRequest> requests) {
+        AuthenticatedUser user = securityUtils.getAuthenticatedPrincipal();
+
+        if (journal != null) {
+            BatchTransactionResponse response = ledgerEngine.executeOnLane(accountId,
+                    () -> journalBatch(accountId, requests, user));
+            OptionalLong lastId = lastAppliedId(response);
+            if (lastId.isPresent()) {
+                journal.awaitDurable(lastId.getAsLong());
+                if (readModel != null) {
+                    readModel.recordBalance(accountId, response.balance(), lastId.getAsLong());
+                }
+            }
+            return response;
+        }
+        BatchTransactionResponse response = conflictRetry.execute(accountId,
+                () -> ledgerEngine.execute(accountId, () -> applyBatch(accountId, requests, user)));
+        for (BatchTransactionResult result : response.results()) {
+            if (result.status() == BatchItemStatus.APPLIED) {
+                appliedByType.get(result.type()).increment();
+            } else {
+                insufficientFunds.increment();
+            }
+        }
+        return response;
+    }
+
+    private BatchTransactionResponse journalBatch(Long accountId, List<TransactionRequest> requests, AuthenticatedUser user) {
+        TransactionJournal.Account account = journal.account(accountId);
+
+        AccessValidator.validateOwnership(account.getOwnerId(), user);
+
+        LocalDateTime now = LocalDateTime.now();
+        double balance = account.getBalance();
+        List<BatchTransactionResult> results = new ArrayList<>(requests.size());
+        int applied = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            try {
+                balance = applyToBalance(balance, request);
+            } catch (InsufficientFundsException e) {
+                insufficientFunds.increment();
+                results.add(new BatchTransactionResult(i, BatchItemStatus.REJECTED, null,
+                        request.type(), request.amount(), balance, e.getMessage()));
+                continue;
+            }
+            JournalRecord record = journal.append(account, request.type(), request.amount(), balance, now);
+            appliedByType.get(request.type()).increment();
+            applied++;
+            results.add(new BatchTransactionResult(i, BatchItemStatus.APPLIED, record.transactionId(),
+                    request.type(), request.amount(), balance, null));
+        }
+
+        return new BatchTransactionResponse(accountId, applied, results.size() - applied, balance, results);
+    }
+
+    private static OptionalLong lastAppliedId(BatchTransactionResponse response) {
+        List<BatchTransactionResult> results = response.results();
+        for (int i = results.size() - 1; i >= 0; i--) {
+            if (results.get(i).status() == BatchItemStatus.APPLIED) {
+                return OptionalLong.of(results.get(i).transactionId());
+            }
+        }
+        return OptionalLong.empty();
+    }
 
+    private BatchTransactionResponse applyBatch(Long accountId, List<TransactionRequest> requests, AuthenticatedUser user) {
         BankAccount account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new NoSuchElementException("Bank account not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+
+        AccessValidator.validateOwnership(account.getUser().getId(), user);
+
+        boolean striped = account.isStriped();
+        if (striped && requests.stream().anyMatch(request -> request.type() == TransactionType.WITHDRAWAL)) {
+            stripedBalances.sweep(account);
+        }
+        // Deposits on the other stripes count towards the balances reported, not the ones checked.
+        double elsewhere = striped ? stripedBalances.stripedBalance(accountId) : 0;
+
+        LocalDateTime now = LocalDateTime.now();
+        double balance = account.getBalance();
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        BatchTransactionResult[] results = new BatchTransactionResult[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            try {
+                balance = applyToBalance(balance, request);
+            } catch (InsufficientFundsException e) {
+                results[i] = new BatchTransactionResult(i, BatchItemStatus.REJECTED, null,
+                        request.type(), request.amount(), balance + elsewhere, e.getMessage());
+                continue;
+            }
+            Transaction transaction = new Transaction(request.amount(), request.type(), now, account);
+            transaction.setBalanceAfterTransaction(balance + elsewhere);
+            transactions.add(transaction);
+        }
+
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        account.setBalance(balance);
+        if (!saved.isEmpty()) {
+            ledgerSnapshots.recordEvents(account, saved.size(), saved.get(saved.size() - 1).getId());
+        }
+        accountRepository.save(account);
+        if (!saved.isEmpty()) {
+            project(account, saved.get(saved.size() - 1).getId());
+        }
+
+        int applied = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                Transaction transaction = saved.get(applied++);
+                results[i] = new BatchTransactionResult(i, BatchItemStatus.APPLIED, transaction.getId(),
+                        transaction.getType(), transaction.getAmount(), transaction.getBalanceAfterTransaction(), null);
+            }
+        }
+
+        return new BatchTransactionResponse(accountId, applied, results.length - applied, balance + elsewhere,
+                List.of(results));
+    }
+
+    /**
+     * Returns one page of the account's history, newest first, using keyset pagination on
+     * {@code (account_id, id)}. Pass the returned {@code nextCursor} back to fetch the following page.
+     */
+    public TransactionPageResponse getTransactions(Long accountId, String cursor, TransactionType type,
+                                                   LocalDateTime from, LocalDateTime to, int limit) {
+        AuthenticatedUser user = securityUtils.getAuthenticatedPrincipal();
+
+        AccessValidator.validateOwnership(ownerIdOf(accountId), user);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long beforeId = cursor == null ? Long.MAX_VALUE : CursorCodec.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists without a count query.
+        List<TransactionResponse> rows = transactionRepository.findPageByAccountId(
+                accountId, beforeId, type, from, to, Limit.of(limit + 1));
+
+        if (rows.size() <= limit) {
+            return new TransactionPageResponse(rows, null);
+        }
+        List<TransactionResponse> page = rows.subList(0, limit);
+        return new TransactionPageResponse(page, CursorCodec.encode(page.get(limit - 1).transactionId()));
+    }
+
+    public TransactionResponse getTransaction(Long accountId, Long transactionId) {
+        AuthenticatedUser user = securityUtils.getAuthenticatedPrincipal();
 
-        AccessValidator.validateOwnership(account.getUser(), user);
+        AccessValidator.validateOwnership(ownerIdOf(accountId), user);
 
         Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new NoSuchElementException("Transaction not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
 
         if (!transaction.getBankAccount().getId().equals(accountId)) {
-            throw new NoSuchElementException("Transaction does not belong to this account");
+            throw new ResourceNotFoundException("Transaction does not belong to this account");
         }
 
+        // The balance this transaction left, not the account's current one: the response never changes.
         return new TransactionResponse(
                 transaction.getId(),
                 transaction.getType(),
                 transaction.getAmount(),
-                account.getBalance()
+                transaction.getBalanceAfterTransaction()
         );
     }
+
+    private Long ownerIdOf(Long accountId) {
+        if (readModel != null) {
+            AccountView view = readModel.find(accountId).orElse(null);
+            if (view != null) {
+                return view.ownerId();
+            }
+        }
+        return accountRepository.findOwnerIdById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bank account not found"));
+    }
+
+    // The model takes the new state once the lane's transaction commits; a rolled-back batch never shows.
+    // Striped accounts are not in the model: the account row holds only part of their balance.
+    private void project(BankAccount account, long lastTransactionId) {
+        if (readModel != null && !account.isStriped()) {
+            readModel.record(account, lastTransactionId);
+        }
+    }
+
+    private static double applyToBalance(double balance, TransactionRequest request) {
+        if (request.type() == TransactionType.DEPOSIT) {
+            return balance + request.amount();
+        }
+        if (request.amount() > balance) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+        return balance - request.amount();
+    }
 }
@@ -2,16 +2,17 @@ package com.eaglebank.service;
 
 import com.eaglebank.dto.UserRequest;
 import com.eaglebank.dto.UserResponse;
+import com.eaglebank.exception.ForbiddenException;
+import com.eaglebank.exception.ResourceNotFoundException;
 import com.eaglebank.exception.UserConflictException;
 import com.eaglebank.model.User;
 import com.eaglebank.repository.BankAccountRepository;
 import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.PasswordHasher;
+import com.eaglebank.security.PrincipalCache;
 import com.eaglebank.util.SecurityUtils;
-import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.NoSuchElementException;
 
 @Service
 public class UserService {
@@ -19,16 +20,19 @@ public class UserService {
     private final UserRepository repo;
     private final BankAccountRepository bankAccountRepository;
     private final SecurityUtils securityUtils;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final PrincipalCache principalCache;
 
     public UserService(UserRepository repo,
                        BankAccountRepository bankAccountRepository,
                        SecurityUtils securityUtils,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordHasher passwordHasher,
+                       PrincipalCache principalCache) {
         this.repo = repo;
         this.bankAccountRepository = bankAccountRepository;
         this.securityUtils = securityUtils;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.principalCache = principalCache;
     }
 
     public UserResponse createUser(UserRequest request) {
@@ -39,7 +43,7 @@ public class UserService {
         User newUser = new User();
         newUser.setFullName(request.fullName());
         newUser.setEmail(request.email());
-        newUser.setPassword(passwordEncoder.encode(request.password()));
+        newUser.setPassword(passwordHasher.hash(request.password()));
 
         User savedUser = repo.save(newUser);
         return mapToResponse(savedUser);
@@ -51,15 +55,30 @@ public class UserService {
         return mapToResponse(user);
     }
 
+    /**
+     * Returns the user's current version for a conditional GET, after the same checks as
+     * {@link #getUserByIdForCurrentUser(Long)}, without loading the user.
+     */
+    public long getUserVersionForCurrentUser(Long userId) {
+        // One query when the caller asks for their own record; telling 404 from 403 costs a second one.
+        return repo.findVersionByIdAndEmail(userId, securityUtils.getAuthenticatedEmail())
+                .orElseThrow(() -> repo.existsById(userId)
+                        ? new ForbiddenException("Access denied")
+                        : new ResourceNotFoundException("User not found"));
+    }
+
     public UserResponse updateUserDetails(Long userId, UserRequest request) {
         User user = getUserOrThrow(userId);
         ensureCurrentUserAccess(user);
 
+        String previousEmail = user.getEmail();
         user.setFullName(request.fullName());
         user.setEmail(request.email());
-        user.setPassword(passwordEncoder.encode(request.password()));
+        user.setPassword(passwordHasher.hash(request.password()));
 
         User updated = repo.save(user);
+        principalCache.invalidate(previousEmail);
+        principalCache.invalidate(updated.getEmail());
         return mapToResponse(updated);
     }
 
@@ -72,19 +91,20 @@ public class UserService {
         }
 
         repo.delete(user);
+        principalCache.invalidate(user.getEmail());
     }
 
     // --- Private utility methods ---
 
     private User getUserOrThrow(Long userId) {
         return repo.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("User not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
     private void ensureCurrentUserAccess(User user) {
         String authenticatedEmail = securityUtils.getAuthenticatedEmail();
         if (!user.getEmail().equals(authenticatedEmail)) {
-            throw new AccessDeniedException("Access denied");
+            throw new ForbiddenException("Access denied");
         }
     }
 
@@ -1,13 +1,13 @@
 package com.eaglebank.util;
 
-import com.eaglebank.model.User;
-import org.springframework.security.access.AccessDeniedException;
+import com.eaglebank.exception.ForbiddenException;
+import com.eaglebank.security.AuthenticatedUser;
 
 public class AccessValidator {
 
-    public static void validateOwnership(User resourceOwner, User currentUser) {
-        if (!resourceOwner.getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Access denied");
+    public static void validateOwnership(Long resourceOwnerId, AuthenticatedUser currentUser) {
+        if (!resourceOwnerId.equals(currentUser.id())) {
+            throw new ForbiddenException("Access denied");
         }
     }
 }
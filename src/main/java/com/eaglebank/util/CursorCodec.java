@@ -0,0 +1,30 @@
+package com.eaglebank.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions as opaque, URL-safe cursors so clients never depend on the underlying ids.
+ */
+public class CursorCodec {
+
+    private static final String PREFIX = "v1:";
+
+    public static String encode(long lastSeenId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastSeenId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and NumberFormatException.
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.eaglebank.util;
 
 import com.eaglebank.model.User;
 import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.security.PrincipalCache;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
@@ -9,18 +12,33 @@ import org.springframework.stereotype.Component;
 public class SecurityUtils {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public SecurityUtils(UserRepository userRepository) {
+    public SecurityUtils(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     public String getAuthenticatedEmail() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
+    /**
+     * Returns the caller's id and email. Tokens that carry the user id claim resolve without touching the
+     * users table; legacy email-only tokens (and non-JWT authentications) fall back to a cached lookup.
+     */
+    public AuthenticatedUser getAuthenticatedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal && principal.id() != null) {
+            return principal;
+        }
+        User user = getAuthenticatedUser();
+        return new AuthenticatedUser(user.getId(), user.getEmail());
+    }
+
     public User getAuthenticatedUser() {
         String email = getAuthenticatedEmail();
-        return userRepository.findByEmail(email)
+        return principalCache.resolve(email, userRepository::findByEmail)
                 .orElseThrow(() -> new IllegalArgumentException("Authenticated user not found"));
     }
 }
@@ -0,0 +1,56 @@
+package com.eaglebank.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdmissionControlledDataSourceTest {
+
+    private DataSource target;
+    private AdmissionControlledDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        dataSource = new AdmissionControlledDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testGetConnection_NoPermitLeft_TimesOut() throws SQLException {
+        Connection held = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+
+        held.close();
+    }
+
+    @Test
+    void testClose_ReleasesPermitExactlyOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+
+        connection.close();
+        connection.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        assertDoesNotThrow(() -> dataSource.getConnection().close());
+    }
+
+    @Test
+    void testGetConnection_PoolFailure_ReturnsPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
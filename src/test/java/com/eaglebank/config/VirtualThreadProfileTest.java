@@ -0,0 +1,33 @@
+package com.eaglebank.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("virtual")
+class VirtualThreadProfileTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testVirtualProfile_WrapsDataSourceWithPoolSizedAdmission() throws Exception {
+        assertThat(dataSource).isInstanceOf(AdmissionControlledDataSource.class);
+        assertThat(((AdmissionControlledDataSource) dataSource).availablePermits()).isEqualTo(10);
+
+        mockMvc.perform(get("/v1/accounts")).andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,87 @@
+package com.eaglebank.controller;
+
+import com.eaglebank.dto.UserLoginRequest;
+import com.eaglebank.model.User;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.PrincipalCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository bankRepository;
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setup() {
+        bankRepository.deleteAll();
+        userRepository.deleteAll();
+        principalCache.invalidateAll();
+    }
+
+    private User createUserWithHash(String email, String hash) {
+        return userRepository.save(new User(null, "Alice", hash, email));
+    }
+
+    private String loginJson(String email, String password) throws Exception {
+        return objectMapper.writeValueAsString(new UserLoginRequest(email, password));
+    }
+
+    @Test
+    void testLogin_ValidCredentials_ShouldReturn200WithToken() throws Exception {
+        createUserWithHash("alice@example.com", new BCryptPasswordEncoder(10).encode("secret"));
+
+        mockMvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson("alice@example.com", "secret")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    void testLogin_WrongPassword_ShouldReturn400() throws Exception {
+        createUserWithHash("alice@example.com", new BCryptPasswordEncoder(10).encode("secret"));
+
+        mockMvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson("alice@example.com", "wrong")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testLogin_HashBelowConfiguredCost_IsUpgradedTransparently() throws Exception {
+        User user = createUserWithHash("alice@example.com", new BCryptPasswordEncoder(4).encode("secret"));
+
+        mockMvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson("alice@example.com", "secret")))
+                .andExpect(status().isOk());
+
+        String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertThat(stored).startsWith("$2a$10$");
+        assertThat(new BCryptPasswordEncoder().matches("secret", stored)).isTrue();
+    }
+}
@@ -4,6 +4,7 @@ import com.eaglebank.dto.BankAccountRequest;
 import com.eaglebank.dto.BankAccountResponse;
 import com.eaglebank.service.BankAccountService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +16,11 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +37,11 @@ public class BankAccountControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void stubRevision() {
+        Mockito.when(service.getAccountRevision(anyLong())).thenReturn(new BankAccountService.Revision(0L, -1));
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void testCreateAccount_WhenCurrentUserIsAuthenticated_ShouldReturn201_Created() throws Exception {
@@ -72,7 +81,45 @@ public class BankAccountControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(2L))
                 .andExpect(jsonPath("$.accountType").value("CURRENT"))
-                .andExpect(jsonPath("$.balance").value(5000.0));
+                .andExpect(jsonPath("$.balance").value(5000.0))
+                // Written by the precompiled converter, which sets the length; Jackson would stream without one.
+                .andExpect(header().longValue("Content-Length", 49));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testGetAccount_ShouldReturnVersionAsETag() throws Exception {
+        Mockito.when(service.getAccountRevision(2L)).thenReturn(new BankAccountService.Revision(7L, -1));
+        Mockito.when(service.getAccountById(2L)).thenReturn(new BankAccountResponse(2L, "CURRENT", 5000.0));
+
+        mockMvc.perform(get("/v1/accounts/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testGetAccount_WithBalanceAheadOfVersion_ShouldTagTheLastTransaction() throws Exception {
+        Mockito.when(service.getAccountRevision(2L)).thenReturn(new BankAccountService.Revision(7L, 42L));
+        Mockito.when(service.getAccountById(2L)).thenReturn(new BankAccountResponse(2L, "CURRENT", 5000.0));
+
+        mockMvc.perform(get("/v1/accounts/2").header("If-None-Match", "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7-42\""));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testGetAccount_WithCurrentETag_ShouldReturn304_WithoutLoadingAccount() throws Exception {
+        Mockito.when(service.getAccountRevision(2L)).thenReturn(new BankAccountService.Revision(7L, -1));
+
+        mockMvc.perform(get("/v1/accounts/2").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(content().string(""));
+
+        Mockito.verify(service, Mockito.never()).getAccountById(anyLong());
     }
 
     @Test
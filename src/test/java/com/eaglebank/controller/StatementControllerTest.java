@@ -0,0 +1,162 @@
+package com.eaglebank.controller;
+
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.User;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.JwtService;
+import com.eaglebank.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementControllerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 9, 30);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private BankAccount account;
+    private String token;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+        // Users are wiped behind UserService's back, so drop any principals cached by earlier tests.
+        principalCache.invalidateAll();
+
+        User owner = userRepository.save(new User(null, "Owner", "secret", "owner@example.com"));
+        account = accountRepository.save(new BankAccount(null, "SAVINGS", 100.0, owner));
+        token = jwtService.generateToken(owner.getId(), owner.getEmail());
+
+        saveTransaction(50.0, TransactionType.DEPOSIT, START, 150.0);
+        saveTransaction(30.0, TransactionType.WITHDRAWAL, START.plusDays(1), 120.0);
+        saveTransaction(5.0, TransactionType.DEPOSIT, START.plusDays(2), 125.0);
+    }
+
+    private void saveTransaction(double amount, TransactionType type, LocalDateTime timestamp, double balanceAfter) {
+        Transaction transaction = new Transaction(amount, type, timestamp, account);
+        transaction.setBalanceAfterTransaction(balanceAfter);
+        transactionRepository.save(transaction);
+    }
+
+    private MvcResult startExport(String accept, String query) throws Exception {
+        return mockMvc.perform(get("/v1/accounts/" + account.getId() + "/statement" + query)
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.ACCEPT, accept))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    @Test
+    void testExportStatement_Ndjson_StreamsRunningBalanceOldestFirst() throws Exception {
+        MvcResult started = startExport("application/x-ndjson", "");
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"type\":\"DEPOSIT\"", "\"amount\":50.0", "\"balanceAfter\":150.0",
+                "\"timestamp\":\"2025-03-01T09:30\"");
+        assertThat(lines[2]).contains("\"balanceAfter\":125.0");
+    }
+
+    @Test
+    void testExportStatement_CsvWithDateRange_OnlyIncludesRowsInRange() throws Exception {
+        MvcResult started = startExport("text/csv", "?from=2025-03-02T00:00:00&to=2025-03-03T00:00:00");
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + account.getId() + ".csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo("transactionId,timestamp,type,amount,balanceAfter");
+        assertThat(lines[1]).endsWith(",2025-03-02T09:30,WITHDRAWAL,30.0,120.0");
+    }
+
+    @Test
+    void testExportStatement_AcceptEncodingGzip_CompressesBody() throws Exception {
+        MvcResult started = mockMvc.perform(get("/v1/accounts/" + account.getId() + "/statement")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.ACCEPT, "text/csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] compressed = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(body.split("\n")).hasSize(4);
+        }
+    }
+
+    @Test
+    void testAcceptsGzip_HonoursQualityValues() {
+        assertThat(StatementController.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(StatementController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(StatementController.acceptsGzip("*")).isTrue();
+        assertThat(StatementController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(StatementController.acceptsGzip("gzip; q=0.000, deflate")).isFalse();
+        assertThat(StatementController.acceptsGzip("*;q=0.5, gzip;q=0")).isFalse();
+        assertThat(StatementController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(StatementController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(StatementController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void testExportStatement_AnotherUsersAccount_ShouldReturn403_Forbidden() throws Exception {
+        User intruder = userRepository.save(new User(null, "Intruder", "secret", "intruder@example.com"));
+
+        mockMvc.perform(get("/v1/accounts/" + account.getId() + "/statement")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(intruder.getEmail()))
+                        .header(HttpHeaders.ACCEPT, "application/x-ndjson"))
+                .andExpect(status().isForbidden());
+    }
+}
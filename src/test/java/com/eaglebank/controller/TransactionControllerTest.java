@@ -1,5 +1,10 @@
 package com.eaglebank.controller;
 
+import com.eaglebank.dto.BatchItemStatus;
+import com.eaglebank.dto.BatchTransactionRequest;
+import com.eaglebank.dto.BatchTransactionResponse;
+import com.eaglebank.dto.BatchTransactionResult;
+import com.eaglebank.dto.TransactionPageResponse;
 import com.eaglebank.dto.TransactionRequest;
 import com.eaglebank.dto.TransactionResponse;
 import com.eaglebank.model.TransactionType;
@@ -20,12 +25,16 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -66,7 +75,7 @@ public class TransactionControllerTest {
         TransactionRequest request = new TransactionRequest(100.0, TransactionType.DEPOSIT);
         TransactionResponse response = new TransactionResponse(1L, TransactionType.DEPOSIT, 100.0, 600.0);
 
-        Mockito.when(transactionService.createTransaction(eq(1L), any(TransactionRequest.class)))
+        Mockito.when(transactionService.createTransaction(eq(1L), any(TransactionRequest.class), isNull()))
                 .thenReturn(response);
 
         mockMvc.perform(post("/v1/accounts/1/transactions")
@@ -78,6 +87,23 @@ public class TransactionControllerTest {
                 .andExpect(jsonPath("$.updatedBalance").value(600.0));
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testCreateTransaction_PassesIdempotencyKey() throws Exception {
+        TransactionRequest request = new TransactionRequest(100.0, TransactionType.DEPOSIT);
+        TransactionResponse response = new TransactionResponse(1L, TransactionType.DEPOSIT, 100.0, 600.0);
+
+        Mockito.when(transactionService.createTransaction(eq(1L), any(TransactionRequest.class), eq("retry-7")))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/v1/accounts/1/transactions")
+                        .header("Idempotency-Key", "retry-7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value(1));
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void testCreateTransaction_MissingData_ShouldReturn400_BadRequest() throws Exception {
@@ -91,6 +117,61 @@ public class TransactionControllerTest {
                 .andExpect(jsonPath("$.error").value(Matchers.containsString("required")));
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testCreateTransactionBatch_ShouldReturnPerItemResults() throws Exception {
+        BatchTransactionRequest request = new BatchTransactionRequest(List.of(
+                new TransactionRequest(100.0, TransactionType.DEPOSIT),
+                new TransactionRequest(900.0, TransactionType.WITHDRAWAL)));
+        BatchTransactionResponse response = new BatchTransactionResponse(1L, 1, 1, 600.0, List.of(
+                new BatchTransactionResult(0, BatchItemStatus.APPLIED, 7L, TransactionType.DEPOSIT, 100.0, 600.0, null),
+                new BatchTransactionResult(1, BatchItemStatus.REJECTED, null, TransactionType.WITHDRAWAL, 900.0, 600.0,
+                        "Insufficient funds")));
+
+        Mockito.when(transactionService.createTransactions(eq(1L), any()))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/v1/accounts/1/transactions:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].transactionId").value(7))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].error").value("Insufficient funds"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testCreateTransactionBatch_EmptyBatch_ShouldReturn400_BadRequest() throws Exception {
+        mockMvc.perform(post("/v1/accounts/1/transactions:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactions\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("At least one transaction is required"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testListTransactions_ShouldReturnPageAndCursor() throws Exception {
+        TransactionPageResponse page = new TransactionPageResponse(
+                List.of(new TransactionResponse(9L, TransactionType.WITHDRAWAL, 25.0, 475.0)), "djE6OQ");
+
+        Mockito.when(transactionService.getTransactions(1L, null, TransactionType.WITHDRAWAL,
+                        LocalDateTime.of(2025, 1, 1, 0, 0), null, 1))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/v1/accounts/1/transactions")
+                        .param("type", "WITHDRAWAL")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value(9))
+                .andExpect(jsonPath("$.transactions[0].updatedBalance").value(475.0))
+                .andExpect(jsonPath("$.nextCursor").value("djE6OQ"));
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void testGetTransaction_ShouldReturnTransactionDetails() throws Exception {
@@ -113,7 +194,8 @@ public class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionId").value(transactionId))
                 .andExpect(jsonPath("$.type").value("DEPOSIT"))
                 .andExpect(jsonPath("$.amount").value(200.0))
-                .andExpect(jsonPath("$.updatedBalance").value(700.0));
+                .andExpect(jsonPath("$.updatedBalance").value(700.0))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"));
     }
 
     @Test
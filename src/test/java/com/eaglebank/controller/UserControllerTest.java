@@ -17,6 +17,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -122,6 +124,38 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.error").value("User not found"));
     }
 
+    @Test
+    void testGetUserById_WithCurrentETag_ShouldReturn304_UntilUserChanges() throws Exception {
+        User user = createUser("Alice Johnson", "alice@example.com", "password123");
+        String token = generateTokenForUser(user.getEmail());
+
+        String eTag = mockMvc.perform(get("/v1/users/" + user.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/users/" + user.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(patch("/v1/users/" + user.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequest("Alice Smith", "alice@example.com", "password123"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/" + user.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("Alice Smith"));
+    }
+
     @Test
     void testUpdateUser_ShouldReturn200_WithUpdatedDetails() throws Exception {
         User user = createUser("Old Name", "user@example.com", "password123");
@@ -0,0 +1,74 @@
+package com.eaglebank.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void testBusinessExceptions_CaptureNoStackTrace() {
+        assertEquals(0, new InsufficientFundsException("Insufficient funds").getStackTrace().length);
+        assertEquals(0, new UserConflictException("Conflict").getStackTrace().length);
+        assertEquals(0, new ConcurrentUpdateException("Concurrent update").getStackTrace().length);
+        assertEquals(0, new IdempotencyKeyReuseException("Key reused").getStackTrace().length);
+        assertEquals(0, new ResourceNotFoundException("Bank account not found").getStackTrace().length);
+        assertEquals(0, new ForbiddenException("Access denied").getStackTrace().length);
+    }
+
+    @Test
+    void testHandleNotFound_ReusesPreBuiltBody() {
+        ResponseEntity<byte[]> first = handler.handleNotFound(new ResourceNotFoundException("Bank account not found"));
+        ResponseEntity<byte[]> second = handler.handleNotFound(new ResourceNotFoundException("Bank account not found"));
+
+        assertEquals(HttpStatus.NOT_FOUND, first.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertEquals("{\"error\":\"Bank account not found\"}", new String(first.getBody(), StandardCharsets.UTF_8));
+        assertSame(first.getBody(), second.getBody());
+    }
+
+    @Test
+    void testHandleUserConflict_Returns409() {
+        ResponseEntity<byte[]> response = handler.handleUserConflict(new UserConflictException("Conflict: busy"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("{\"error\":\"Conflict: busy\"}", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHandleUnexpected_Returns500WithoutLeakingMessage() throws Exception {
+        ResponseEntity<byte[]> response = handler.handleUnexpected(new IllegalStateException("pool password=secret"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("{\"error\":\"Internal server error\"}", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHandleUnexpected_FrameworkException_IsRethrown() {
+        HttpRequestMethodNotSupportedException ex = new HttpRequestMethodNotSupportedException("PATCH");
+
+        assertSame(ex, assertThrows(HttpRequestMethodNotSupportedException.class, () -> handler.handleUnexpected(ex)));
+    }
+
+    @Test
+    void testErrorLogLimiter_AllowsOnePerTypePerInterval() throws InterruptedException {
+        ErrorLogLimiter limiter = new ErrorLogLimiter(Duration.ofMillis(50));
+
+        assertEquals(0, limiter.tryAcquire(IllegalStateException.class));
+        assertEquals(-1, limiter.tryAcquire(IllegalStateException.class));
+        assertEquals(-1, limiter.tryAcquire(IllegalStateException.class));
+        assertEquals(0, limiter.tryAcquire(NullPointerException.class));
+
+        Thread.sleep(60);
+        assertEquals(2, limiter.tryAcquire(IllegalStateException.class));
+    }
+}
@@ -0,0 +1,160 @@
+package com.eaglebank.idempotency;
+
+import com.eaglebank.dto.BankAccountRequest;
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.exception.IdempotencyKeyReuseException;
+import com.eaglebank.model.IdempotencyRecord;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.User;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.IdempotencyRecordRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.service.BankAccountService;
+import com.eaglebank.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotencyStoreTest {
+
+    private static final TransactionRequest DEPOSIT = new TransactionRequest(25.0, TransactionType.DEPOSIT);
+
+    @Autowired
+    private IdempotencyStore idempotency;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountSnapshotRepository snapshotRepository;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+
+    private AuthenticatedUser owner;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        User user = userRepository.save(new User(null, "Gateway", "secret", "gateway@example.com"));
+        owner = new AuthenticatedUser(user.getId(), user.getEmail());
+        authenticate();
+        accountId = bankAccountService.createAccount(new BankAccountRequest("CURRENT", 100.0)).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        idempotencyRepository.deleteAll();
+        transactionRepository.deleteAll();
+        snapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, List.of()));
+    }
+
+    private double balance() {
+        return bankAccountService.getAccountById(accountId).balance();
+    }
+
+    @Test
+    void testRetry_ReplaysFirstResultWithoutWriting() {
+        TransactionResponse first = transactionService.createTransaction(accountId, DEPOSIT, "retry-1");
+        TransactionResponse retry = transactionService.createTransaction(accountId, DEPOSIT, "retry-1");
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(balance()).isEqualTo(125.0);
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequest_IsRefused() {
+        transactionService.createTransaction(accountId, DEPOSIT, "reused");
+
+        assertThatThrownBy(() -> transactionService.createTransaction(accountId,
+                new TransactionRequest(40.0, TransactionType.WITHDRAWAL), "reused"))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testKeyStoredElsewhere_IsAnsweredFromTheTableAfterTheWriteFails() {
+        // Stored behind the store's back, as another instance would: neither its cache nor its filter knows it.
+        idempotencyRepository.save(new IdempotencyRecord(owner.id(), "other-instance", accountId,
+                TransactionType.DEPOSIT, 25.0, 4242L, 125.0, LocalDateTime.now().plusHours(1)));
+
+        TransactionResponse response = transactionService.createTransaction(accountId, DEPOSIT, "other-instance");
+
+        assertThat(response.transactionId()).isEqualTo(4242L);
+        assertThat(transactionRepository.count()).isZero();
+        assertThat(balance()).isEqualTo(100.0);
+    }
+
+    @Test
+    void testConcurrentRetries_WriteOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TransactionResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> {
+                    authenticate();
+                    return transactionService.createTransaction(accountId, DEPOSIT, "burst");
+                }));
+            }
+            Long transactionId = futures.get(0).get().transactionId();
+            for (Future<TransactionResponse> future : futures) {
+                assertThat(future.get().transactionId()).isEqualTo(transactionId);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(balance()).isEqualTo(125.0);
+    }
+
+    @Test
+    void testCompact_DeletesExpiredKeysAndForgetsThem() {
+        idempotencyRepository.save(new IdempotencyRecord(owner.id(), "expired", accountId,
+                TransactionType.DEPOSIT, 25.0, 4242L, 125.0, LocalDateTime.now().minusMinutes(1)));
+        transactionService.createTransaction(accountId, DEPOSIT, "live");
+
+        assertThat(idempotency.compact()).isEqualTo(1);
+
+        assertThat(idempotencyRepository.findByUserIdAndIdempotencyKey(owner.id(), "expired")).isEmpty();
+        assertThat(idempotency.find(owner.id(), "expired", accountId, DEPOSIT)).isEmpty();
+        assertThat(idempotency.find(owner.id(), "live", accountId, DEPOSIT)).isPresent();
+    }
+}
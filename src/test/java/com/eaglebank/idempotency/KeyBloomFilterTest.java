@@ -0,0 +1,47 @@
+package com.eaglebank.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyBloomFilterTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void testAddedKeys_AreAlwaysFound() {
+        KeyBloomFilter filter = new KeyBloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.add(i % 7, "key-" + i);
+        }
+
+        for (int i = 0; i < KEYS; i++) {
+            assertThat(filter.mightContain(i % 7, "key-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void testNewKeys_AreMistakenAtAboutTheConfiguredRate() {
+        KeyBloomFilter filter = new KeyBloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.add(1, "key-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (filter.mightContain(1, "other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(KEYS / 50);
+    }
+
+    @Test
+    void testScope_IncludesTheUser() {
+        KeyBloomFilter filter = new KeyBloomFilter(KEYS, 0.01);
+        filter.add(1, "shared");
+
+        assertThat(filter.mightContain(1, "shared")).isTrue();
+        assertThat(filter.mightContain(2, "shared")).isFalse();
+    }
+}
@@ -0,0 +1,185 @@
+package com.eaglebank.journal;
+
+import com.eaglebank.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedJournalTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @TempDir
+    private Path directory;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @Test
+    void testReopen_RecoversDurableRecords() throws IOException {
+        try (MappedJournal journal = open(4096)) {
+            JournalRecord last = null;
+            for (int i = 0; i < 10; i++) {
+                last = journal.append(7L, TransactionType.DEPOSIT, 10.0, 10.0 * (i + 1), NOW);
+            }
+            journal.awaitDurable(last.transactionId());
+        }
+
+        try (MappedJournal journal = open(4096)) {
+            List<JournalRecord> recovered = recovered(journal, 4);
+
+            assertEquals(6, recovered.size());
+            assertEquals(new JournalRecord(5, 7L, TransactionType.DEPOSIT, 10.0, 50.0, NOW), recovered.get(0));
+            assertEquals(10, journal.lastAppendedId());
+        }
+    }
+
+    @Test
+    void testReopen_TornTail_IsTruncatedAndOverwritten() throws IOException {
+        try (MappedJournal journal = open(4096)) {
+            for (int i = 0; i < 3; i++) {
+                journal.awaitDurable(journal.append(7L, TransactionType.DEPOSIT, 1.0, i + 1.0, NOW).transactionId());
+            }
+        }
+        // Corrupt the third record as a crash mid-write would.
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 2L * JournalRecord.SIZE + 20);
+        }
+
+        try (MappedJournal journal = open(4096)) {
+            assertEquals(2, recovered(journal, 0).size());
+
+            ids.set(50);
+            journal.awaitDurable(journal.append(7L, TransactionType.WITHDRAWAL, 1.0, 1.0, NOW).transactionId());
+        }
+        try (MappedJournal journal = open(4096)) {
+            assertEquals(List.of(1L, 2L, 51L), recovered(journal, 0).stream().map(JournalRecord::transactionId).toList());
+        }
+    }
+
+    @Test
+    void testAppend_FullSegment_RollsAndReleasesAppliedSegments() throws IOException {
+        // The smallest segment holds 17 plain records.
+        try (MappedJournal journal = open(JournalRecord.MAX_SIZE)) {
+            JournalRecord last = null;
+            for (int i = 0; i < 40; i++) {
+                last = journal.append(i, TransactionType.DEPOSIT, 1.0, 1.0, NOW);
+            }
+            journal.awaitDurable(last.transactionId());
+            assertEquals(3, journal.segmentCount());
+
+            journal.release(20);
+            assertEquals(2, journal.segmentCount());
+            assertEquals(23, recovered(journal, 0).size());
+
+            journal.release(40);
+            assertEquals(1, journal.segmentCount());
+        }
+    }
+
+    @Test
+    void testReopen_RecoversIdempotencyKeysBetweenPlainRecords() throws IOException {
+        String longKey = "ключ-".repeat(51);
+        try (MappedJournal journal = open(4096)) {
+            journal.append(7L, TransactionType.DEPOSIT, 1.0, 1.0, NOW);
+            journal.append(7L, TransactionType.DEPOSIT, 2.0, 3.0, NOW, 42L, "retry-1");
+            journal.append(8L, TransactionType.WITHDRAWAL, 1.0, 0.0, NOW, 42L, longKey);
+            journal.awaitDurable(journal.append(7L, TransactionType.DEPOSIT, 4.0, 7.0, NOW).transactionId());
+        }
+
+        try (MappedJournal journal = open(4096)) {
+            List<JournalRecord> recovered = recovered(journal, 0);
+
+            assertEquals(List.of(
+                    new JournalRecord(1, 7L, TransactionType.DEPOSIT, 1.0, 1.0, NOW),
+                    new JournalRecord(2, 7L, TransactionType.DEPOSIT, 2.0, 3.0, NOW, 42L, "retry-1"),
+                    new JournalRecord(3, 8L, TransactionType.WITHDRAWAL, 1.0, 0.0, NOW, 42L, longKey),
+                    new JournalRecord(4, 7L, TransactionType.DEPOSIT, 4.0, 7.0, NOW)), recovered);
+            assertEquals(4, journal.lastAppendedId());
+        }
+    }
+
+    @Test
+    void testAppend_TwoLanes_HandOverRecordsInIdOrder() throws Exception {
+        try (MappedJournal journal = open(4096)) {
+            List<Long> queued = new CopyOnWriteArrayList<>();
+            CountDownLatch firstHasId = new CountDownLatch(1);
+            CountDownLatch resumeFirst = new CountDownLatch(1);
+            // The first lane stalls right after taking its id, where it used to queue outside the append lock and
+            // could be overtaken by the second.
+            Thread first = new Thread(() -> journal.append(1L, TransactionType.DEPOSIT, 1.0, 1.0, NOW, 0, null,
+                    record -> {
+                        firstHasId.countDown();
+                        awaitQuietly(resumeFirst);
+                        queued.add(record.transactionId());
+                    }));
+            Thread second = new Thread(() -> journal.append(2L, TransactionType.DEPOSIT, 1.0, 1.0, NOW, 0, null,
+                    record -> queued.add(record.transactionId())));
+            first.start();
+            firstHasId.await();
+            second.start();
+            second.join(200);
+            assertTrue(second.isAlive(), "the second lane waits for the first to hand over its record");
+
+            resumeFirst.countDown();
+            first.join();
+            second.join();
+            assertEquals(List.of(1L, 2L), queued);
+        }
+    }
+
+    @Test
+    void testAwaitDurable_ManyAppends_ShareGroupCommits() throws IOException {
+        try (MappedJournal journal = open(1 << 20)) {
+            JournalRecord last = null;
+            for (int i = 0; i < 1_000; i++) {
+                last = journal.append(7L, TransactionType.DEPOSIT, 1.0, i + 1.0, NOW);
+            }
+            journal.awaitDurable(last.transactionId());
+
+            assertTrue(journal.flushCount() < 100, "flushes: " + journal.flushCount());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private MappedJournal open(long segmentSize) throws IOException {
+        return new MappedJournal(directory, segmentSize, 64, Duration.ofMillis(1), ids::incrementAndGet);
+    }
+
+    private static List<JournalRecord> recovered(MappedJournal journal, long afterId) {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.forEach(afterId, records::add);
+        return records;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
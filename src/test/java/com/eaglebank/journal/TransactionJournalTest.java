@@ -0,0 +1,202 @@
+package com.eaglebank.journal;
+
+import com.eaglebank.config.JournalProperties;
+import com.eaglebank.dto.BankAccountRequest;
+import com.eaglebank.dto.BatchItemStatus;
+import com.eaglebank.dto.BatchTransactionResponse;
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.model.IdempotencyRecord;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.User;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.IdempotencyRecordRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.service.BankAccountService;
+import com.eaglebank.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "eaglebank.journal.enabled=true")
+class TransactionJournalTest {
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        registry.add("eaglebank.journal.directory", directory::toString);
+    }
+
+    @Autowired
+    private TransactionJournal journal;
+    @Autowired
+    private JournalProperties properties;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountSnapshotRepository snapshotRepository;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        User owner = userRepository.save(new User(null, "Journal Owner", "secret", "journal@example.com"));
+        ownerId = owner.getId();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(owner.getId(), owner.getEmail()), null, List.of()));
+        accountId = bankAccountService.createAccount(new BankAccountRequest("SAVINGS", 100.0)).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        idempotencyRepository.deleteAll();
+        transactionRepository.deleteAll();
+        snapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testCreateTransaction_AcknowledgedFromJournal_ThenApplied() throws InterruptedException {
+        TransactionResponse deposit = transactionService.createTransaction(accountId,
+                new TransactionRequest(50.0, TransactionType.DEPOSIT));
+        TransactionResponse withdrawal = transactionService.createTransaction(accountId,
+                new TransactionRequest(30.0, TransactionType.WITHDRAWAL));
+
+        assertThat(deposit.updatedBalance()).isEqualTo(150.0);
+        assertThat(withdrawal.updatedBalance()).isEqualTo(120.0);
+        assertThat(withdrawal.transactionId()).isGreaterThan(deposit.transactionId());
+
+        awaitApplied(withdrawal.transactionId());
+        Transaction row = transactionRepository.findById(withdrawal.transactionId()).orElseThrow();
+        assertThat(row.getBalanceAfterTransaction()).isEqualTo(120.0);
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualTo(120.0);
+    }
+
+    @Test
+    void testCreateTransaction_RetryWithKey_ReplaysFromJournalAck() throws InterruptedException {
+        TransactionRequest deposit = new TransactionRequest(50.0, TransactionType.DEPOSIT);
+        TransactionResponse first = transactionService.createTransaction(accountId, deposit, "journal-retry");
+        TransactionResponse retry = transactionService.createTransaction(accountId, deposit, "journal-retry");
+
+        assertThat(retry).isEqualTo(first);
+        awaitApplied(first.transactionId());
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualTo(150.0);
+        assertThat(idempotencyRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCreateTransactions_RejectedItem_IsNotJournaled() throws InterruptedException {
+        BatchTransactionResponse response = transactionService.createTransactions(accountId, List.of(
+                new TransactionRequest(60.0, TransactionType.WITHDRAWAL),
+                new TransactionRequest(60.0, TransactionType.WITHDRAWAL),
+                new TransactionRequest(5.0, TransactionType.DEPOSIT)));
+
+        assertThat(response.results()).extracting(r -> r.status())
+                .containsExactly(BatchItemStatus.APPLIED, BatchItemStatus.REJECTED, BatchItemStatus.APPLIED);
+        assertThat(response.balance()).isEqualTo(45.0);
+
+        awaitApplied(response.results().get(2).transactionId());
+        assertThat(transactionRepository.count()).isEqualTo(2);
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualTo(45.0);
+    }
+
+    @Test
+    void testStart_ReplaysDurableRecordsMissingFromTheDatabase() throws IOException, InterruptedException {
+        TransactionResponse first = transactionService.createTransaction(accountId,
+                new TransactionRequest(10.0, TransactionType.DEPOSIT));
+        awaitApplied(first.transactionId());
+        journal.stop();
+
+        // A record that reached the journal but not the database, as after a crash between the two.
+        long id = jdbcTemplate.queryForObject("select next value for " + Transaction.ID_SEQUENCE, Long.class);
+        try (MappedJournal crashed = new MappedJournal(Path.of(properties.directory()),
+                properties.segmentSize().toBytes(), 1, Duration.ZERO, () -> id)) {
+            crashed.awaitDurable(crashed.append(accountId, TransactionType.DEPOSIT, 15.0, 125.0,
+                    LocalDateTime.now()).transactionId());
+        }
+        journal.start();
+
+        assertThat(transactionRepository.findById(id)).isPresent();
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualTo(125.0);
+        TransactionResponse next = transactionService.createTransaction(accountId,
+                new TransactionRequest(5.0, TransactionType.DEPOSIT));
+        assertThat(next.updatedBalance()).isEqualTo(130.0);
+        awaitApplied(next.transactionId());
+    }
+
+    @Test
+    void testStart_ReplaysJournaledIdempotencyKeys_KeepingTheFirstOfADuplicate() throws IOException {
+        journal.stop();
+
+        // Acknowledged with their keys but never applied; the same key sent to a second account is journaled twice.
+        long first = jdbcTemplate.queryForObject("select next value for " + Transaction.ID_SEQUENCE, Long.class);
+        long second = jdbcTemplate.queryForObject("select next value for " + Transaction.ID_SEQUENCE, Long.class);
+        long[] ids = {first, second};
+        int[] next = {0};
+        try (MappedJournal crashed = new MappedJournal(Path.of(properties.directory()),
+                properties.segmentSize().toBytes(), 1, Duration.ZERO, () -> ids[next[0]++])) {
+            crashed.append(accountId, TransactionType.DEPOSIT, 15.0, 115.0, LocalDateTime.now(), ownerId, "crash-key");
+            crashed.awaitDurable(crashed.append(accountId, TransactionType.DEPOSIT, 5.0, 120.0, LocalDateTime.now(),
+                    ownerId, "crash-key").transactionId());
+        }
+        journal.start();
+
+        assertThat(transactionRepository.findById(second)).isPresent();
+        IdempotencyRecord key = idempotencyRepository.findByUserIdAndIdempotencyKey(ownerId, "crash-key")
+                .orElseThrow();
+        assertThat(key.getTransactionId()).isEqualTo(first);
+        assertThat(key.getUpdatedBalance()).isEqualTo(115.0);
+        assertThat(idempotencyRepository.count()).isEqualTo(1);
+        assertThat(transactionService.createTransaction(accountId,
+                new TransactionRequest(15.0, TransactionType.DEPOSIT), "crash-key").transactionId()).isEqualTo(first);
+    }
+
+    private void awaitApplied(long transactionId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!transactionRepository.existsById(transactionId)) {
+            assertThat(System.nanoTime()).as("journal applied %d", transactionId).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
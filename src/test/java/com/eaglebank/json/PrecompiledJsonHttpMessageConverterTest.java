@@ -0,0 +1,112 @@
+package com.eaglebank.json;
+
+import com.eaglebank.dto.BankAccountRequest;
+import com.eaglebank.dto.BankAccountResponse;
+import com.eaglebank.dto.BatchItemStatus;
+import com.eaglebank.dto.BatchTransactionResponse;
+import com.eaglebank.dto.BatchTransactionResult;
+import com.eaglebank.dto.TransactionPageResponse;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.dto.UserLoginResponse;
+import com.eaglebank.dto.UserResponse;
+import com.eaglebank.model.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecompiledJsonHttpMessageConverterTest {
+
+    private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json().build();
+    private final PrecompiledJsonHttpMessageConverter converter = new PrecompiledJsonHttpMessageConverter();
+
+    @Test
+    void testWriters_MatchJacksonForEveryResponseRecord() throws Exception {
+        List<TransactionResponse> rows = new ArrayList<>();
+        for (long id = 3; id > 0; id--) {
+            rows.add(new TransactionResponse(id, TransactionType.WITHDRAWAL, 10.5, 500.0 + id));
+        }
+        List<Object> values = List.of(
+                new BankAccountResponse(7L, "SAVINGS", 1_000.25),
+                new BankAccountResponse(null, null, null),
+                new TransactionResponse(42L, TransactionType.DEPOSIT, 0.01, -12.3),
+                new TransactionPageResponse(rows, "djE6MQ"),
+                new TransactionPageResponse(List.of(), null),
+                new TransactionPageResponse(null, null),
+                new BatchTransactionResponse(9L, 1, 1, 99.99, List.of(
+                        new BatchTransactionResult(0, BatchItemStatus.APPLIED, 5L, TransactionType.DEPOSIT,
+                                100.0, 99.99, null),
+                        new BatchTransactionResult(1, BatchItemStatus.REJECTED, null, TransactionType.WITHDRAWAL,
+                                1e9, null, "Insufficient funds"))),
+                new UserResponse(Long.MAX_VALUE, "Zoë \"Q\" O'Brien\\\n\t\u0001 € 😀", "zoe@example.com"),
+                new UserLoginResponse("header.payload.signature"));
+
+        for (Object value : values) {
+            assertThat(write(value)).as(value.toString()).isEqualTo(jackson.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void testWriters_CoverEveryRegisteredType() {
+        assertThat(ResponseWriters.WRITERS.keySet()).containsExactlyInAnyOrder(
+                BankAccountResponse.class, TransactionResponse.class, TransactionPageResponse.class,
+                BatchTransactionResponse.class, UserResponse.class, UserLoginResponse.class);
+    }
+
+    @Test
+    void testNumbers_MatchJavaFormatting() {
+        SplittableRandom random = new SplittableRandom(25);
+        JsonOutput out = new JsonOutput(16);
+        List<Double> doubles = new ArrayList<>(List.of(0.0, -0.0, 0.001, 0.05, 0.1, 9_999_999.99, 1e7, -1e7, 1e-4,
+                123.456, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY));
+        for (int i = 0; i < 100_000; i++) {
+            doubles.add(random.nextLong(-2_000_000_000L, 2_000_000_000L) / 100.0);
+            doubles.add(random.nextDouble(-1e8, 1e8));
+        }
+        for (double value : doubles) {
+            out.reset();
+            out.number(value);
+            String expected = Double.isFinite(value) ? Double.toString(value) : "\"" + value + "\"";
+            assertThat(text(out)).isEqualTo(expected);
+        }
+
+        for (long value : new long[]{0, 7, -7, 10, 1_000_000, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            out.reset();
+            out.number(value);
+            assertThat(text(out)).isEqualTo(Long.toString(value));
+        }
+    }
+
+    @Test
+    void testConverter_WritesOnlyResponseRecordsAndSetsContentLength() throws Exception {
+        assertThat(converter.canWrite(BankAccountResponse.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(Map.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(BankAccountResponse.class, MediaType.APPLICATION_XML)).isFalse();
+        assertThat(converter.canRead(BankAccountRequest.class, MediaType.APPLICATION_JSON)).isFalse();
+
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(new UserLoginResponse("t"), MediaType.APPLICATION_JSON, message);
+        assertThat(message.getBodyAsString()).isEqualTo("{\"token\":\"t\"}");
+        assertThat(message.getHeaders().getContentLength()).isEqualTo(13);
+        assertThat(message.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    private String write(Object value) throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, MediaType.APPLICATION_JSON, message);
+        return message.getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    private static String text(JsonOutput out) {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
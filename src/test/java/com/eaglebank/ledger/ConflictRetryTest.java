@@ -0,0 +1,105 @@
+package com.eaglebank.ledger;
+
+import com.eaglebank.config.ConflictRetryProperties;
+import com.eaglebank.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConflictRetryTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConflictRetry retry(int maxAttempts, Duration backoff, Duration budget) {
+        return new ConflictRetry(new ConflictRetryProperties(maxAttempts, backoff, backoff, budget, 16), meterRegistry);
+    }
+
+    @Test
+    void testExecute_ConflictThenSuccess_ReturnsRetriedResult() {
+        ConflictRetry retry = retry(3, Duration.ofMillis(1), Duration.ofSeconds(1));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(7L, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(meterRegistry.get("eaglebank.ledger.conflicts").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("eaglebank.ledger.conflicts.backoff").timer().count()).isEqualTo(2);
+        assertThat(retry.contention().hottest(10)).singleElement()
+                .satisfies(hot -> assertThat(hot.accountId()).isEqualTo(7L))
+                .satisfies(hot -> assertThat(hot.conflicts()).isEqualTo(2));
+    }
+
+    @Test
+    void testExecute_BudgetSpent_GivesUpBeforeMaxAttempts() {
+        ConflictRetry retry = retry(100, Duration.ofMillis(50), Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(7L, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale");
+        })).isInstanceOf(ConcurrentUpdateException.class);
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("eaglebank.ledger.conflicts.exhausted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testExecute_OtherFailure_IsNotRetried() {
+        ConflictRetry retry = retry(3, Duration.ZERO, Duration.ofSeconds(1));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(7L, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("eaglebank.ledger.conflicts").counter().count()).isZero();
+    }
+
+    @Test
+    void testJitteredBackoff_StaysUnderDoublingCeiling() {
+        ConflictRetry retry = new ConflictRetry(new ConflictRetryProperties(
+                10, Duration.ofMillis(4), Duration.ofMillis(20), Duration.ofSeconds(1), 16), meterRegistry);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(retry.jitteredBackoff(1)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(4));
+            assertThat(retry.jitteredBackoff(2)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(8));
+            assertThat(retry.jitteredBackoff(64)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(20));
+        }
+    }
+
+    @Test
+    void testContention_RatesDecay_AndColdestAccountIsEvicted() {
+        AtomicLong clock = new AtomicLong();
+        AccountContention contention = new AccountContention(2, clock::get);
+
+        contention.recordConflict(1L);
+        contention.recordConflict(1L);
+        contention.recordConflict(2L);
+        assertThat(contention.hottestPerMinute()).isEqualTo(2.0);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(contention.hottestPerMinute()).isCloseTo(2.0 / Math.E, Offset.offset(1e-9));
+
+        contention.recordConflict(3L);
+        assertThat(contention.trackedAccounts()).isEqualTo(2);
+        assertThat(contention.hottest(10)).extracting(AccountContention.HotAccount::accountId)
+                .containsExactly(3L, 1L);
+    }
+}
@@ -0,0 +1,210 @@
+package com.eaglebank.ledger;
+
+import com.eaglebank.config.LedgerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.eaglebank.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerEngineTest {
+
+    private LedgerEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new LedgerEngine(new LedgerProperties(4, 1024, 100, 64, Duration.ZERO),
+                TransactionOperations.withoutTransaction(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void testConcurrentDepositsOnSameAccount_AreNeverLost() throws Exception {
+        long[] balance = {0};
+        int clients = 8;
+        int depositsPerClient = 500;
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            done.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < depositsPerClient; i++) {
+                    // Plain, unsynchronized read-modify-write: only safe because the lane is single-writer.
+                    engine.execute(1L, () -> balance[0] += 1);
+                }
+            }, pool));
+        }
+        CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).get();
+        pool.shutdown();
+
+        assertEquals((long) clients * depositsPerClient, balance[0]);
+    }
+
+    @Test
+    void testCommandsForOneAccount_ApplyInSubmissionOrder() {
+        List<Integer> applied = new ArrayList<>();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int seq = i;
+            futures.add(engine.submit(7L, () -> applied.add(seq)));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, applied.get(i));
+        }
+    }
+
+    @Test
+    void testDistinctAccounts_SpreadAcrossLanes() {
+        Set<String> threads = new HashSet<>();
+        for (long accountId = 1; accountId <= 4; accountId++) {
+            threads.add(engine.execute(accountId, () -> Thread.currentThread().getName()));
+        }
+
+        assertEquals(4, threads.size());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("ledger-lane-")));
+    }
+
+    @Test
+    void testCommandFailure_RethrowsOriginalException() {
+        assertThrows(InsufficientFundsException.class, () -> engine.execute(3L, () -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        }));
+
+        assertEquals("still serving", engine.execute(3L, () -> "still serving"));
+    }
+
+    @Test
+    void testQueuedCommands_CommitTogether_AndFailIndividually() throws Exception {
+        CountingTransactions transactions = new CountingTransactions();
+        LedgerEngine batching = new LedgerEngine(new LedgerProperties(1, 1024, 100, 64, Duration.ZERO),
+                transactions, new SimpleMeterRegistry());
+        try {
+            CountDownLatch release = blockLane(batching);
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int seq = i;
+                results.add(batching.submit(1L, () -> {
+                    if (seq == 4) {
+                        throw new InsufficientFundsException("Insufficient funds");
+                    }
+                    return seq;
+                }));
+            }
+            release.countDown();
+
+            for (int i = 0; i < 10; i++) {
+                CompletableFuture<Integer> result = results.get(i);
+                if (i == 4) {
+                    ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+                    assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+                } else {
+                    assertEquals(i, result.get());
+                }
+            }
+            // One for the blocking command, one for the ten queued behind it.
+            assertEquals(2, transactions.begun.get());
+        } finally {
+            batching.shutdown();
+        }
+    }
+
+    @Test
+    void testBatchCommitFailure_RetriesEachCommandAlone() throws Exception {
+        CountingTransactions transactions = new CountingTransactions();
+        // The first transaction holds the blocking command, the second the batch queued behind it.
+        transactions.failingTransaction.set(2);
+        LedgerEngine batching = new LedgerEngine(new LedgerProperties(1, 1024, 100, 64, Duration.ZERO),
+                transactions, new SimpleMeterRegistry());
+        try {
+            CountDownLatch release = blockLane(batching);
+            AtomicInteger runs = new AtomicInteger();
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                results.add(batching.submit(1L, runs::incrementAndGet));
+            }
+            release.countDown();
+
+            for (CompletableFuture<Integer> result : results) {
+                assertTrue(result.get() > 5);
+            }
+            assertEquals(10, runs.get());
+        } finally {
+            batching.shutdown();
+        }
+    }
+
+    @Test
+    void testShutdown_FailsQueuedAndLaterCommands() throws Exception {
+        LedgerEngine stopping = new LedgerEngine(new LedgerProperties(1, 1024, 100, 64, Duration.ZERO),
+                TransactionOperations.withoutTransaction(), new SimpleMeterRegistry());
+        blockLane(stopping);
+        CompletableFuture<String> queued = stopping.submit(1L, () -> "never runs");
+
+        stopping.shutdown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertThrows(RejectedExecutionException.class, () -> stopping.execute(1L, () -> "too late"));
+    }
+
+    // Occupies the single lane until the returned latch is released, so that later submissions queue up.
+    private static CountDownLatch blockLane(LedgerEngine engine) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        engine.submit(1L, () -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        started.await();
+        return release;
+    }
+
+    private static final class CountingTransactions implements TransactionOperations {
+
+        private final AtomicInteger begun = new AtomicInteger();
+        private final AtomicInteger failingTransaction = new AtomicInteger();
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            int number = begun.incrementAndGet();
+            T result = action.doInTransaction(new SimpleTransactionStatus());
+            if (number == failingTransaction.get()) {
+                throw new TransactionSystemException("Commit failed");
+            }
+            return result;
+        }
+    }
+}
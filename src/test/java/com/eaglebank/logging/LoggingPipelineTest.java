@@ -0,0 +1,120 @@
+package com.eaglebank.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggingPipelineTest {
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> sink;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        // Async appenders snapshot the MDC on the calling thread
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        sink = new ListAppender<>();
+        sink.setContext(context);
+        sink.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(sink);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    private void addSampling(String logger, int keepOneIn) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLogger(logger);
+        filter.setKeepOneIn(keepOneIn);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    @Test
+    void testSampling_ThinsInfoFromMatchingLoggerOnly() {
+        addSampling("com.eaglebank.controller", 10);
+        Logger controller = context.getLogger("com.eaglebank.controller.UserController");
+        Logger service = context.getLogger("com.eaglebank.service.UserService");
+
+        for (int i = 0; i < 10_000; i++) {
+            controller.info("Fetching user details for userId={}", i);
+            service.info("Loaded userId={}", i);
+        }
+
+        long kept = sink.list.stream().filter(e -> e.getLoggerName().startsWith("com.eaglebank.controller")).count();
+        assertTrue(kept > 700 && kept < 1300, "kept " + kept);
+        assertEquals(10_000, sink.list.size() - kept);
+    }
+
+    @Test
+    void testSampling_NeverDropsWarningsOrErrors() {
+        addSampling("com.eaglebank.controller", 1000);
+        Logger controller = context.getLogger("com.eaglebank.controller.AuthController");
+
+        for (int i = 0; i < 100; i++) {
+            controller.warn("Login failed: invalid password for email={}", "user" + i);
+            controller.error("Unexpected failure");
+        }
+
+        assertEquals(200, sink.list.size());
+    }
+
+    @Test
+    void testAsyncAppender_FullBuffer_DropsWithoutBlockingAndCounts() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        AppenderBase<ILoggingEvent> slowSink = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                workerBusy.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        slowSink.setContext(context);
+        slowSink.start();
+
+        DropCountingAsyncAppender async = new DropCountingAsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(1);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(slowSink);
+        async.start();
+        Logger logger = context.getLogger("com.eaglebank.controller.TransactionController");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+
+        long droppedBefore = DropCountingAsyncAppender.dropped();
+        logger.info("first");
+        assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+        logger.info("queued");
+        logger.info("dropped 1");
+        logger.info("dropped 2");
+
+        assertEquals(2, DropCountingAsyncAppender.dropped() - droppedBefore);
+        release.countDown();
+        async.stop();
+    }
+}
@@ -0,0 +1,96 @@
+package com.eaglebank.metrics;
+
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.User;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Over real HTTP: the Prometheus endpoint lives on the management server, which MockMvc cannot reach.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @LocalServerPort
+    private int port;
+    @LocalManagementPort
+    private int managementPort;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JwtService jwtService;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private BankAccount account;
+    private String token;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User owner = userRepository.save(new User(null, "Owner", "secret", "metrics@example.com"));
+        account = accountRepository.save(new BankAccount(null, "SAVINGS", 100.0, owner));
+        token = jwtService.generateToken(owner.getId(), owner.getEmail());
+    }
+
+    @Test
+    void testAccountRead_RecordsStatementsPerRequestForItsUriTemplate() throws Exception {
+        assertThat(get(port, "/v1/accounts/" + account.getId(), token).statusCode()).isEqualTo(200);
+
+        var statements = meterRegistry.get("eaglebank.persistence.statements.per.request")
+                .tag("uri", "/v1/accounts/{accountId}")
+                .summary();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testPrometheusEndpoint_IsServedOnTheManagementPortOnly() throws Exception {
+        assertThat(get(port, "/v1/accounts/" + account.getId(), token).statusCode()).isEqualTo(200);
+        assertThat(get(port, "/actuator/prometheus", null).statusCode()).isEqualTo(404);
+
+        HttpResponse<String> response = get(managementPort, "/actuator/prometheus", null);
+        assertThat(response.statusCode()).isEqualTo(200);
+        String scrape = response.body();
+
+        assertThat(scrape).contains(
+                "eaglebank_transactions_applied_total",
+                "eaglebank_ledger_apply_seconds",
+                "eaglebank_auth_jwt_verify_seconds_bucket",
+                "eaglebank_auth_principal_lookups_total",
+                "hikaricp_connections_acquire_seconds",
+                "http_server_requests_seconds_bucket");
+    }
+
+    private HttpResponse<String> get(int port, String path, String bearer) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
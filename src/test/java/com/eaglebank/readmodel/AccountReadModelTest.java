@@ -0,0 +1,121 @@
+package com.eaglebank.readmodel;
+
+import com.eaglebank.config.ReadModelProperties;
+import com.eaglebank.config.ReadModelProperties.Consistency;
+import com.eaglebank.repository.BankAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountReadModelTest {
+
+    private final BankAccountRepository accountRepository = mock(BankAccountRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccountReadModel readModel;
+
+    @AfterEach
+    void tearDown() {
+        if (readModel != null) {
+            readModel.stop();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private AccountReadModel start(Consistency consistency, AccountView... views) {
+        when(accountRepository.findAllViews()).thenReturn(List.of(views));
+        readModel = new AccountReadModel(new ReadModelProperties(true, consistency, 1024), accountRepository,
+                meterRegistry);
+        readModel.start();
+        return readModel;
+    }
+
+    @Test
+    void testStart_LoadsEveryAccount_AndReportsSizing() {
+        start(Consistency.READ_YOUR_WRITES,
+                new AccountView(1L, 10L, "SAVINGS", 100.0, 0L, 0L),
+                new AccountView(2L, 10L, "CURRENT", 5.0, 0L, 0L));
+
+        assertThat(readModel.find(1L)).map(AccountView::ownerId).contains(10L);
+        assertThat(readModel.find(3L)).isEmpty();
+        assertThat(meterRegistry.get("eaglebank.readmodel.accounts").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("eaglebank.readmodel.memory.estimated").gauge().value())
+                .isEqualTo(2.0 * AccountReadModel.BYTES_PER_ACCOUNT);
+        assertThat(meterRegistry.get("eaglebank.readmodel.reads").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("eaglebank.readmodel.reads").tag("result", "miss").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testRecordBalance_OlderTransaction_IsIgnored() {
+        start(Consistency.READ_YOUR_WRITES, new AccountView(1L, 10L, "SAVINGS", 100.0, 0L, 0L));
+
+        readModel.recordBalance(1L, 130.0, 12L);
+        readModel.recordBalance(1L, 110.0, 11L);
+        readModel.recordBalance(2L, 50.0, 13L);
+
+        assertThat(readModel.find(1L)).map(AccountView::balance).contains(130.0);
+        assertThat(readModel.find(2L)).isEmpty();
+    }
+
+    @Test
+    void testRecord_InsideTransaction_AppliesOnlyAfterCommit() {
+        start(Consistency.READ_YOUR_WRITES);
+        TransactionSynchronizationManager.initSynchronization();
+
+        readModel.record(new AccountView(1L, 10L, "SAVINGS", 100.0, 0L, 0L));
+        assertThat(readModel.find(1L)).isEmpty();
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(readModel.find(1L)).map(AccountView::balance).contains(100.0);
+    }
+
+    @Test
+    void testEventual_ProjectorAppliesUpdatesInOrder() throws InterruptedException {
+        start(Consistency.EVENTUAL, new AccountView(1L, 10L, "SAVINGS", 100.0, 0L, 0L));
+
+        for (int i = 1; i <= 100; i++) {
+            readModel.recordBalance(1L, 100.0 + i, i);
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (readModel.find(1L).orElseThrow().lastTransactionId() < 100) {
+            assertThat(System.nanoTime()).as("projected").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        assertThat(readModel.find(1L)).map(AccountView::balance).contains(200.0);
+    }
+
+    @Test
+    void testEventual_WriterReadsOwnWritesBeforeProjection() throws InterruptedException {
+        start(Consistency.EVENTUAL, new AccountView(1L, 10L, "SAVINGS", 100.0, 0L, 0L));
+
+        for (int i = 1; i <= 100; i++) {
+            readModel.recordBalance(1L, 100.0 + i, i);
+            assertThat(readModel.find(1L, 10L)).map(AccountView::balance).contains(100.0 + i);
+        }
+        readModel.record(new AccountView(2L, 10L, "CURRENT", 5.0, 0L, 0L));
+        assertThat(readModel.find(2L, 10L)).map(AccountView::balance).contains(5.0);
+
+        // Once projected, everyone sees the writes and the writer's copies are released.
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (readModel.find(1L).orElseThrow().lastTransactionId() < 100 || readModel.find(2L).isEmpty()
+                || readModel.estimatedBytes() > 2 * AccountReadModel.BYTES_PER_ACCOUNT) {
+            assertThat(System.nanoTime()).as("projected").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        assertThat(readModel.find(1L, 99L)).map(AccountView::balance).contains(200.0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.metrics.StatementCounter;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TransactionRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private BankAccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private BankAccount account;
+    private BankAccount otherAccount;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "Owner", "secret", "owner@example.com"));
+        account = accountRepository.save(new BankAccount(null, "SAVINGS", 0.0, owner));
+        otherAccount = accountRepository.save(new BankAccount(null, "CURRENT", 0.0, owner));
+
+        for (int day = 0; day < 5; day++) {
+            TransactionType type = day % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+            save(account, type, day);
+            save(otherAccount, TransactionType.DEPOSIT, day);
+        }
+    }
+
+    private void save(BankAccount target, TransactionType type, int day) {
+        Transaction transaction = new Transaction(10.0, type, START.plusDays(day), target);
+        transaction.setBalanceAfterTransaction(100.0 + day);
+        transactionRepository.save(transaction);
+    }
+
+    @Test
+    void findPageByAccountId_SeeksNewestFirstAcrossPages() {
+        List<TransactionResponse> first = transactionRepository.findPageByAccountId(
+                account.getId(), Long.MAX_VALUE, null, null, null, Limit.of(3));
+        List<TransactionResponse> second = transactionRepository.findPageByAccountId(
+                account.getId(), first.get(2).transactionId(), null, null, null, Limit.of(3));
+
+        assertThat(first).extracting(TransactionResponse::updatedBalance).containsExactly(104.0, 103.0, 102.0);
+        assertThat(second).extracting(TransactionResponse::updatedBalance).containsExactly(101.0, 100.0);
+    }
+
+    @Test
+    void findPageByAccountId_AppliesTypeAndTimeFilters() {
+        List<TransactionResponse> page = transactionRepository.findPageByAccountId(
+                account.getId(), Long.MAX_VALUE, TransactionType.DEPOSIT, START.plusDays(1), START.plusDays(4),
+                Limit.of(10));
+
+        assertThat(page).singleElement().satisfies(tx -> {
+            assertThat(tx.type()).isEqualTo(TransactionType.DEPOSIT);
+            assertThat(tx.updatedBalance()).isEqualTo(102.0);
+        });
+    }
+
+    @Test
+    void saveAll_ManyTransactions_InsertsInJdbcBatches() {
+        int rows = 200;
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Transaction transaction = new Transaction(1.0, TransactionType.DEPOSIT, START.plusMinutes(i), account);
+            transaction.setBalanceAfterTransaction(1.0 + i);
+            transactions.add(transaction);
+        }
+
+        long statements;
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            transactionRepository.saveAll(transactions);
+            entityManager.flush();
+            statements = scope.count();
+        }
+
+        // 4 batched INSERTs of 50 plus a few pooled sequence fetches; IDENTITY ids needed one INSERT per row.
+        assertThat(statements).isBetween((long) rows / 50, (long) rows / 50 + 5);
+        assertThat(transactions).extracting(Transaction::getId).isSorted().doesNotHaveDuplicates();
+    }
+}
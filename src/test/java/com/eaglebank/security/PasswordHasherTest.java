@@ -0,0 +1,129 @@
+package com.eaglebank.security;
+
+import com.eaglebank.config.PasswordHashingProperties;
+import com.eaglebank.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void testHashAndMatches_RoundTripOnPool() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), new PasswordHashingProperties(4, 1, 4, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+
+        String hash = hasher.hash("secret");
+
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertEquals(3, hasher.stats().completed());
+    }
+
+    @Test
+    void testNeedsRehash_OnlyForHashesBelowConfiguredCost() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(6), new PasswordHashingProperties(6, 1, 4, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+    }
+
+    @Test
+    void testSaturatedPool_RejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        // One thread and one queue slot: the third concurrent request has nowhere to go.
+        hasher = new PasswordHasher(blocking, new PasswordHashingProperties(4, 1, 1, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.hash("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.hash("b"));
+        while (hasher.stats().queueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(HashingCapacityExceededException.class, () -> hasher.hash("c"));
+        assertEquals(1, hasher.stats().rejected());
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testQueueOutlastingTheTimeout_RejectsBeforeQueuing() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        // Room in the queue for all three, but time within the timeout for only two hashes in a row.
+        hasher = new PasswordHasher(slow, new PasswordHashingProperties(4, 1, 4, Duration.ofMillis(750)), new SimpleMeterRegistry());
+        hasher.hash("warm-up");
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.hash("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.hash("b"));
+        while (hasher.stats().queueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(HashingCapacityExceededException.class, () -> hasher.hash("c"));
+        assertEquals(1, hasher.stats().rejected());
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSlowHash_TimesOutWithCapacityError() {
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+        hasher = new PasswordHasher(slow, new PasswordHashingProperties(4, 1, 1, Duration.ofMillis(50)), new SimpleMeterRegistry());
+
+        assertThrows(HashingCapacityExceededException.class, () -> hasher.matches("a", "b"));
+    }
+}
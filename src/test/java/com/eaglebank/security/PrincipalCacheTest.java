@@ -0,0 +1,96 @@
+package com.eaglebank.security;
+
+import com.eaglebank.config.PrincipalCacheProperties;
+import com.eaglebank.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private PrincipalCache cache;
+    private AtomicInteger loads;
+    private Function<String, Optional<User>> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache(new PrincipalCacheProperties(100, Duration.ofMinutes(5)));
+        loads = new AtomicInteger();
+        loader = email -> {
+            loads.incrementAndGet();
+            return "missing@example.com".equals(email)
+                    ? Optional.empty()
+                    : Optional.of(new User(1L, "Alice", "hash", email));
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Test
+    void testRepeatedLookupsInOneRequest_HitTheRequestMemo() {
+        startRequest();
+
+        cache.resolve("alice@example.com", loader);
+        cache.resolve("alice@example.com", loader);
+        cache.resolve("alice@example.com", loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(new PrincipalCache.PrincipalCacheStats(2, 0, 1, 1), cache.stats());
+    }
+
+    @Test
+    void testLookupInLaterRequest_HitsTheSharedCache() {
+        startRequest();
+        cache.resolve("alice@example.com", loader);
+        startRequest();
+        User user = cache.resolve("alice@example.com", loader).orElseThrow();
+
+        assertEquals(1L, user.getId());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().cacheHits());
+    }
+
+    @Test
+    void testInvalidate_ForcesReload() {
+        cache.resolve("alice@example.com", loader);
+        cache.invalidate("alice@example.com");
+        cache.resolve("alice@example.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testUnknownUser_IsNotCached() {
+        assertTrue(cache.resolve("missing@example.com", loader).isEmpty());
+        assertTrue(cache.resolve("missing@example.com", loader).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testZeroTtl_DisablesSharedCache() {
+        cache = new PrincipalCache(new PrincipalCacheProperties(100, Duration.ZERO));
+
+        cache.resolve("alice@example.com", loader);
+        cache.resolve("alice@example.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+}
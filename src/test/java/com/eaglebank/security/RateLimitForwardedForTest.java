@@ -0,0 +1,44 @@
+package com.eaglebank.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login limits go by the client address the gateway forwards, through Tomcat's trusted-proxy handling; this test
+ * connects from loopback, which is a trusted proxy by default.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eaglebank.security.rate-limit.login.burst=1",
+        "eaglebank.security.rate-limit.login.per-second=0.001"})
+class RateLimitForwardedForTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void testLogin_IsLimitedPerForwardedClientNotPerGateway() throws Exception {
+        assertThat(login("203.0.113.1")).isNotEqualTo(429);
+        assertThat(login("203.0.113.2")).isNotEqualTo(429);
+        assertThat(login("203.0.113.1")).isEqualTo(429);
+    }
+
+    private int login(String client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", client)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"nobody@example.com\",\"password\":\"wrong-password\"}"))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,116 @@
+package com.eaglebank.security;
+
+import com.eaglebank.config.RateLimitProperties;
+import com.eaglebank.config.RateLimitProperties.Limit;
+import com.eaglebank.security.RateLimiter.RouteGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimiter limiter(Limit writes) {
+        return new RateLimiter(properties(writes, false), meterRegistry, clock::get);
+    }
+
+    private static RateLimitProperties properties(Limit writes, boolean perAccount) {
+        return new RateLimitProperties(true, perAccount, 1_000, new Limit(2, 1), new Limit(0, 0), writes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testTryAcquire_AllowsBurstThenRefillsAtRate() {
+        RateLimiter limiter = limiter(new Limit(3, 10));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(RouteGroup.WRITES, 1L, -1)).isZero();
+        }
+        assertThat(limiter.tryAcquire(RouteGroup.WRITES, 1L, -1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.tryAcquire(RouteGroup.WRITES, 1L, -1)).isZero();
+        assertThat(limiter.tryAcquire(RouteGroup.WRITES, 1L, -1)).isPositive();
+        assertThat(meterRegistry.counter("eaglebank.ratelimit.rejected", "group", "writes").count()).isEqualTo(2);
+    }
+
+    @Test
+    void testTryAcquire_BucketsAreSeparatePerSubjectAndAccount() {
+        RateLimiter limiter = limiter(new Limit(1, 1));
+
+        assertThat(limiter.tryAcquire(RouteGroup.WRITES, 1L, -1)).isZero();
+        assertThat(limiter.tryAcquire(RouteGroup.WRITES, 1L, -1)).isPositive();
+        assertThat(limiter.tryAcquire(RouteGroup.WRITES, 2L, -1)).isZero();
+        assertThat(limiter.tryAcquire(RouteGroup.WRITES, 1L, 7)).isZero();
+        assertThat(limiter.tryAcquire(RouteGroup.LOGIN, 1L, -1)).isZero();
+    }
+
+    @Test
+    void testTryAcquire_UnlimitedGroupNeverRefuses() {
+        RateLimiter limiter = limiter(new Limit(1, 1));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire(RouteGroup.READS, 1L, -1)).isZero();
+        }
+    }
+
+    @Test
+    void testFilter_RefusesWith429AndRetryAfter() throws Exception {
+        RateLimitProperties properties = properties(new Limit(1, 0.5), true);
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties, meterRegistry, clock::get), properties);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(9L, "client@example.com"), null, null));
+
+        assertThat(post(filter, "/v1/accounts/12/transactions").getStatus()).isEqualTo(200);
+        MockHttpServletResponse refused = post(filter, "/v1/accounts/12/transactions:batch");
+        assertThat(refused.getStatus()).isEqualTo(429);
+        assertThat(refused.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(refused.getContentAsString()).isEqualTo("{\"error\":\"Too many requests\"}");
+        // Per account: another account of the same user has its own bucket.
+        assertThat(post(filter, "/v1/accounts/13/transactions").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void testFilter_LimitsLoginPerClientAddress() throws Exception {
+        RateLimitProperties properties = properties(new Limit(1, 1), false);
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties, meterRegistry, clock::get), properties);
+
+        assertThat(post(filter, "/v1/auth/login").getStatus()).isEqualTo(200);
+        assertThat(post(filter, "/v1/users").getStatus()).isEqualTo(200);
+        assertThat(post(filter, "/v1/auth/login").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void testAccountId_ParsedFromAccountPathsOnly() {
+        assertThat(RateLimitFilter.accountId("/v1/accounts/42/transactions")).isEqualTo(42);
+        assertThat(RateLimitFilter.accountId("/v1/accounts/42")).isEqualTo(42);
+        assertThat(RateLimitFilter.accountId("/v1/accounts")).isEqualTo(-1);
+        assertThat(RateLimitFilter.accountId("/v1/users/42")).isEqualTo(-1);
+    }
+
+    private static MockHttpServletResponse post(RateLimitFilter filter, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
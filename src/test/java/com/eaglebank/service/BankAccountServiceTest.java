@@ -1,12 +1,17 @@
 package com.eaglebank.service;
 
+import com.eaglebank.config.ReadModelProperties;
 import com.eaglebank.dto.BankAccountRequest;
 import com.eaglebank.dto.BankAccountResponse;
 import com.eaglebank.model.BankAccount;
 import com.eaglebank.model.User;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.readmodel.AccountView;
 import com.eaglebank.repository.BankAccountRepository;
 import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
 import com.eaglebank.util.SecurityUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.access.AccessDeniedException;
@@ -25,13 +30,19 @@ class BankAccountServiceTest {
     private BankAccountRepository accountRepo;
     private UserRepository userRepo;
     private SecurityUtils securityUtils;
+    private LedgerSnapshotService ledgerSnapshots;
 
     @BeforeEach
     void setUp() {
         accountRepo = mock(BankAccountRepository.class);
         userRepo = mock(UserRepository.class);
         securityUtils = mock(SecurityUtils.class);
-        service = new BankAccountService(accountRepo, userRepo, securityUtils);
+        ledgerSnapshots = mock(LedgerSnapshotService.class);
+        service = new BankAccountService(accountRepo, userRepo, securityUtils, ledgerSnapshots, null);
+    }
+
+    private static AuthenticatedUser principalOf(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail());
     }
 
     @Test
@@ -41,7 +52,8 @@ class BankAccountServiceTest {
 
         BankAccount saved = new BankAccount(99L, "SAVINGS", 1000.0, user);
 
-        when(securityUtils.getAuthenticatedUser()).thenReturn(user);
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(principalOf(user));
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
         when(accountRepo.save(any())).thenReturn(saved);
 
         BankAccountResponse response = service.createAccount(request);
@@ -49,11 +61,24 @@ class BankAccountServiceTest {
         assertThat(response.id()).isEqualTo(99L);
         assertThat(response.accountType()).isEqualTo("SAVINGS");
         assertThat(response.balance()).isEqualTo(1000.0);
+        verify(ledgerSnapshots).recordOpening(saved);
+    }
+
+    @Test
+    void testCreateAccount_WhenTokenOutlivedDeletedUser_ShouldThrow404_NotFound() {
+        User deleted = new User(1L, "Gone", "gone@example.com", "pass");
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(principalOf(deleted));
+        when(userRepo.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.createAccount(new BankAccountRequest("SAVINGS", 1000.0)))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("User not found");
+        verify(accountRepo, never()).save(any());
     }
 
     @Test
     void testCreateAccount_WhenUserNotFound_ShouldThrow400_IllegalArgumentException() {
-        when(securityUtils.getAuthenticatedUser()).thenThrow(new IllegalArgumentException("User not found"));
+        when(securityUtils.getAuthenticatedPrincipal()).thenThrow(new IllegalArgumentException("User not found"));
 
         BankAccountRequest request = new BankAccountRequest("SAVINGS", 1000.0);
 
@@ -67,7 +92,7 @@ class BankAccountServiceTest {
         User user = new User(1L, "Owner", "owner@example.com", "pass");
         BankAccount account = new BankAccount(1L, "SAVINGS", 1000.0, user);
 
-        when(securityUtils.getAuthenticatedUser()).thenReturn(user);
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(principalOf(user));
         when(accountRepo.findById(1L)).thenReturn(Optional.of(account));
 
         BankAccountResponse response = service.getAccountById(1L);
@@ -81,7 +106,7 @@ class BankAccountServiceTest {
     void testGetAccountById_WhenAccountDoesNotExist_ShouldThrow404_AccountNotFound() {
         User user = new User(1L, "Owner", "owner@example.com", "pass");
 
-        when(securityUtils.getAuthenticatedUser()).thenReturn(user);
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(principalOf(user));
         when(accountRepo.findById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.getAccountById(1L))
@@ -95,11 +120,48 @@ class BankAccountServiceTest {
         User intruder = new User(2L, "Intruder", "intruder@example.com", "pass");
         BankAccount account = new BankAccount(1L, "SAVINGS", 999.0, owner);
 
-        when(securityUtils.getAuthenticatedUser()).thenReturn(intruder);
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(principalOf(intruder));
         when(accountRepo.findById(1L)).thenReturn(Optional.of(account));
 
         assertThatThrownBy(() -> service.getAccountById(1L))
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessageContaining("Access denied");
     }
+
+    @Test
+    void testGetAccountById_WhenAccountIsInReadModel_ShouldNotTouchRepository() {
+        User user = new User(1L, "Owner", "owner@example.com", "pass");
+        AccountReadModel readModel = new AccountReadModel(
+                new ReadModelProperties(true, ReadModelProperties.Consistency.READ_YOUR_WRITES, 16),
+                accountRepo, new SimpleMeterRegistry());
+        readModel.record(new AccountView(1L, 1L, "SAVINGS", 250.0, 0L, 7L));
+        service = new BankAccountService(accountRepo, userRepo, securityUtils, ledgerSnapshots, readModel);
+
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(principalOf(user));
+
+        BankAccountResponse response = service.getAccountById(1L);
+
+        assertThat(response.balance()).isEqualTo(250.0);
+        verifyNoInteractions(accountRepo);
+    }
+
+    @Test
+    void testGetAccountRevision_ChangesWhenBalanceMovesAheadOfVersion() {
+        User user = new User(1L, "Owner", "owner@example.com", "pass");
+        AccountReadModel readModel = new AccountReadModel(
+                new ReadModelProperties(true, ReadModelProperties.Consistency.READ_YOUR_WRITES, 16),
+                accountRepo, new SimpleMeterRegistry());
+        readModel.record(new AccountView(1L, 1L, "SAVINGS", 250.0, 3L, 7L));
+        service = new BankAccountService(accountRepo, userRepo, securityUtils, ledgerSnapshots, readModel);
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(principalOf(user));
+
+        BankAccountService.Revision before = service.getAccountRevision(1L);
+        // A journal acknowledgement: the balance moves now, the entity version only once the applier commits.
+        readModel.recordBalance(1L, 300.0, 8L);
+        BankAccountService.Revision after = service.getAccountRevision(1L);
+
+        assertThat(after.version()).isEqualTo(before.version());
+        assertThat(after).isNotEqualTo(before);
+        verifyNoInteractions(accountRepo);
+    }
 }
@@ -1,12 +1,15 @@
 package com.eaglebank.service;
 
 import com.eaglebank.security.JwtService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Base64;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -83,4 +86,57 @@ public class JwtServiceTest {
         boolean isValid = jwtService.isTokenValid(expiredToken, userDetails);
         assertFalse(isValid, "Expired token should be invalid");
     }
+
+    @Test
+    void testVerify_SameTokenTwice_IsServedFromCache() {
+        String token = jwtService.generateToken("alice@example.com");
+
+        JwtService.VerifiedToken first = jwtService.verify(token);
+        JwtService.VerifiedToken second = jwtService.verify(token);
+
+        assertSame(first, second, "Second verification should be answered from the cache");
+        assertEquals(1, jwtService.cachedTokenCount());
+    }
+
+    @Test
+    void testVerify_TamperedCopyOfCachedToken_IsRejected() {
+        String token = jwtService.generateToken("alice@example.com");
+        jwtService.verify(token);
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"mallory@example.com\"}".getBytes());
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtService.verify(forged));
+    }
+
+    @Test
+    void testVerify_ExpiredToken_IsNeverCached() {
+        String expiredToken = Jwts.builder()
+                .setSubject("expired@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(jwtService.getKey(), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expiredToken));
+        assertEquals(0, jwtService.cachedTokenCount());
+    }
+
+    @Test
+    void testVerify_TokenWithUserId_CarriesIdClaim() {
+        String token = jwtService.generateToken(42L, "alice@example.com");
+
+        JwtService.VerifiedToken verified = jwtService.verify(token);
+
+        assertEquals("alice@example.com", verified.subject());
+        assertEquals(42L, verified.userId());
+    }
+
+    @Test
+    void testVerify_LegacyEmailOnlyToken_HasNoUserId() {
+        String token = jwtService.generateToken("alice@example.com");
+
+        assertNull(jwtService.verify(token).userId());
+    }
 }
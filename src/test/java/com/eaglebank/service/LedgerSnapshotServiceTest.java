@@ -0,0 +1,129 @@
+package com.eaglebank.service;
+
+import com.eaglebank.dto.BankAccountRequest;
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.model.AccountSnapshot;
+import com.eaglebank.model.BankAccount;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.User;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = "eaglebank.ledger.snapshot-interval=10")
+class LedgerSnapshotServiceTest {
+
+    @Autowired
+    private LedgerSnapshotService ledgerSnapshots;
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @SpyBean
+    private AccountSnapshotRepository snapshotRepository;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        String email = "ledger@example.com";
+        User owner = userRepository.save(new User(null, "Ledger Owner", "secret", email));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(owner.getId(), email), null, List.of()));
+
+        accountId = bankAccountService.createAccount(new BankAccountRequest("SAVINGS", 100.0)).id();
+        for (int i = 0; i < 25; i++) {
+            transactionService.createTransaction(accountId, new TransactionRequest(2.0, TransactionType.DEPOSIT));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        // Other suites share this database and delete accounts without their transactions.
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        transactionRepository.deleteAll();
+        snapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testTransactions_SnapshotEveryInterval() {
+        AccountSnapshot latest = snapshotRepository.findFirstByAccountIdOrderByLastTransactionIdDesc(accountId)
+                .orElseThrow();
+
+        assertThat(latest.getBalance()).isEqualTo(140.0);
+        assertThat(accountRepository.findById(accountId).orElseThrow().getEventsSinceSnapshot()).isEqualTo(5);
+    }
+
+    @Test
+    void testRebuild_DriftedBalance_ReplaysOnlyTailAndRepairs() {
+        BankAccount account = accountRepository.findById(accountId).orElseThrow();
+        account.setBalance(0.0);
+        accountRepository.save(account);
+
+        LedgerSnapshotService.RebuildResult result = ledgerSnapshots.rebuild(accountId);
+
+        assertThat(result.repaired()).isTrue();
+        assertThat(result.replayedEvents()).isEqualTo(5);
+        assertThat(result.rebuiltBalance()).isEqualTo(150.0);
+        BankAccount rebuilt = accountRepository.findById(accountId).orElseThrow();
+        assertThat(rebuilt.getBalance()).isEqualTo(150.0);
+        assertThat(rebuilt.getEventsSinceSnapshot()).isZero();
+    }
+
+    @Test
+    void testRebuildAll_ConsistentAccount_IsLeftUntouched() {
+        LedgerSnapshotService.RebuildSummary summary = ledgerSnapshots.rebuildAll();
+
+        assertThat(summary.accounts()).isEqualTo(1);
+        assertThat(summary.replayedEvents()).isEqualTo(5);
+        assertThat(summary.repairedAccountIds()).isEmpty();
+        assertThat(summary.failures()).isEmpty();
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualTo(150.0);
+    }
+
+    @Test
+    void testRebuildAll_FailingAccount_IsReportedAndOthersStillRebuild() {
+        Long failingId = bankAccountService.createAccount(new BankAccountRequest("SAVINGS", 10.0)).id();
+        BankAccount drifted = accountRepository.findById(accountId).orElseThrow();
+        drifted.setBalance(0.0);
+        accountRepository.save(drifted);
+        doThrow(new IllegalStateException("Snapshot store unavailable"))
+                .when(snapshotRepository).findFirstByAccountIdOrderByLastTransactionIdDesc(failingId);
+
+        LedgerSnapshotService.RebuildSummary summary = ledgerSnapshots.rebuildAll();
+
+        assertThat(summary.accounts()).isEqualTo(2);
+        assertThat(summary.repairedAccountIds()).containsExactly(accountId);
+        assertThat(summary.failures()).containsExactly(
+                new LedgerSnapshotService.RebuildFailure(failingId, "Snapshot store unavailable"));
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualTo(150.0);
+    }
+}
@@ -0,0 +1,170 @@
+package com.eaglebank.service;
+
+import com.eaglebank.dto.BankAccountRequest;
+import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.model.BalanceStripe;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.User;
+import com.eaglebank.readmodel.AccountReadModel;
+import com.eaglebank.readmodel.AccountView;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.repository.BalanceStripeRepository;
+import com.eaglebank.repository.BankAccountRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "eaglebank.ledger.lanes=4")
+class StripedBalanceServiceTest {
+
+    private static final int WRITERS = 8;
+    private static final int DEPOSITS_PER_WRITER = 25;
+
+    @Autowired
+    private StripedBalanceService stripedBalances;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private AccountReadModel readModel;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository accountRepository;
+    @Autowired
+    private BalanceStripeRepository stripeRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountSnapshotRepository snapshotRepository;
+
+    private AuthenticatedUser owner;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        User user = userRepository.save(new User(null, "Merchant", "secret", "merchant@example.com"));
+        owner = new AuthenticatedUser(user.getId(), user.getEmail());
+        authenticate();
+        accountId = bankAccountService.createAccount(new BankAccountRequest("CURRENT", 100.0)).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (accountId != null && stripedBalances.stripedAccounts().containsKey(accountId)) {
+            stripedBalances.restripe(accountId, 0);
+        }
+        SecurityContextHolder.clearContext();
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        stripeRepository.deleteAll();
+        transactionRepository.deleteAll();
+        snapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, List.of()));
+    }
+
+    private void depositConcurrently() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                done.add(pool.submit(() -> {
+                    authenticate();
+                    for (int i = 0; i < DEPOSITS_PER_WRITER; i++) {
+                        transactionService.createTransaction(accountId, new TransactionRequest(1.0, TransactionType.DEPOSIT));
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double stripesTotal() {
+        return stripeRepository.sumBalanceByAccountId(accountId);
+    }
+
+    @Test
+    void testStripedDeposits_LandOnStripes_AndReadsFoldThem() throws Exception {
+        stripedBalances.restripe(accountId, 4);
+        assertThat(readModel.find(accountId)).isEmpty();
+        long versionBefore = bankAccountService.getAccountRevision(accountId).version();
+
+        depositConcurrently();
+
+        assertThat(stripeRepository.findAll()).extracting(BalanceStripe::getSlot).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(stripesTotal()).isPositive();
+        assertThat(bankAccountService.getAccountById(accountId).balance()).isEqualTo(300.0);
+        assertThat(bankAccountService.getAccountRevision(accountId).version()).isGreaterThan(versionBefore);
+        assertThat(transactionRepository.count()).isEqualTo(WRITERS * DEPOSITS_PER_WRITER);
+    }
+
+    @Test
+    void testWithdrawal_SweepsStripes_AndChecksFundsExactly() throws Exception {
+        stripedBalances.restripe(accountId, 4);
+        depositConcurrently();
+
+        assertThatThrownBy(() -> transactionService.createTransaction(accountId,
+                new TransactionRequest(300.01, TransactionType.WITHDRAWAL)))
+                .isInstanceOf(InsufficientFundsException.class);
+        var response = transactionService.createTransaction(accountId,
+                new TransactionRequest(300.0, TransactionType.WITHDRAWAL));
+
+        assertThat(response.updatedBalance()).isZero();
+        assertThat(stripesTotal()).isZero();
+        assertThat(bankAccountService.getAccountById(accountId).balance()).isZero();
+    }
+
+    @Test
+    void testUnstripe_SweepsIntoAccount_AndReadModelFollowsItAgain() throws Exception {
+        stripedBalances.restripe(accountId, 4);
+        depositConcurrently();
+
+        StripedBalanceService.StripeResult result = stripedBalances.restripe(accountId, 0);
+
+        assertThat(result.previous()).isEqualTo(4);
+        assertThat(result.balance()).isEqualTo(300.0);
+        assertThat(stripesTotal()).isZero();
+        assertThat(stripedBalances.stripedAccounts()).doesNotContainKey(accountId);
+        assertThat(readModel.find(accountId)).map(AccountView::balance).contains(300.0);
+
+        transactionService.createTransaction(accountId, new TransactionRequest(5.0, TransactionType.DEPOSIT));
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualTo(305.0);
+    }
+
+    @Test
+    void testRestripe_OutOfRange_IsRejected() {
+        assertThatThrownBy(() -> stripedBalances.restripe(accountId, StripedBalanceService.MAX_STRIPES + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,7 +1,14 @@
 package com.eaglebank.service;
 
+import com.eaglebank.dto.BatchItemStatus;
 import com.eaglebank.dto.TransactionRequest;
+import com.eaglebank.dto.TransactionResponse;
+import com.eaglebank.config.ConflictRetryProperties;
+import com.eaglebank.config.LedgerProperties;
+import com.eaglebank.exception.ConcurrentUpdateException;
 import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.ledger.ConflictRetry;
+import com.eaglebank.ledger.LedgerEngine;
 import com.eaglebank.model.BankAccount;
 import com.eaglebank.model.Transaction;
 import com.eaglebank.model.TransactionType;
@@ -9,25 +16,42 @@ import com.eaglebank.model.User;
 import com.eaglebank.repository.BankAccountRepository;
 import com.eaglebank.repository.TransactionRepository;
 import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.util.CursorCodec;
 import com.eaglebank.util.SecurityUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,11 +72,34 @@ public class TransactionServiceTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private LedgerSnapshotService ledgerSnapshots;
+
+    @Mock
+    private StripedBalanceService stripedBalances;
+
+    @Spy
+    private LedgerEngine ledgerEngine =
+            new LedgerEngine(new LedgerProperties(2, 16, 100, 64, Duration.ZERO),
+                    TransactionOperations.withoutTransaction(), new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ConflictRetry conflictRetry = new ConflictRetry(
+            new ConflictRetryProperties(3, Duration.ZERO, Duration.ZERO, Duration.ofSeconds(1), 16), meterRegistry);
+
     @BeforeEach
     void setupSecurityContext() {
         authenticateAs("test@example.com");
     }
 
+    @AfterEach
+    void tearDown() {
+        ledgerEngine.shutdown();
+    }
+
     private void authenticateAs(String email) {
         var auth = new UsernamePasswordAuthenticationToken(email, null, List.of());
         SecurityContextHolder.getContext().setAuthentication(auth);
@@ -67,7 +114,7 @@ public class TransactionServiceTest {
     }
 
     private void mockCommonAuth(User user) {
-        when(securityUtils.getAuthenticatedUser()).thenReturn(user);
+        when(securityUtils.getAuthenticatedPrincipal()).thenReturn(new AuthenticatedUser(user.getId(), user.getEmail()));
     }
 
     private void mockTransactionSaveWithId(Long id) {
@@ -94,6 +141,47 @@ public class TransactionServiceTest {
         assertEquals(150.0, response.updatedBalance());
         assertEquals(TransactionType.DEPOSIT, response.type());
         assertEquals(50.0, response.amount());
+        assertEquals(1.0, meterRegistry.get("eaglebank.transactions.applied").tag("type", "DEPOSIT").counter().count());
+        verify(ledgerSnapshots).recordEvents(account, 1, 1L);
+    }
+
+    @Test
+    void testDepositTransaction_VersionConflict_RetriesAgainstFreshAccount() {
+        var user = createUser(1L, "test@example.com");
+        var request = new TransactionRequest(50.0, TransactionType.DEPOSIT);
+
+        mockCommonAuth(user);
+        // Each attempt reloads the row, as a new persistence context would after the rollback.
+        when(accountRepo.findById(1L)).thenAnswer(i -> Optional.of(createAccount(1L, 100.0, user)));
+        when(accountRepo.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(BankAccount.class, 1L))
+                .thenAnswer(i -> i.getArgument(0));
+        mockTransactionSaveWithId(1L);
+
+        var response = transactionService.createTransaction(1L, request);
+
+        assertEquals(150.0, response.updatedBalance());
+        verify(transactionRepo, times(2)).save(any());
+        assertEquals(1.0, meterRegistry.get("eaglebank.ledger.conflicts").counter().count());
+        assertEquals(1.0, meterRegistry.get("eaglebank.transactions.applied").tag("type", "DEPOSIT").counter().count());
+        assertEquals(1L, conflictRetry.contention().hottest(1).get(0).accountId());
+    }
+
+    @Test
+    void testWithdrawalTransaction_PersistentVersionConflict_GivesUpAfterBudget() {
+        var user = createUser(1L, "test@example.com");
+        var request = new TransactionRequest(50.0, TransactionType.WITHDRAWAL);
+
+        mockCommonAuth(user);
+        when(accountRepo.findById(1L)).thenAnswer(i -> Optional.of(createAccount(1L, 100.0, user)));
+        when(accountRepo.save(any())).thenThrow(new ObjectOptimisticLockingFailureException(BankAccount.class, 1L));
+        mockTransactionSaveWithId(1L);
+
+        assertThrows(ConcurrentUpdateException.class, () -> transactionService.createTransaction(1L, request));
+
+        verify(accountRepo, times(3)).save(any());
+        assertEquals(1.0, meterRegistry.get("eaglebank.ledger.conflicts.exhausted").counter().count());
+        assertEquals(0.0, meterRegistry.get("eaglebank.transactions.applied").tag("type", "WITHDRAWAL").counter().count());
     }
 
     @Test
@@ -125,6 +213,30 @@ public class TransactionServiceTest {
 
         assertThrows(InsufficientFundsException.class,
                 () -> transactionService.createTransaction(1L, request));
+        assertEquals(1.0, meterRegistry.get("eaglebank.transactions.rejected")
+                .tag("reason", "insufficient_funds").counter().count());
+        assertEquals(0.0, meterRegistry.get("eaglebank.transactions.applied").tag("type", "WITHDRAWAL").counter().count());
+    }
+
+    @Test
+    void testWithdrawal_RejectedCommandRerunOnTheLane_IsCountedOnce() {
+        var user = createUser(1L, "test@example.com");
+        var account = createAccount(1L, 30.0, user);
+        var request = new TransactionRequest(100.0, TransactionType.WITHDRAWAL);
+
+        mockCommonAuth(user);
+        when(accountRepo.findById(1L)).thenReturn(Optional.of(account));
+        // As after a failed group commit: the command runs once in the batch, then again alone.
+        doAnswer(invocation -> {
+            Supplier<?> command = invocation.getArgument(2);
+            assertThrows(InsufficientFundsException.class, command::get);
+            return invocation.callRealMethod();
+        }).when(ledgerEngine).execute(any(), anyInt(), any());
+
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.createTransaction(1L, request));
+        assertEquals(1.0, meterRegistry.get("eaglebank.transactions.rejected")
+                .tag("reason", "insufficient_funds").counter().count());
     }
 
     @Test
@@ -155,16 +267,124 @@ public class TransactionServiceTest {
                 () -> transactionService.createTransaction(99L, request));
     }
 
+    @Test
+    void testCreateTransactions_BatchWithOverdraft_RejectsOnlyThatItem() {
+        var user = createUser(1L, "test@example.com");
+        var account = createAccount(1L, 100.0, user);
+        var requests = List.of(
+                new TransactionRequest(50.0, TransactionType.DEPOSIT),
+                new TransactionRequest(500.0, TransactionType.WITHDRAWAL),
+                new TransactionRequest(120.0, TransactionType.WITHDRAWAL));
+
+        mockCommonAuth(user);
+        when(accountRepo.findById(1L)).thenReturn(Optional.of(account));
+        when(accountRepo.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(transactionRepo.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> txs = invocation.getArgument(0);
+            long id = 100L;
+            for (Transaction tx : txs) {
+                tx.setId(id++);
+            }
+            return txs;
+        });
+
+        var response = transactionService.createTransactions(1L, requests);
+
+        assertEquals(2, response.applied());
+        assertEquals(1, response.rejected());
+        assertEquals(30.0, response.balance());
+        assertEquals(30.0, account.getBalance());
+
+        assertEquals(BatchItemStatus.APPLIED, response.results().get(0).status());
+        assertEquals(100L, response.results().get(0).transactionId());
+        assertEquals(150.0, response.results().get(0).updatedBalance());
+
+        assertEquals(BatchItemStatus.REJECTED, response.results().get(1).status());
+        assertEquals("Insufficient funds", response.results().get(1).error());
+
+        assertEquals(BatchItemStatus.APPLIED, response.results().get(2).status());
+        assertEquals(101L, response.results().get(2).transactionId());
+        assertEquals(30.0, response.results().get(2).updatedBalance());
+        verify(accountRepo, times(1)).save(account);
+    }
+
+    @Test
+    void testCreateTransactions_AnotherUsersAccount_Returns403_Forbidden() {
+        var loggedInUser = createUser(1L, "john@example.com");
+        var account = createAccount(10L, 100.0, createUser(2L, "jane@example.com"));
+
+        mockCommonAuth(loggedInUser);
+        when(accountRepo.findById(10L)).thenReturn(Optional.of(account));
+
+        assertThrows(AccessDeniedException.class, () -> transactionService.createTransactions(10L,
+                List.of(new TransactionRequest(50.0, TransactionType.DEPOSIT))));
+    }
+
+    @Test
+    void getTransactions_MorePagesAvailable_ReturnsCursorForLastRow() {
+        var user = createUser(1L, "test@example.com");
+        var rows = List.of(
+                new TransactionResponse(30L, TransactionType.DEPOSIT, 10.0, 130.0),
+                new TransactionResponse(20L, TransactionType.DEPOSIT, 10.0, 120.0),
+                new TransactionResponse(10L, TransactionType.DEPOSIT, 10.0, 110.0));
+
+        mockCommonAuth(user);
+        when(accountRepo.findOwnerIdById(1L)).thenReturn(Optional.of(1L));
+        when(transactionRepo.findPageByAccountId(1L, Long.MAX_VALUE, null, null, null, Limit.of(3)))
+                .thenReturn(rows);
+
+        var page = transactionService.getTransactions(1L, null, null, null, null, 2);
+
+        assertEquals(2, page.transactions().size());
+        assertEquals(20L, CursorCodec.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getTransactions_WithCursor_SeeksBelowCursorAndEndsOnLastPage() {
+        var user = createUser(1L, "test@example.com");
+        var rows = List.of(new TransactionResponse(10L, TransactionType.WITHDRAWAL, 5.0, 95.0));
+
+        mockCommonAuth(user);
+        when(accountRepo.findOwnerIdById(1L)).thenReturn(Optional.of(1L));
+        when(transactionRepo.findPageByAccountId(1L, 20L, TransactionType.WITHDRAWAL, null, null, Limit.of(3)))
+                .thenReturn(rows);
+
+        var page = transactionService.getTransactions(1L, CursorCodec.encode(20L), TransactionType.WITHDRAWAL,
+                null, null, 2);
+
+        assertEquals(1, page.transactions().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getTransactions_AccountNotOwnedByUser_ShouldThrow403_Forbidden() {
+        mockCommonAuth(createUser(1L, "john@example.com"));
+        when(accountRepo.findOwnerIdById(20L)).thenReturn(Optional.of(2L));
+
+        assertThrows(AccessDeniedException.class,
+                () -> transactionService.getTransactions(20L, null, null, null, null, 10));
+    }
+
+    @Test
+    void getTransactions_TamperedCursor_ShouldThrow400_BadRequest() {
+        mockCommonAuth(createUser(1L, "test@example.com"));
+        when(accountRepo.findOwnerIdById(1L)).thenReturn(Optional.of(1L));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactions(1L, "not-a-cursor", null, null, null, 10));
+    }
+
     @Test
     void getTransaction_ReturnsCorrectResponse() {
         var user = createUser(1L, "alice@example.com");
         var account = createAccount(1L, 1000.0, user);
         var transaction = new Transaction(100.0, TransactionType.DEPOSIT, LocalDateTime.now(), account);
         transaction.setId(10L);
+        transaction.setBalanceAfterTransaction(1100.0);
 
         authenticateAs(user.getEmail());
         mockCommonAuth(user);
-        when(accountRepo.findById(account.getId())).thenReturn(Optional.of(account));
+        when(accountRepo.findOwnerIdById(account.getId())).thenReturn(Optional.of(account.getUser().getId()));
         when(transactionRepo.findById(transaction.getId())).thenReturn(Optional.of(transaction));
 
         var result = transactionService.getTransaction(1L, 10L);
@@ -172,7 +392,7 @@ public class TransactionServiceTest {
         assertEquals(10L, result.transactionId());
         assertEquals(TransactionType.DEPOSIT, result.type());
         assertEquals(100.0, result.amount());
-        assertEquals(1000.0, result.updatedBalance());
+        assertEquals(1100.0, result.updatedBalance());
     }
 
     @Test
@@ -185,7 +405,7 @@ public class TransactionServiceTest {
 
         authenticateAs(loggedInUser.getEmail());
         mockCommonAuth(loggedInUser);
-        when(accountRepo.findById(account.getId())).thenReturn(Optional.of(account));
+        when(accountRepo.findOwnerIdById(account.getId())).thenReturn(Optional.of(account.getUser().getId()));
 
         assertThrows(AccessDeniedException.class,
                 () -> transactionService.getTransaction(20L, 99L));
@@ -198,7 +418,7 @@ public class TransactionServiceTest {
 
         authenticateAs(user.getEmail());
         mockCommonAuth(user);
-        when(accountRepo.findById(account.getId())).thenReturn(Optional.of(account));
+        when(accountRepo.findOwnerIdById(account.getId())).thenReturn(Optional.of(account.getUser().getId()));
         when(transactionRepo.findById(10L)).thenReturn(Optional.empty());
 
         assertThrows(NoSuchElementException.class,
@@ -211,7 +431,7 @@ public class TransactionServiceTest {
 
         authenticateAs(user.getEmail());
         mockCommonAuth(user);
-        when(accountRepo.findById(999L)).thenReturn(Optional.empty());
+        when(accountRepo.findOwnerIdById(999L)).thenReturn(Optional.empty());
 
         assertThrows(NoSuchElementException.class,
                 () -> transactionService.getTransaction(999L, 10L));
@@ -227,7 +447,7 @@ public class TransactionServiceTest {
 
         authenticateAs(user.getEmail());
         mockCommonAuth(user);
-        when(accountRepo.findById(account.getId())).thenReturn(Optional.of(account));
+        when(accountRepo.findOwnerIdById(account.getId())).thenReturn(Optional.of(account.getUser().getId()));
         when(transactionRepo.findById(10L)).thenReturn(Optional.of(transaction));
 
         assertThrows(NoSuchElementException.class,
@@ -6,11 +6,12 @@ import com.eaglebank.exception.UserConflictException;
 import com.eaglebank.model.User;
 import com.eaglebank.repository.BankAccountRepository;
 import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.PasswordHasher;
+import com.eaglebank.security.PrincipalCache;
 import com.eaglebank.util.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -23,7 +24,8 @@ public class UserServiceTest {
     private UserRepository repo;
     private BankAccountRepository bankRepository;
     private SecurityUtils securityUtils;
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+    private PrincipalCache principalCache;
     private UserService service;
 
     @BeforeEach
@@ -31,11 +33,12 @@ public class UserServiceTest {
         repo = mock(UserRepository.class);
         bankRepository = mock(BankAccountRepository.class);
         securityUtils = mock(SecurityUtils.class);
-        passwordEncoder = mock(PasswordEncoder.class);
-        service = new UserService(repo, bankRepository, securityUtils, passwordEncoder);
+        passwordHasher = mock(PasswordHasher.class);
+        principalCache = mock(PrincipalCache.class);
+        service = new UserService(repo, bankRepository, securityUtils, passwordHasher, principalCache);
 
         when(securityUtils.getAuthenticatedEmail()).thenReturn("alice@example.com");
-        when(passwordEncoder.encode(any())).thenAnswer(inv -> "encoded-" + inv.getArgument(0));
+        when(passwordHasher.hash(any())).thenAnswer(inv -> "encoded-" + inv.getArgument(0));
     }
 
     private User user(Long id, String name, String email, String password) {
@@ -67,6 +70,21 @@ public class UserServiceTest {
         assertEquals("bob@example.com", result.email());
     }
 
+    @Test
+    void getUserVersion_WhenUserIsSomeoneElse_ShouldThrow403_Forbidden() {
+        when(repo.findVersionByIdAndEmail(2L, "alice@example.com")).thenReturn(Optional.empty());
+        when(repo.existsById(2L)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () -> service.getUserVersionForCurrentUser(2L));
+    }
+
+    @Test
+    void getUserVersion_WhenUserDoesNotExist_ShouldThrow404_NotFound() {
+        when(repo.findVersionByIdAndEmail(9L, "alice@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> service.getUserVersionForCurrentUser(9L));
+    }
+
     @Test
     void createUser_WhenEmailExists_ShouldReturn400_BadRequest() {
         when(repo.existsByEmail("bob@example.com")).thenReturn(true);
@@ -118,6 +136,20 @@ public class UserServiceTest {
         assertEquals("alice@example.com", updated.email());
     }
 
+    @Test
+    void updateUserDetails_WhenEmailChanges_ShouldInvalidateOldAndNewPrincipal() {
+        User existingUser = user(1L, "Alice", "alice@example.com", "oldPass");
+        UserRequest updateRequest = userRequest("Alice", "alice@new.example.com", "newSecret");
+
+        when(repo.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateUserDetails(1L, updateRequest);
+
+        verify(principalCache).invalidate("alice@example.com");
+        verify(principalCache).invalidate("alice@new.example.com");
+    }
+
     @Test
     void updateUserDetails_ShouldReturn403Forbidden_ForDifferentUser() {
         User otherUser = user(2L, "Bob", "bob@example.com", "pass");
@@ -146,6 +178,7 @@ public class UserServiceTest {
 
         assertDoesNotThrow(() -> service.deleteUser(1L));
         verify(repo).delete(user);
+        verify(principalCache).invalidate("alice@example.com");
     }
 
     @Test
@@ -157,6 +190,7 @@ public class UserServiceTest {
 
         assertThrows(UserConflictException.class, () -> service.deleteUser(1L));
         verify(repo, never()).delete(any());
+        verify(principalCache, never()).invalidate(any());
     }
 
     @Test
@@ -0,0 +1,65 @@
+package com.eaglebank.util;
+
+import com.eaglebank.model.User;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.security.PrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SecurityUtilsTest {
+
+    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+    private SecurityUtils securityUtils;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        principalCache = mock(PrincipalCache.class);
+        securityUtils = new SecurityUtils(userRepository, principalCache);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(Object principal) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, null));
+    }
+
+    @Test
+    void testGetAuthenticatedPrincipal_TokenWithUserId_DoesNotLookUpUser() {
+        authenticateAs(new AuthenticatedUser(7L, "alice@example.com"));
+
+        AuthenticatedUser principal = securityUtils.getAuthenticatedPrincipal();
+
+        assertThat(principal.id()).isEqualTo(7L);
+        assertThat(principal.email()).isEqualTo("alice@example.com");
+        verifyNoInteractions(principalCache, userRepository);
+    }
+
+    @Test
+    void testGetAuthenticatedPrincipal_LegacyTokenWithoutUserId_ResolvesIdByEmail() {
+        authenticateAs(new AuthenticatedUser(null, "alice@example.com"));
+        when(principalCache.resolve(eq("alice@example.com"), any()))
+                .thenReturn(Optional.of(new User(7L, "Alice", "secret", "alice@example.com")));
+
+        AuthenticatedUser principal = securityUtils.getAuthenticatedPrincipal();
+
+        assertThat(principal.id()).isEqualTo(7L);
+        assertThat(securityUtils.getAuthenticatedEmail()).isEqualTo("alice@example.com");
+    }
+}